@@ -0,0 +1,108 @@
+package dev.fastgql.sql;
+
+import dev.fastgql.db.DatasourceConfig;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of compiling GraphQL query to SQL, over {@link SyntheticSchema} of increasing width
+ * (columns per table and conditions per where clause) and depth (nesting levels). None of them
+ * needs database, run them with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlCompilationBenchmark {
+
+  private static final DatasourceConfig.DBType DB_TYPE = DatasourceConfig.DBType.postgresql;
+  private static final String ROOT_ALIAS = "a0";
+
+  @Param({"1", "8", "32"})
+  public int width;
+
+  @Param({"0", "2", "6"})
+  public int depth;
+
+  @Param({"referencing", "referenced"})
+  public String nesting;
+
+  private SyntheticSchema syntheticSchema;
+  private ExecutionConfig executionConfig;
+  private Condition condition;
+  private Query query;
+  private List<PreparedQuery> preparedQueries;
+
+  @Setup
+  public void setup() {
+    syntheticSchema = new SyntheticSchema(width, depth, SyntheticSchema.Nesting.valueOf(nesting));
+    executionConfig = ExecutionConfig.createWithJsonConfig(null);
+    condition =
+        ConditionUtils.createCondition(
+            syntheticSchema.getArgument("where"),
+            syntheticSchema.getRootTableName(),
+            syntheticSchema.getGraphQLDatabaseSchema());
+    query = syntheticSchema.createQuery(ROOT_ALIAS, DB_TYPE);
+    preparedQueries =
+        IntStream.range(0, width)
+            .mapToObj(
+                index ->
+                    PreparedQuery.create(String.format("%s.c%d = ", ROOT_ALIAS, index))
+                        .addParam(index))
+            .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public ExecutionDefinition<List<Map<String, Object>>> createExecutionDefinition() {
+    QueryFunctions queryFunctions =
+        new QueryFunctions(
+            syntheticSchema.getGraphQLDatabaseSchema(),
+            syntheticSchema.getRoleSpec(),
+            Map.of(),
+            tableAliases -> null,
+            null,
+            DB_TYPE,
+            executionConfig);
+    return queryFunctions.createExecutionDefinition(syntheticSchema.getField(), false);
+  }
+
+  @Benchmark
+  public String buildQuery() {
+    return query.buildQuery(DB_TYPE);
+  }
+
+  @Benchmark
+  public PreparedQuery conditionToSQL() {
+    return ConditionUtils.conditionToSQL(condition, ROOT_ALIAS, Map.of());
+  }
+
+  @Benchmark
+  public List<OrderBy> createOrderBy() {
+    return OrderByUtils.createOrderBy(
+        syntheticSchema.getArgument("order_by"),
+        syntheticSchema.getRootTableName(),
+        ROOT_ALIAS,
+        syntheticSchema.getGraphQLDatabaseSchema());
+  }
+
+  @Benchmark
+  public PreparedQuery collectorWithAnd() {
+    return preparedQueries.stream().collect(PreparedQuery.collectorWithAnd());
+  }
+}
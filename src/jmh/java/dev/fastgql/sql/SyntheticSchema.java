@@ -0,0 +1,238 @@
+package dev.fastgql.sql;
+
+import dev.fastgql.common.KeyType;
+import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.db.DatabaseSchema;
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.RoleSpec;
+import dev.fastgql.dsl.TableSpec;
+import dev.fastgql.graphql.GraphQLDatabaseSchema;
+import graphql.language.Argument;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic schema and query of given width and depth, for benchmarks which do not need database.
+ * Schema is chain of tables {@code t0 ... t<depth>}, every table has primary key {@code id}, {@code
+ * width} INT and STRING columns {@code c0 ... c<width - 1>} and, except the last one, column {@code
+ * next_id} referencing the next table. Every table is selectable by the role, with permission
+ * condition on its primary key.
+ */
+class SyntheticSchema {
+
+  /** How nested fields of the query are related to their parents. */
+  enum Nesting {
+    /** Many-to-one, fetched with LEFT JOIN. */
+    referencing,
+    /** One-to-many, fetched with separate query. */
+    referenced
+  }
+
+  private final int width;
+  private final int depth;
+  private final Nesting nesting;
+  private final DatabaseSchema databaseSchema;
+  private final GraphQLDatabaseSchema graphQLDatabaseSchema;
+  private final RoleSpec roleSpec;
+  private final Field field;
+
+  SyntheticSchema(int width, int depth, Nesting nesting) {
+    this.width = width;
+    this.depth = depth;
+    this.nesting = nesting;
+    this.databaseSchema = createDatabaseSchema();
+    this.graphQLDatabaseSchema = new GraphQLDatabaseSchema(databaseSchema);
+    this.roleSpec = createRoleSpec();
+    this.field = parseField(createQuery());
+  }
+
+  private static String tableName(int index) {
+    return String.format("t%d", index);
+  }
+
+  private static String columnName(int index) {
+    return String.format("c%d", index);
+  }
+
+  private static boolean isStringColumn(int index) {
+    return index % 2 == 1;
+  }
+
+  private List<String> columnNames() {
+    return IntStream.range(0, width)
+        .mapToObj(SyntheticSchema::columnName)
+        .collect(Collectors.toList());
+  }
+
+  private DatabaseSchema createDatabaseSchema() {
+    DatabaseSchema.Builder builder = DatabaseSchema.newSchema();
+    for (int tableIndex = 0; tableIndex <= depth; tableIndex++) {
+      String tableName = tableName(tableIndex);
+      builder.addKey(tableName + "/id", KeyType.INT).addPrimaryKey(tableName + "/id");
+      for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+        builder.addKey(
+            tableName + "/" + columnName(columnIndex),
+            isStringColumn(columnIndex) ? KeyType.STRING : KeyType.INT);
+      }
+      if (tableIndex < depth) {
+        builder.addKey(tableName + "/next_id", KeyType.INT, tableName(tableIndex + 1) + "/id");
+      }
+    }
+    return builder.build();
+  }
+
+  private RoleSpec createRoleSpec() {
+    RoleSpec roleSpec = new RoleSpec();
+    for (int tableIndex = 0; tableIndex <= depth; tableIndex++) {
+      String tableName = tableName(tableIndex);
+      OpSpec opSpec = new OpSpec(tableName);
+      opSpec.getAllowed().add("id");
+      opSpec.getAllowed().add("next_id");
+      opSpec.getAllowed().addAll(columnNames());
+      opSpec
+          .getCondition()
+          .getNext()
+          .add(new Condition("id", RelationalOperator._gte, params -> BigInteger.ZERO));
+      TableSpec tableSpec = new TableSpec(tableName);
+      tableSpec.getOpSpecs().put(OpType.select, opSpec);
+      roleSpec.getTables().put(tableName, tableSpec);
+    }
+    return roleSpec;
+  }
+
+  private String createQuery() {
+    int rootIndex = nesting == Nesting.referencing ? 0 : depth;
+    return String.format(
+        "{ %s(where: %s, order_by: %s, limit: 100) %s }",
+        tableName(rootIndex), createWhere(), createOrderBy(), createSelectionSet(rootIndex));
+  }
+
+  /** One condition per column, an OR of conditions on primary key and condition on next table. */
+  private String createWhere() {
+    List<String> conditions = new ArrayList<>();
+    for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+      conditions.add(
+          isStringColumn(columnIndex)
+              ? String.format("%s: {_neq: \"value%d\"}", columnName(columnIndex), columnIndex)
+              : String.format("%s: {_gt: %d}", columnName(columnIndex), columnIndex));
+    }
+    conditions.add("_or: [{id: {_in: [1, 2, 3]}}, {id: {_lt: 1000}}]");
+    if (nesting == Nesting.referencing && depth > 0) {
+      conditions.add("next_id_ref: {id: {_gte: 0}}");
+    }
+    return conditions.stream().collect(Collectors.joining(", ", "{", "}"));
+  }
+
+  private String createOrderBy() {
+    List<String> orderBys = new ArrayList<>();
+    for (int columnIndex = 0; columnIndex < width; columnIndex++) {
+      orderBys.add(
+          String.format(
+              "{%s: %s}", columnName(columnIndex), columnIndex % 2 == 0 ? "asc" : "desc"));
+    }
+    if (nesting == Nesting.referencing && depth > 0) {
+      orderBys.add("{next_id_ref: {id: asc}}");
+    }
+    return orderBys.stream().collect(Collectors.joining(", ", "[", "]"));
+  }
+
+  private String createSelectionSet(int tableIndex) {
+    String columns = String.join(" ", columnNames());
+    String nested = "";
+    if (nesting == Nesting.referencing && tableIndex < depth) {
+      nested = String.format("next_id_ref %s", createSelectionSet(tableIndex + 1));
+    } else if (nesting == Nesting.referenced && tableIndex > 0) {
+      nested =
+          String.format(
+              "%s_on_next_id %s", tableName(tableIndex - 1), createSelectionSet(tableIndex - 1));
+    }
+    return String.format("{ id %s %s }", columns, nested);
+  }
+
+  private static Field parseField(String query) {
+    return (Field)
+        new Parser()
+            .parseDocument(query)
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  String getRootTableName() {
+    return field.getName();
+  }
+
+  DatabaseSchema getDatabaseSchema() {
+    return databaseSchema;
+  }
+
+  GraphQLDatabaseSchema getGraphQLDatabaseSchema() {
+    return graphQLDatabaseSchema;
+  }
+
+  RoleSpec getRoleSpec() {
+    return roleSpec;
+  }
+
+  Field getField() {
+    return field;
+  }
+
+  Argument getArgument(String name) {
+    return field.getArguments().stream()
+        .filter(argument -> argument.getName().equals(name))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  /**
+   * Creates query of root table with all its columns, joined with every next table and all its
+   * columns, like the one created for referencing nesting.
+   */
+  Query createQuery(String rootAlias, DatasourceConfig.DBType dbType) {
+    String rootTableName = getRootTableName();
+    Table table =
+        new Table(
+            rootTableName,
+            rootAlias,
+            roleSpec,
+            new Arguments(field.getArguments(), rootTableName, rootAlias, graphQLDatabaseSchema),
+            null,
+            Map.of(),
+            rootTableName,
+            dbType);
+    Query query = new Query(table);
+    for (int tableIndex = Integer.parseInt(rootTableName.substring(1)); ; tableIndex++) {
+      query.addSelectColumn(table, "id");
+      for (String columnName : columnNames()) {
+        query.addSelectColumn(table, columnName);
+      }
+      if (tableIndex == depth) {
+        return query;
+      }
+      Table nextTable =
+          new Table(
+              tableName(tableIndex + 1),
+              String.format("%sn%d", rootAlias, tableIndex),
+              roleSpec,
+              new Arguments(),
+              null,
+              Map.of(),
+              String.format("%s/next_id_ref", table.getPathInQuery()),
+              dbType);
+      query.addLeftJoin(table, "next_id", nextTable, "id");
+      table = nextTable;
+    }
+  }
+}
@@ -8,13 +8,11 @@ package dev.fastgql;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
-import com.google.inject.Key;
 import dev.fastgql.modules.*;
-import io.reactivex.Single;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Launcher;
 import io.vertx.core.Promise;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.reactivex.core.http.HttpServer;
 
 public class FastGQL extends AbstractVerticle {
 
@@ -34,15 +32,22 @@ public class FastGQL extends AbstractVerticle {
         new PermissionsSourceCodeModule());
   }
 
-  private void startServer(Injector injector, Promise<Void> promise) {
-    injector
-        .getInstance(new Key<Single<HttpServer>>() {})
-        .subscribe(server -> promise.complete(), promise::fail);
+  /**
+   * Deploys {@link ServerVerticle} on "http.instances" event loops (1 by default, 0 for one per
+   * available processor), all sharing single injector. SQL connection pool is shared as well, but
+   * it keeps separate pool for every instance, see {@link DatabaseModule}.
+   */
+  private void startServers(Injector injector, Promise<Void> promise) {
+    vertx
+        .rxDeployVerticle(
+            () -> new ServerVerticle(injector),
+            new DeploymentOptions().setInstances(VertxModule.serverInstances(config())))
+        .subscribe(deploymentId -> promise.complete(), promise::fail);
   }
 
   @Override
   public void start(Promise<Void> promise) {
     Injector injector = createInjector();
-    startServer(injector, promise);
+    startServers(injector, promise);
   }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright fastGQL Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package dev.fastgql;
+
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.http.HttpServer;
+
+/**
+ * HTTP server of single event loop. All instances are created with the same {@link Injector}, so
+ * they share database schema, {@link graphql.GraphQL}, SQL connection pool and debezium engine.
+ */
+public class ServerVerticle extends AbstractVerticle {
+
+  private final Injector injector;
+
+  public ServerVerticle(Injector injector) {
+    this.injector = injector;
+  }
+
+  @Override
+  public Completable rxStart() {
+    return injector.getInstance(new Key<Single<HttpServer>>() {}).ignoreElement();
+  }
+}
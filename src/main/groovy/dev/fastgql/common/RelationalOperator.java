@@ -35,6 +35,8 @@ public enum RelationalOperator {
               && Objects.nonNull(right)
               && Arrays.stream((Object[]) right)
                   .noneMatch(element -> ((Comparable) left).compareTo(element) == 0)),
+  // same check as _in, with values bound as single array
+  _any(" = ANY", RelationalOperatorType.generic, _in.validator),
   _gt(
       ">",
       RelationalOperatorType.generic,
@@ -0,0 +1,97 @@
+package dev.fastgql.db;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * SQL connection pool keeping separate pool for every Vert.x context it is used from. Vert.x pool
+ * is bound to the context it was created on and when used from other context every connection
+ * acquire and its completion hop to that context, so single pool shared by all server verticles
+ * would run database IO of all of them on one event loop. Pools are created lazily, on the context
+ * of their first use, calls made outside of any context share one more pool.
+ */
+class ContextPool implements Pool {
+
+  private final Supplier<Pool> poolFactory;
+  private final Map<Context, Pool> contextPools = new ConcurrentHashMap<>();
+  private volatile Pool noContextPool;
+
+  /**
+   * Create context pool.
+   *
+   * @param poolFactory creates pool bound to the current context
+   */
+  ContextPool(Supplier<Pool> poolFactory) {
+    this.poolFactory = poolFactory;
+  }
+
+  private Pool currentPool() {
+    Context context = Vertx.currentContext();
+    if (context != null) {
+      return contextPools.computeIfAbsent(context, key -> poolFactory.get());
+    }
+    if (noContextPool == null) {
+      synchronized (this) {
+        if (noContextPool == null) {
+          noContextPool = poolFactory.get();
+        }
+      }
+    }
+    return noContextPool;
+  }
+
+  /**
+   * All pools created so far.
+   *
+   * @return pools
+   */
+  Collection<Pool> getPools() {
+    List<Pool> pools = new ArrayList<>(contextPools.values());
+    if (noContextPool != null) {
+      pools.add(noContextPool);
+    }
+    return pools;
+  }
+
+  @Override
+  public void getConnection(Handler<AsyncResult<SqlConnection>> handler) {
+    currentPool().getConnection(handler);
+  }
+
+  @Override
+  public Query<RowSet<Row>> query(String sql) {
+    return currentPool().query(sql);
+  }
+
+  @Override
+  public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+    return currentPool().preparedQuery(sql);
+  }
+
+  @Override
+  public void begin(Handler<AsyncResult<Transaction>> handler) {
+    currentPool().begin(handler);
+  }
+
+  @Override
+  public void close() {
+    getPools().forEach(Pool::close);
+    contextPools.clear();
+    noContextPool = null;
+  }
+}
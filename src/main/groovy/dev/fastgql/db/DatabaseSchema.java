@@ -8,7 +8,10 @@ package dev.fastgql.db;
 
 import dev.fastgql.common.KeyType;
 import dev.fastgql.common.QualifiedName;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -23,9 +26,16 @@ import java.util.stream.Stream;
  */
 public class DatabaseSchema {
   private final Map<String, Map<String, KeyDefinition>> graph;
+  private final Map<String, List<String>> primaryKeys;
+  private final Map<String, Set<String>> nullableKeys;
 
-  private DatabaseSchema(Map<String, Map<String, KeyDefinition>> graph) {
+  private DatabaseSchema(
+      Map<String, Map<String, KeyDefinition>> graph,
+      Map<String, List<String>> primaryKeys,
+      Map<String, Set<String>> nullableKeys) {
     this.graph = graph;
+    this.primaryKeys = primaryKeys;
+    this.nullableKeys = nullableKeys;
   }
 
   public static DatabaseSchema.Builder newSchema() {
@@ -40,6 +50,26 @@ public class DatabaseSchema {
     return graph.keySet();
   }
 
+  /**
+   * Get names of primary key columns of given table, in order of the primary key.
+   *
+   * @param tableName name of the table
+   * @return list of key names, empty if table has no primary key
+   */
+  public List<String> getPrimaryKey(String tableName) {
+    return primaryKeys.getOrDefault(tableName, List.of());
+  }
+
+  /**
+   * Get names of columns of given table which can be null.
+   *
+   * @param tableName name of the table
+   * @return set of key names, empty if all columns are not null
+   */
+  public Set<String> getNullableKeys(String tableName) {
+    return nullableKeys.getOrDefault(tableName, Set.of());
+  }
+
   @Override
   public String toString() {
     return "DatabaseSchema{" + "graph=" + graph + '}';
@@ -47,11 +77,43 @@ public class DatabaseSchema {
 
   public static class Builder {
     private final Map<String, Map<String, KeyDefinition>> graph = new HashMap<>();
+    private final Map<String, List<String>> primaryKeys = new HashMap<>();
+    private final Map<String, Set<String>> nullableKeys = new HashMap<>();
 
     public Builder() {}
 
     public DatabaseSchema build() {
-      return new DatabaseSchema(graph);
+      return new DatabaseSchema(graph, primaryKeys, nullableKeys);
+    }
+
+    /**
+     * Add key to primary key of its table, keys of composite primary key have to be added in order.
+     *
+     * @param qualifiedName qualified name of the key in a form of "table/key"
+     * @return builder of DatabaseSchema
+     */
+    public Builder addPrimaryKey(String qualifiedName) {
+      Objects.requireNonNull(qualifiedName);
+      QualifiedName name = new QualifiedName(qualifiedName);
+      primaryKeys
+          .computeIfAbsent(name.getTableName(), tableName -> new ArrayList<>())
+          .add(name.getKeyName());
+      return this;
+    }
+
+    /**
+     * Mark key as one which can be null, keys are not null by default.
+     *
+     * @param qualifiedName qualified name of the key in a form of "table/key"
+     * @return builder of DatabaseSchema
+     */
+    public Builder addNullableKey(String qualifiedName) {
+      Objects.requireNonNull(qualifiedName);
+      QualifiedName name = new QualifiedName(qualifiedName);
+      nullableKeys
+          .computeIfAbsent(name.getTableName(), tableName -> new HashSet<>())
+          .add(name.getKeyName());
+      return this;
     }
 
     /**
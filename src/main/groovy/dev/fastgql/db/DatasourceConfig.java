@@ -44,6 +44,7 @@ public class DatasourceConfig {
   private final String username;
   private final String password;
   private final String schema;
+  private final PoolConfig poolConfig;
 
   private DatasourceConfig(
       String jdbcUrl,
@@ -53,7 +54,8 @@ public class DatasourceConfig {
       String db,
       String schema,
       String username,
-      String password) {
+      String password,
+      PoolConfig poolConfig) {
     this.jdbcUrl = jdbcUrl;
     this.dbType = dbType;
     this.host = host;
@@ -62,6 +64,7 @@ public class DatasourceConfig {
     this.schema = schema;
     this.username = username;
     this.password = password;
+    this.poolConfig = poolConfig;
   }
 
   private static class JdbcParseResult {
@@ -117,6 +120,23 @@ public class DatasourceConfig {
     }
   }
 
+  /**
+   * Query starting read-only transaction in which all queries see the same snapshot of database.
+   *
+   * @return query or null if database type does not support it
+   */
+  public String getSnapshotBeginQuery() {
+    switch (dbType) {
+      case mysql:
+        return "START TRANSACTION WITH CONSISTENT SNAPSHOT";
+      case postgresql:
+        return "BEGIN ISOLATION LEVEL REPEATABLE READ READ ONLY";
+      case other:
+      default:
+        return null;
+    }
+  }
+
   public Function<Set<TableAlias>, String> tableListLockQueryFunction() {
     switch (dbType) {
       case mysql:
@@ -150,27 +170,48 @@ public class DatasourceConfig {
    * @return new Pool
    */
   public Pool getPool(Vertx vertx) {
+    return createPool(vertx, poolConfig.createPoolOptions(1));
+  }
+
+  /**
+   * Generate {@link Pool} of proper type, which keeps separate pool for every Vert.x context it is
+   * used from (see {@link ContextPool}). Max size and wait queue size of the pool are split across
+   * given number of contexts, so that they are not exceeded when all of them use it.
+   *
+   * @param vertx vertx instance
+   * @param contexts number of contexts expected to use the pool
+   * @return new Pool
+   */
+  public Pool getContextPool(Vertx vertx, int contexts) {
+    PoolOptions poolOptions = poolConfig.createPoolOptions(contexts);
+    return Pool.newInstance(new ContextPool(() -> createPool(vertx, poolOptions).getDelegate()));
+  }
+
+  private Pool createPool(Vertx vertx, PoolOptions poolOptions) {
     switch (dbType) {
       case mysql:
         return MySQLPool.pool(
             vertx,
-            new MySQLConnectOptions()
-                .setHost(host)
-                .setPort(port)
-                .setDatabase(db)
-                .setUser(username)
-                .setPassword(password),
-            new PoolOptions().setMaxSize(5));
+            poolConfig.applyToConnectOptions(
+                new MySQLConnectOptions()
+                    .setHost(host)
+                    .setPort(port)
+                    .setDatabase(db)
+                    .setUser(username)
+                    .setPassword(password)),
+            poolOptions);
       case postgresql:
         return PgPool.pool(
             vertx,
-            new PgConnectOptions()
-                .setHost(host)
-                .setPort(port)
-                .setDatabase(db)
-                .setUser(username)
-                .setPassword(password),
-            new PoolOptions().setMaxSize(5));
+            poolConfig.applyToConnectOptions(
+                new PgConnectOptions()
+                    .setHost(host)
+                    .setPort(port)
+                    .setDatabase(db)
+                    .setUser(username)
+                    .setPassword(password)
+                    .setPipeliningLimit(poolConfig.getPipeliningLimit())),
+            poolOptions);
       case other:
       default:
         throw new RuntimeException("Cannot generate Pool for unsupported database type");
@@ -188,7 +229,15 @@ public class DatasourceConfig {
       String jdbcUrl, String username, String password) {
     JdbcParseResult result = JdbcParseResult.parse(jdbcUrl);
     return new DatasourceConfig(
-        jdbcUrl, result.dbType, result.host, result.port, result.db, result.db, username, password);
+        jdbcUrl,
+        result.dbType,
+        result.host,
+        result.port,
+        result.db,
+        result.db,
+        username,
+        password,
+        PoolConfig.createWithJsonConfig(null));
   }
 
   /**
@@ -201,9 +250,32 @@ public class DatasourceConfig {
    */
   public static DatasourceConfig createDatasourceConfig(
       String jdbcUrl, String username, String password, String schema) {
+    return createDatasourceConfig(
+        jdbcUrl, username, password, schema, PoolConfig.createWithJsonConfig(null));
+  }
+
+  /**
+   * Create method with custom schema and pool config.
+   *
+   * @param jdbcUrl JDBC url
+   * @param username database user name
+   * @param password database password
+   * @param schema database schema
+   * @param poolConfig SQL connection pool config
+   */
+  public static DatasourceConfig createDatasourceConfig(
+      String jdbcUrl, String username, String password, String schema, PoolConfig poolConfig) {
     JdbcParseResult result = JdbcParseResult.parse(jdbcUrl);
     return new DatasourceConfig(
-        jdbcUrl, result.dbType, result.host, result.port, result.db, schema, username, password);
+        jdbcUrl,
+        result.dbType,
+        result.host,
+        result.port,
+        result.db,
+        schema,
+        username,
+        password,
+        poolConfig);
   }
 
   /**
@@ -216,7 +288,8 @@ public class DatasourceConfig {
         config.getString("jdbcUrl"),
         config.getString("username"),
         config.getString("password"),
-        config.getString("schema"));
+        config.getString("schema"),
+        PoolConfig.createWithJsonConfig(config.getJsonObject("pool")));
   }
 
   public String getJdbcUrl() {
@@ -250,4 +323,8 @@ public class DatasourceConfig {
   public DBType getDbType() {
     return dbType;
   }
+
+  public PoolConfig getPoolConfig() {
+    return poolConfig;
+  }
 }
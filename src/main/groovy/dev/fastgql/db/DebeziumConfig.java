@@ -3,23 +3,51 @@ package dev.fastgql.db;
 import io.vertx.core.json.JsonObject;
 
 public class DebeziumConfig {
+
+  /** What happens to change events of subscriber whose buffer is full. */
+  public enum OverflowPolicy {
+    /** Oldest buffered event is dropped. */
+    dropOldest,
+    /** Only the latest event is kept, all older ones are dropped. */
+    latest,
+    /** Subscription is terminated with error. */
+    disconnect
+  }
+
+  private static final int DEFAULT_SUBSCRIBER_BUFFER_SIZE = 128;
+
   private final boolean active;
   private final boolean embedded;
   private final String bootstrapServers;
   private final String serverName;
+  private final int subscriberBufferSize;
+  private final OverflowPolicy subscriberOverflowPolicy;
+  private final boolean replayLastEvent;
 
   private DebeziumConfig() {
     this.active = false;
     this.embedded = false;
     this.bootstrapServers = null;
     this.serverName = null;
+    this.subscriberBufferSize = DEFAULT_SUBSCRIBER_BUFFER_SIZE;
+    this.subscriberOverflowPolicy = OverflowPolicy.dropOldest;
+    this.replayLastEvent = false;
   }
 
-  private DebeziumConfig(boolean embedded, String bootstrapServers, String serverName) {
+  private DebeziumConfig(
+      boolean embedded,
+      String bootstrapServers,
+      String serverName,
+      int subscriberBufferSize,
+      OverflowPolicy subscriberOverflowPolicy,
+      boolean replayLastEvent) {
     this.active = true;
     this.embedded = embedded;
     this.bootstrapServers = bootstrapServers;
     this.serverName = serverName;
+    this.subscriberBufferSize = subscriberBufferSize;
+    this.subscriberOverflowPolicy = subscriberOverflowPolicy;
+    this.replayLastEvent = replayLastEvent;
   }
 
   public static DebeziumConfig createWithJsonConfig(JsonObject config) {
@@ -27,7 +55,11 @@ public class DebeziumConfig {
       return new DebeziumConfig(
           config.getBoolean("embedded"),
           config.getString("bootstrap.servers"),
-          config.getString("server"));
+          config.getString("server"),
+          config.getInteger("subscriber.buffer.size", DEFAULT_SUBSCRIBER_BUFFER_SIZE),
+          OverflowPolicy.valueOf(
+              config.getString("subscriber.overflow", OverflowPolicy.dropOldest.name())),
+          config.getBoolean("replay.last", false));
     } else {
       return new DebeziumConfig();
     }
@@ -41,6 +73,30 @@ public class DebeziumConfig {
     return serverName;
   }
 
+  /**
+   * Maximum number of change events buffered for a single subscriber which does not keep up with
+   * them, {@link #getSubscriberOverflowPolicy()} is applied when it is exceeded.
+   *
+   * @return subscriber buffer size
+   */
+  public int getSubscriberBufferSize() {
+    return subscriberBufferSize;
+  }
+
+  public OverflowPolicy getSubscriberOverflowPolicy() {
+    return subscriberOverflowPolicy;
+  }
+
+  /**
+   * Whether new subscribers of embedded engine receive the last change event published before they
+   * subscribed, instead of initial event created for them.
+   *
+   * @return true if last event is replayed
+   */
+  public boolean isReplayLastEvent() {
+    return replayLastEvent;
+  }
+
   public boolean isEmbedded() {
     return embedded;
   }
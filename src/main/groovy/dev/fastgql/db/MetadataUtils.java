@@ -15,6 +15,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +63,21 @@ public class MetadataUtils {
       }
       foreignKeyResultSet.close();
 
+      // Primary key extraction
+      ResultSet primaryKeyResultSet = databaseMetaData.getPrimaryKeys(null, null, tableName);
+      Map<Integer, String> keySeqToPrimaryKey = new TreeMap<>();
+      while (primaryKeyResultSet.next()) {
+        keySeqToPrimaryKey.put(
+            primaryKeyResultSet.getInt("KEY_SEQ"), primaryKeyResultSet.getString("COLUMN_NAME"));
+      }
+      primaryKeyResultSet.close();
+      keySeqToPrimaryKey
+          .values()
+          .forEach(
+              columnName ->
+                  databaseSchemaBuilder.addPrimaryKey(
+                      QualifiedName.generate(tableName, columnName)));
+
       // Column extraction
       ResultSet columnsResultSet = databaseMetaData.getColumns(null, null, tableName, null);
       while (columnsResultSet.next()) {
@@ -80,6 +96,9 @@ public class MetadataUtils {
         } else {
           databaseSchemaBuilder.addKey(qualifiedName, sqlDataTypeToKeyType.get(dataType));
         }
+        if (columnsResultSet.getInt("NULLABLE") == DatabaseMetaData.columnNullable) {
+          databaseSchemaBuilder.addNullableKey(qualifiedName);
+        }
       }
       columnsResultSet.close();
     }
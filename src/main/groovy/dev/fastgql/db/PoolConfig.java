@@ -0,0 +1,145 @@
+package dev.fastgql.db;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.SqlConnectOptions;
+
+/** SQL connection pool config, read from the optional "pool" entry of datasource config. */
+public class PoolConfig {
+  private static final int DEFAULT_MAX_SIZE = 5;
+  private static final int DEFAULT_MAX_WAIT_QUEUE_SIZE = PoolOptions.DEFAULT_MAX_WAIT_QUEUE_SIZE;
+  private static final int DEFAULT_IDLE_TIMEOUT = 0;
+  private static final int DEFAULT_PIPELINING_LIMIT = PgConnectOptions.DEFAULT_PIPELINING_LIMIT;
+  private static final boolean DEFAULT_CACHE_PREPARED_STATEMENTS =
+      SqlConnectOptions.DEFAULT_CACHE_PREPARED_STATEMENTS;
+  private static final int DEFAULT_PREPARED_STATEMENT_CACHE_MAX_SIZE =
+      SqlConnectOptions.DEFAULT_PREPARED_STATEMENT_CACHE_MAX_SIZE;
+  private static final int DEFAULT_PREPARED_STATEMENT_CACHE_SQL_LIMIT =
+      SqlConnectOptions.DEFAULT_PREPARED_STATEMENT_CACHE_SQL_LIMIT;
+
+  private final int maxSize;
+  private final int maxWaitQueueSize;
+  private final int idleTimeout;
+  private final int pipeliningLimit;
+  private final boolean cachePreparedStatements;
+  private final int preparedStatementCacheMaxSize;
+  private final int preparedStatementCacheSqlLimit;
+
+  private PoolConfig(
+      int maxSize,
+      int maxWaitQueueSize,
+      int idleTimeout,
+      int pipeliningLimit,
+      boolean cachePreparedStatements,
+      int preparedStatementCacheMaxSize,
+      int preparedStatementCacheSqlLimit) {
+    this.maxSize = maxSize;
+    this.maxWaitQueueSize = maxWaitQueueSize;
+    this.idleTimeout = idleTimeout;
+    this.pipeliningLimit = pipeliningLimit;
+    this.cachePreparedStatements = cachePreparedStatements;
+    this.preparedStatementCacheMaxSize = preparedStatementCacheMaxSize;
+    this.preparedStatementCacheSqlLimit = preparedStatementCacheSqlLimit;
+  }
+
+  /**
+   * Create pool config from json config, missing entries (or whole config if it is null) are set to
+   * defaults.
+   *
+   * @param config json config
+   */
+  public static PoolConfig createWithJsonConfig(JsonObject config) {
+    JsonObject poolConfig = config == null ? new JsonObject() : config;
+    return new PoolConfig(
+        poolConfig.getInteger("maxSize", DEFAULT_MAX_SIZE),
+        poolConfig.getInteger("maxWaitQueueSize", DEFAULT_MAX_WAIT_QUEUE_SIZE),
+        poolConfig.getInteger("idleTimeout", DEFAULT_IDLE_TIMEOUT),
+        poolConfig.getInteger("pipeliningLimit", DEFAULT_PIPELINING_LIMIT),
+        poolConfig.getBoolean("cachePreparedStatements", DEFAULT_CACHE_PREPARED_STATEMENTS),
+        poolConfig.getInteger(
+            "preparedStatementCacheMaxSize", DEFAULT_PREPARED_STATEMENT_CACHE_MAX_SIZE),
+        poolConfig.getInteger(
+            "preparedStatementCacheSqlLimit", DEFAULT_PREPARED_STATEMENT_CACHE_SQL_LIMIT));
+  }
+
+  /**
+   * Create options of one of pools sharing this config, max size and max wait queue size (if it is
+   * bounded) are split equally between them, every pool gets at least one connection.
+   *
+   * @param pools number of pools sharing this config
+   */
+  PoolOptions createPoolOptions(int pools) {
+    return new PoolOptions()
+        .setMaxSize(Math.max(1, maxSize / pools))
+        .setMaxWaitQueueSize(
+            maxWaitQueueSize <= 0 ? maxWaitQueueSize : Math.max(1, maxWaitQueueSize / pools));
+  }
+
+  <T extends SqlConnectOptions> T applyToConnectOptions(T connectOptions) {
+    connectOptions
+        .setCachePreparedStatements(cachePreparedStatements)
+        .setPreparedStatementCacheMaxSize(preparedStatementCacheMaxSize)
+        .setPreparedStatementCacheSqlLimit(preparedStatementCacheSqlLimit)
+        .setIdleTimeout(idleTimeout);
+    return connectOptions;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getMaxWaitQueueSize() {
+    return maxWaitQueueSize;
+  }
+
+  /**
+   * Time in seconds after which idle connection is closed, 0 means connections are never closed.
+   *
+   * @return idle timeout
+   */
+  public int getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Maximum number of queries sent over single Postgres connection without waiting for responses.
+   *
+   * @return pipelining limit
+   */
+  public int getPipeliningLimit() {
+    return pipeliningLimit;
+  }
+
+  public boolean isCachePreparedStatements() {
+    return cachePreparedStatements;
+  }
+
+  public int getPreparedStatementCacheMaxSize() {
+    return preparedStatementCacheMaxSize;
+  }
+
+  public int getPreparedStatementCacheSqlLimit() {
+    return preparedStatementCacheSqlLimit;
+  }
+
+  @Override
+  public String toString() {
+    return "PoolConfig{"
+        + "maxSize="
+        + maxSize
+        + ", maxWaitQueueSize="
+        + maxWaitQueueSize
+        + ", idleTimeout="
+        + idleTimeout
+        + ", pipeliningLimit="
+        + pipeliningLimit
+        + ", cachePreparedStatements="
+        + cachePreparedStatements
+        + ", preparedStatementCacheMaxSize="
+        + preparedStatementCacheMaxSize
+        + ", preparedStatementCacheSqlLimit="
+        + preparedStatementCacheSqlLimit
+        + '}';
+  }
+}
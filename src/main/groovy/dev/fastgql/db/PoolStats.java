@@ -0,0 +1,152 @@
+package dev.fastgql.db;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.sqlclient.Pool;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saturation of SQL connection pool: number of connections in use, idle connections and requests
+ * waiting for connection. Vert.x SQL client does not expose these, so they are read from internal
+ * state of the pool; if it cannot be accessed all values are reported as -1.
+ */
+public class PoolStats implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(PoolStats.class);
+
+  private final int maxSize;
+  private final Supplier<Collection<io.vertx.sqlclient.Pool>> pools;
+  private final Field poolField;
+  private final Field sizeField;
+  private final Field availableField;
+  private final Field waitersField;
+
+  private PoolStats(
+      int maxSize,
+      Supplier<Collection<io.vertx.sqlclient.Pool>> pools,
+      Field poolField,
+      Field sizeField,
+      Field availableField,
+      Field waitersField) {
+    this.maxSize = maxSize;
+    this.pools = pools;
+    this.poolField = poolField;
+    this.sizeField = sizeField;
+    this.availableField = availableField;
+    this.waitersField = waitersField;
+  }
+
+  /**
+   * Create stats of given pool, if it keeps separate pool for every Vert.x context (see {@link
+   * ContextPool}) stats are summed over all of them.
+   *
+   * @param pool SQL connection pool
+   * @param poolConfig config the pool was created with
+   */
+  public static PoolStats create(Pool pool, PoolConfig poolConfig) {
+    io.vertx.sqlclient.Pool delegate = pool.getDelegate();
+    Supplier<Collection<io.vertx.sqlclient.Pool>> pools =
+        delegate instanceof ContextPool
+            ? ((ContextPool) delegate)::getPools
+            : () -> List.of(delegate);
+    try {
+      Class<?> poolClass = Class.forName("io.vertx.sqlclient.impl.PoolBase");
+      Class<?> connectionPoolClass = Class.forName("io.vertx.sqlclient.impl.ConnectionPool");
+      return new PoolStats(
+          poolConfig.getMaxSize(),
+          pools,
+          findField(poolClass, "pool"),
+          findField(connectionPoolClass, "size"),
+          findField(connectionPoolClass, "available"),
+          findField(connectionPoolClass, "waiters"));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.warn("pool stats not available: {}", e.toString());
+      return new PoolStats(poolConfig.getMaxSize(), pools, null, null, null, null);
+    }
+  }
+
+  private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      try {
+        Field field = current.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+      } catch (NoSuchFieldException e) {
+        // continue with superclass
+      }
+    }
+    throw new NoSuchFieldException(name);
+  }
+
+  private int readSize(Field field) {
+    if (poolField == null) {
+      return -1;
+    }
+    int sum = 0;
+    try {
+      for (io.vertx.sqlclient.Pool pool : pools.get()) {
+        Object value = field.get(poolField.get(pool));
+        sum += value instanceof Collection ? ((Collection<?>) value).size() : (Integer) value;
+      }
+    } catch (IllegalAccessException | IllegalArgumentException e) {
+      return -1;
+    }
+    return sum;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Number of connections currently in use.
+   *
+   * @return active connections
+   */
+  public int getActive() {
+    int size = readSize(sizeField);
+    int idle = readSize(availableField);
+    return size < 0 || idle < 0 ? -1 : size - idle;
+  }
+
+  /**
+   * Number of open connections which are not in use.
+   *
+   * @return idle connections
+   */
+  public int getIdle() {
+    return readSize(availableField);
+  }
+
+  /**
+   * Number of requests waiting for connection, when greater than 0 the pool is saturated.
+   *
+   * @return waiters
+   */
+  public int getWaiters() {
+    return readSize(waitersField);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("fastgql.pool.connections.max", this, PoolStats::getMaxSize).register(registry);
+    Gauge.builder("fastgql.pool.connections.active", this, PoolStats::getActive).register(registry);
+    Gauge.builder("fastgql.pool.connections.idle", this, PoolStats::getIdle).register(registry);
+    Gauge.builder("fastgql.pool.waiters", this, PoolStats::getWaiters).register(registry);
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("maxSize", maxSize)
+        .put("active", getActive())
+        .put("idle", getIdle())
+        .put("waiters", getWaiters());
+  }
+}
@@ -0,0 +1,70 @@
+package dev.fastgql.dsl
+
+import groovy.transform.CompileStatic
+
+import java.util.function.Function
+
+/**
+ * Converts values given in permissions DSL to functions of JWT params, which are called by every
+ * query. Values which do not depend on JWT params are evaluated once, when permissions are loaded.
+ */
+@CompileStatic
+class DslFunctions {
+
+    static class ConstantFunction implements Function<Map<String, Object>, Object> {
+
+        final Object value
+
+        ConstantFunction(Object value) {
+            this.value = value
+        }
+
+        @Override
+        Object apply(Map<String, Object> jwtParams) {
+            return value
+        }
+
+        @Override
+        String toString() {
+            "ConstantFunction<value: ${value}>"
+        }
+    }
+
+    static class ClosureFunction implements Function<Map<String, Object>, Object> {
+
+        final Closure closure
+
+        ClosureFunction(Closure closure) {
+            this.closure = closure
+        }
+
+        @Override
+        Object apply(Map<String, Object> jwtParams) {
+            return closure.call(jwtParams)
+        }
+
+        @Override
+        String toString() {
+            "ClosureFunction<closure: ${closure}>"
+        }
+    }
+
+    /**
+     * Creates function of JWT params from value given in DSL. Closures without parameters, like
+     * {@code { -> 5 } }, are called right away, since they cannot use JWT params, other closures are
+     * called directly instead of through dynamic proxy of {@link Function}.
+     *
+     * @param value constant or closure
+     * @return function of JWT params
+     */
+    static Function<Map<String, Object>, Object> toFunction(Object value) {
+        if (!(value instanceof Closure)) {
+            return new ConstantFunction(value)
+        }
+        Closure closure = (Closure) value
+        if (closure.maximumNumberOfParameters == 0) {
+            return new ConstantFunction(closure.call())
+        }
+        return new ClosureFunction(closure)
+    }
+}
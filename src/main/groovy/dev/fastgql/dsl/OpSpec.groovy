@@ -19,9 +19,7 @@ class OpSpec {
         }
 
         def to(Object value) {
-            this.value = value instanceof Closure
-                    ? value as Function<Map<String, Object>, Object>
-                    : { value } as Function<Map<String, Object>, Object>
+            this.value = DslFunctions.toFunction(value)
         }
 
         @Override
@@ -42,9 +40,7 @@ class OpSpec {
 
         private def handleOperator(RelationalOperator operator, Object value) {
             condition.setOperator(operator)
-            value instanceof Closure
-                    ? condition.setFunction(value as Function<Map<String, Object>, Object>)
-                    : condition.setFunction { value }
+            condition.setFunction(DslFunctions.toFunction(value))
             return new CheckChain(parent)
         }
 
@@ -56,12 +52,16 @@ class OpSpec {
             return handleOperator(RelationalOperator._neq, value)
         }
 
+        private static Object listOrClosure(Object[] value) {
+            return value.length == 1 && value[0] instanceof Closure ? value[0] : value
+        }
+
         def within(Object... value) {
-            return handleOperator(RelationalOperator._in, value)
+            return handleOperator(RelationalOperator._in, listOrClosure(value))
         }
 
         def nin(Object... value) {
-            return handleOperator(RelationalOperator._nin, value)
+            return handleOperator(RelationalOperator._nin, listOrClosure(value))
         }
 
         def gt(Object value) {
@@ -16,6 +16,16 @@ class PermissionsSpec {
         return roles.get(name)
     }
 
+    /**
+     * Compiles permissions of all roles, so that they are not compiled by queries.
+     *
+     * @return this
+     */
+    PermissionsSpec compile() {
+        roles.values().each { it.compile() }
+        return this
+    }
+
     @Override
     String toString() {
         "PermissionsSpec<roles: ${roles}>"
@@ -1,8 +1,13 @@
 package dev.fastgql.dsl
 
+import dev.fastgql.sql.TablePermissions
+
+import java.util.concurrent.ConcurrentHashMap
+
 class RoleSpec {
 
     final Map<String, TableSpec> tables = new HashMap<>()
+    final Map<String, TablePermissions> tablePermissions = new ConcurrentHashMap<>()
 
     def table(String name, @DelegatesTo(strategy=Closure.DELEGATE_ONLY, value=TableSpec) Closure cl) {
         def tableSpec = new TableSpec(name)
@@ -10,12 +15,32 @@ class RoleSpec {
         code.resolveStrategy = Closure.DELEGATE_ONLY
         code()
         tables.put(name, tableSpec)
+        tablePermissions.remove(name)
     }
 
     TableSpec getTable(String name) {
         return tables.get(name)
     }
 
+    /**
+     * Gets compiled select permissions of table, compiling them on first use if they were not
+     * compiled by {@link #compile()}.
+     */
+    TablePermissions getTablePermissions(String name) {
+        def tableSpec = tables.get(name)
+        if (tableSpec == null) {
+            return null
+        }
+        return tablePermissions.computeIfAbsent(name, { TablePermissions.compile(tableSpec) })
+    }
+
+    /**
+     * Compiles select permissions of all tables.
+     */
+    def compile() {
+        tables.keySet().each { getTablePermissions(it) }
+    }
+
     @Override
     String toString() {
         "RoleSpec<tables: ${tables}"
@@ -0,0 +1,189 @@
+package dev.fastgql.events;
+
+import dev.fastgql.db.DebeziumConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.schedulers.Timed;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Bounded buffers between shared change event stream and subscribers. Every subscriber gets its own
+ * buffer of {@link DebeziumConfig#getSubscriberBufferSize()} events with {@link
+ * DebeziumConfig#getSubscriberOverflowPolicy()}, metrics of all buffers are aggregated here.
+ */
+@Singleton
+public class ChangeEventBuffers implements MeterBinder {
+
+  private final int capacity;
+  private final BackpressureOverflowStrategy overflowStrategy;
+  private final AtomicLong subscriberCount = new AtomicLong();
+  private final AtomicLong depth = new AtomicLong();
+  private final AtomicLong receivedCount = new AtomicLong();
+  private final AtomicLong deliveredCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong disconnectedCount = new AtomicLong();
+  private final AtomicLong lastLagMillis = new AtomicLong();
+  private final AtomicLong maxLagMillis = new AtomicLong();
+
+  @Inject
+  public ChangeEventBuffers(DebeziumConfig debeziumConfig) {
+    switch (debeziumConfig.getSubscriberOverflowPolicy()) {
+      case latest:
+        this.capacity = 1;
+        this.overflowStrategy = BackpressureOverflowStrategy.DROP_OLDEST;
+        break;
+      case disconnect:
+        this.capacity = debeziumConfig.getSubscriberBufferSize();
+        this.overflowStrategy = BackpressureOverflowStrategy.ERROR;
+        break;
+      default:
+        this.capacity = debeziumConfig.getSubscriberBufferSize();
+        this.overflowStrategy = BackpressureOverflowStrategy.DROP_OLDEST;
+    }
+  }
+
+  /**
+   * Buffers change events for single subscriber.
+   *
+   * @param changeEventFlowable change events of subscriber, not buffered
+   * @param <T> type of change event
+   * @return buffered change events
+   */
+  public <T> Flowable<T> buffer(Flowable<T> changeEventFlowable) {
+    return Flowable.defer(
+        () -> {
+          AtomicLong pending = new AtomicLong();
+          subscriberCount.incrementAndGet();
+          return changeEventFlowable
+              .doOnNext(
+                  changeEvent -> {
+                    receivedCount.incrementAndGet();
+                    pending.incrementAndGet();
+                    depth.incrementAndGet();
+                  })
+              .timestamp(TimeUnit.MILLISECONDS)
+              .onBackpressureBuffer(
+                  capacity,
+                  () -> {
+                    droppedCount.incrementAndGet();
+                    pending.decrementAndGet();
+                    depth.decrementAndGet();
+                  },
+                  overflowStrategy)
+              .doOnNext(
+                  timed -> {
+                    deliveredCount.incrementAndGet();
+                    pending.decrementAndGet();
+                    depth.decrementAndGet();
+                    long lag = System.currentTimeMillis() - timed.time();
+                    lastLagMillis.set(lag);
+                    maxLagMillis.accumulateAndGet(lag, Math::max);
+                  })
+              .map(Timed::value)
+              .onErrorResumeNext(
+                  (Throwable throwable) -> {
+                    if (throwable instanceof MissingBackpressureException) {
+                      disconnectedCount.incrementAndGet();
+                      return Flowable.error(
+                          new RuntimeException(
+                              "subscription disconnected: too many change events not consumed"));
+                    }
+                    return Flowable.error(throwable);
+                  })
+              .doFinally(
+                  () -> {
+                    depth.addAndGet(-pending.getAndSet(0));
+                    subscriberCount.decrementAndGet();
+                  });
+        });
+  }
+
+  public long getSubscriberCount() {
+    return subscriberCount.get();
+  }
+
+  /**
+   * Get number of events waiting in buffers of all subscribers.
+   *
+   * @return queue depth
+   */
+  public long getDepth() {
+    return depth.get();
+  }
+
+  public long getReceivedCount() {
+    return receivedCount.get();
+  }
+
+  public long getDeliveredCount() {
+    return deliveredCount.get();
+  }
+
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  public long getDisconnectedCount() {
+    return disconnectedCount.get();
+  }
+
+  /**
+   * Get time the most recently delivered event spent in buffer.
+   *
+   * @return lag in milliseconds
+   */
+  public long getLastLagMillis() {
+    return lastLagMillis.get();
+  }
+
+  public long getMaxLagMillis() {
+    return maxLagMillis.get();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("fastgql.change.events.subscribers", this, ChangeEventBuffers::getSubscriberCount)
+        .register(registry);
+    Gauge.builder("fastgql.change.events.depth", this, ChangeEventBuffers::getDepth)
+        .register(registry);
+    FunctionCounter.builder(
+            "fastgql.change.events.received", this, ChangeEventBuffers::getReceivedCount)
+        .register(registry);
+    FunctionCounter.builder(
+            "fastgql.change.events.delivered", this, ChangeEventBuffers::getDeliveredCount)
+        .register(registry);
+    FunctionCounter.builder(
+            "fastgql.change.events.dropped", this, ChangeEventBuffers::getDroppedCount)
+        .register(registry);
+    FunctionCounter.builder(
+            "fastgql.change.events.disconnected", this, ChangeEventBuffers::getDisconnectedCount)
+        .register(registry);
+    Gauge.builder("fastgql.change.events.lag.last", this, ChangeEventBuffers::getLastLagMillis)
+        .baseUnit("milliseconds")
+        .register(registry);
+    Gauge.builder("fastgql.change.events.lag.max", this, ChangeEventBuffers::getMaxLagMillis)
+        .baseUnit("milliseconds")
+        .register(registry);
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("subscribers", getSubscriberCount())
+        .put("depth", getDepth())
+        .put("received", getReceivedCount())
+        .put("delivered", getDeliveredCount())
+        .put("dropped", getDroppedCount())
+        .put("disconnected", getDisconnectedCount())
+        .put("lastLagMs", getLastLagMillis())
+        .put("maxLagMs", getMaxLagMillis());
+  }
+}
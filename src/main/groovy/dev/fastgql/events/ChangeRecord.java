@@ -0,0 +1,230 @@
+package dev.fastgql.events;
+
+import io.debezium.engine.ChangeEvent;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Change of single row, decoded from Debezium change event in JSON format. Every event is decoded
+ * once, when it enters the shared stream, and the same immutable record is passed to all
+ * subscribers.
+ */
+public class ChangeRecord {
+
+  /** Operation of change event, {@link #none} for events without changed row. */
+  public enum Operation {
+    create,
+    read,
+    update,
+    delete,
+    truncate,
+    none
+  }
+
+  /** Initial record of subscription, making it query current state of tables. */
+  static final ChangeRecord SUBSCRIPTION_STARTED =
+      new ChangeRecord(null, null, Operation.none, Map.of(), null, null, null);
+
+  private final String destination;
+  private final String table;
+  private final Operation operation;
+  private final Map<String, Object> key;
+  private final Map<String, Object> before;
+  private final Map<String, Object> after;
+  private final String position;
+
+  private ChangeRecord(
+      String destination,
+      String table,
+      Operation operation,
+      Map<String, Object> key,
+      Map<String, Object> before,
+      Map<String, Object> after,
+      String position) {
+    this.destination = destination;
+    this.table = table;
+    this.operation = operation;
+    this.key = key;
+    this.before = before;
+    this.after = after;
+    this.position = position;
+  }
+
+  public static ChangeRecord decode(ChangeEvent<String, String> changeEvent) {
+    return decode(changeEvent.destination(), changeEvent.key(), changeEvent.value());
+  }
+
+  /**
+   * Decodes change event, with or without schemas. Events which cannot be decoded, like tombstones,
+   * are decoded to records with {@link Operation#none}, so that they are still delivered to
+   * subscribers of their destination.
+   *
+   * @param destination topic of the event
+   * @param key key of the event in JSON format
+   * @param value value of the event in JSON format
+   * @return decoded record
+   */
+  public static ChangeRecord decode(String destination, String key, String value) {
+    JsonObject keyPayload = parsePayload(key);
+    JsonObject valuePayload = parsePayload(value);
+    Map<String, Object> keyMap = keyPayload == null ? Map.of() : toMap(keyPayload);
+    if (valuePayload == null) {
+      return new ChangeRecord(destination, null, Operation.none, keyMap, null, null, null);
+    }
+    JsonObject source = valuePayload.getJsonObject("source");
+    return new ChangeRecord(
+        destination,
+        source == null ? null : source.getString("table"),
+        toOperation(valuePayload.getString("op")),
+        keyMap,
+        toMap(valuePayload.getJsonObject("before")),
+        toMap(valuePayload.getJsonObject("after")),
+        source == null ? null : toPosition(source));
+  }
+
+  private static JsonObject parsePayload(String json) {
+    if (json == null) {
+      return null;
+    }
+    try {
+      JsonObject jsonObject = new JsonObject(json);
+      return jsonObject.containsKey("schema") && jsonObject.containsKey("payload")
+          ? jsonObject.getJsonObject("payload")
+          : jsonObject;
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static Map<String, Object> toMap(JsonObject jsonObject) {
+    return jsonObject == null
+        ? null
+        : Collections.unmodifiableMap(new LinkedHashMap<>(jsonObject.getMap()));
+  }
+
+  private static Operation toOperation(String op) {
+    if (op == null) {
+      return Operation.none;
+    }
+    switch (op) {
+      case "c":
+        return Operation.create;
+      case "r":
+        return Operation.read;
+      case "u":
+        return Operation.update;
+      case "d":
+        return Operation.delete;
+      case "t":
+        return Operation.truncate;
+      default:
+        return Operation.none;
+    }
+  }
+
+  /** Position in log of the database, LSN for Postgres and binlog file and position for MySQL. */
+  private static String toPosition(JsonObject source) {
+    if (source.getValue("lsn") != null) {
+      return source.getValue("lsn").toString();
+    }
+    if (source.getString("file") != null && source.getValue("pos") != null) {
+      return String.format("%s:%s", source.getString("file"), source.getValue("pos"));
+    }
+    return null;
+  }
+
+  public String getDestination() {
+    return destination;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public Map<String, Object> getKey() {
+    return key;
+  }
+
+  public Map<String, Object> getBefore() {
+    return before;
+  }
+
+  public Map<String, Object> getAfter() {
+    return after;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  /**
+   * Checks whether this change may affect rows of given table matching given predicate. It does
+   * only if its old or new row matches it. Changes of other tables and records without rows (like
+   * initial record of subscription, tombstones and truncates) may affect any rows.
+   *
+   * <p>Old row of update and delete is complete only if replica identity of the table is full,
+   * otherwise its columns other than primary key are null. Null columns of old row are thus left
+   * out, so that predicate can treat them as unknown.
+   *
+   * @param tableName name of the table
+   * @param rowPredicate returns false if the row certainly does not match
+   * @return false if this change certainly does not affect matching rows
+   */
+  public boolean mayAffectRows(String tableName, Predicate<Map<String, Object>> rowPredicate) {
+    if (!tableName.equals(table)) {
+      return true;
+    }
+    switch (operation) {
+      case create:
+      case read:
+        return after == null || rowPredicate.test(after);
+      case update:
+        return before == null
+            || after == null
+            || rowPredicate.test(withoutNulls(before))
+            || rowPredicate.test(after);
+      case delete:
+        return before == null || rowPredicate.test(withoutNulls(before));
+      default:
+        return true;
+    }
+  }
+
+  private static Map<String, Object> withoutNulls(Map<String, Object> row) {
+    return row.entrySet().stream()
+        .filter(entry -> Objects.nonNull(entry.getValue()))
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  @Override
+  public String toString() {
+    return "ChangeRecord{"
+        + "destination='"
+        + destination
+        + '\''
+        + ", table='"
+        + table
+        + '\''
+        + ", operation="
+        + operation
+        + ", key="
+        + key
+        + ", before="
+        + before
+        + ", after="
+        + after
+        + ", position='"
+        + position
+        + '\''
+        + '}';
+  }
+}
@@ -0,0 +1,58 @@
+package dev.fastgql.events;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Utils for coalescing bursts of change events into single re-execution. */
+public class CoalescingUtils {
+
+  public static <T> Flowable<T> coalesce(
+      Flowable<T> flowable, long windowMillis, int windowEvents) {
+    return coalesce(flowable, windowMillis, windowEvents, Schedulers.computation());
+  }
+
+  /**
+   * Coalesces events into windows of given length, emitting only the last event of each window.
+   * First event is emitted immediately, and while downstream is busy only the latest window is
+   * kept, so consumer requesting one event at a time never has more than one pending.
+   *
+   * @param flowable events to coalesce
+   * @param windowMillis length of window in milliseconds, 0 returns events unchanged
+   * @param windowEvents maximum number of events in window, 0 means no limit, ignored if
+   *     windowMillis is 0
+   * @param scheduler scheduler of windows
+   * @param <T> type of event
+   * @return coalesced events
+   */
+  public static <T> Flowable<T> coalesce(
+      Flowable<T> flowable, long windowMillis, int windowEvents, Scheduler scheduler) {
+    if (windowMillis <= 0) {
+      return flowable;
+    }
+    return flowable
+        .publish(
+            shared ->
+                Flowable.merge(
+                    shared.take(1),
+                    shared
+                        .skip(1)
+                        .buffer(
+                            windowMillis,
+                            TimeUnit.MILLISECONDS,
+                            scheduler,
+                            windowEvents > 0 ? windowEvents : Integer.MAX_VALUE,
+                            ArrayList::new,
+                            false)
+                        .filter(window -> !window.isEmpty())
+                        .map(CoalescingUtils::last)))
+        .onBackpressureLatest();
+  }
+
+  private static <T> T last(List<T> list) {
+    return list.get(list.size() - 1);
+  }
+}
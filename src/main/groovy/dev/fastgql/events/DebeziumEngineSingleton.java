@@ -8,10 +8,10 @@ import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.format.Json;
 import io.debezium.relational.history.FileDatabaseHistory;
-import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
-import io.reactivex.subjects.BehaviorSubject;
-import io.reactivex.subjects.Subject;
+import io.reactivex.processors.BehaviorProcessor;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
 import java.io.IOException;
 import java.util.Properties;
 import java.util.Random;
@@ -27,8 +27,7 @@ public class DebeziumEngineSingleton {
   private final Logger log = Logger.getLogger(DebeziumEngineSingleton.class);
   private final DatasourceConfig datasourceConfig;
   private final DebeziumConfig debeziumConfig;
-  private final Subject<ChangeEvent<String, String>> changeEventSubject =
-      BehaviorSubject.<ChangeEvent<String, String>>create().toSerialized();
+  private final FlowableProcessor<ChangeRecord> changeRecordProcessor;
   private final ExecutorService executorService = Executors.newSingleThreadExecutor();
   private DebeziumEngine<ChangeEvent<String, String>> debeziumEngine;
 
@@ -36,6 +35,10 @@ public class DebeziumEngineSingleton {
   public DebeziumEngineSingleton(DatasourceConfig datasourceConfig, DebeziumConfig debeziumConfig) {
     this.datasourceConfig = datasourceConfig;
     this.debeziumConfig = debeziumConfig;
+    this.changeRecordProcessor =
+        debeziumConfig.isReplayLastEvent()
+            ? BehaviorProcessor.<ChangeRecord>create().toSerialized()
+            : PublishProcessor.<ChangeRecord>create().toSerialized();
   }
 
   public synchronized void startNewEngine() throws IOException {
@@ -80,7 +83,8 @@ public class DebeziumEngineSingleton {
     debeziumEngine =
         DebeziumEngine.create(Json.class)
             .using(props)
-            .notifying(changeEventSubject::onNext)
+            .notifying(
+                changeEvent -> changeRecordProcessor.onNext(ChangeRecord.decode(changeEvent)))
             .build();
     log.debug("starting debezium engine");
     executorService.execute(debeziumEngine);
@@ -94,7 +98,14 @@ public class DebeziumEngineSingleton {
     }
   }
 
-  public Flowable<ChangeEvent<String, String>> getChangeEventFlowable() {
-    return changeEventSubject.toFlowable(BackpressureStrategy.BUFFER);
+  /**
+   * Get flowable of all change events published by the engine, each decoded once into {@link
+   * ChangeRecord}. It does not buffer records, so it has to be consumed through {@link
+   * ChangeEventBuffers}.
+   *
+   * @return flowable of change records
+   */
+  public Flowable<ChangeRecord> getChangeRecordFlowable() {
+    return changeRecordProcessor;
   }
 }
@@ -2,42 +2,42 @@ package dev.fastgql.events;
 
 import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.db.DebeziumConfig;
-import io.debezium.engine.ChangeEvent;
 import io.reactivex.Flowable;
-import io.reactivex.annotations.NonNull;
-import io.reactivex.functions.Function;
-import io.vertx.reactivex.core.Vertx;
-import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
-import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
-import org.apache.kafka.clients.consumer.ConsumerConfig;
 
-/** Utils for creating Kafka consumer. */
+/** Creates flowables of change events of queried tables. */
 public class EventFlowableFactory {
 
-  private final Vertx vertx;
   private final DatasourceConfig datasourceConfig;
   private final DebeziumConfig debeziumConfig;
   private final DebeziumEngineSingleton debeziumEngineSingleton;
+  private final KafkaEventHub kafkaEventHub;
+  private final ChangeEventBuffers changeEventBuffers;
 
   @Inject
   public EventFlowableFactory(
-      Vertx vertx,
       DatasourceConfig datasourceConfig,
       DebeziumConfig debeziumConfig,
-      DebeziumEngineSingleton debeziumEngineSingleton) {
-    this.vertx = vertx;
+      DebeziumEngineSingleton debeziumEngineSingleton,
+      KafkaEventHub kafkaEventHub,
+      ChangeEventBuffers changeEventBuffers) {
     this.datasourceConfig = datasourceConfig;
     this.debeziumConfig = debeziumConfig;
     this.debeziumEngineSingleton = debeziumEngineSingleton;
+    this.kafkaEventHub = kafkaEventHub;
+    this.changeEventBuffers = changeEventBuffers;
   }
 
-  public Flowable<ChangeEvent<String, String>> create(Set<String> queriedTables) {
+  /**
+   * Creates buffered flowable of change records of given tables. It starts with initial record, so
+   * that subscriber gets current state of tables, unless embedded engine replays last record.
+   *
+   * @param queriedTables names of tables
+   * @return flowable of change records
+   */
+  public Flowable<ChangeRecord> create(Set<String> queriedTables) {
     Set<String> topics =
         queriedTables.stream()
             .map(
@@ -47,55 +47,25 @@ public class EventFlowableFactory {
                         debeziumConfig.getServerName(), datasourceConfig.getSchema(), queriedTable))
             .collect(Collectors.toSet());
     if (debeziumConfig.isEmbedded()) {
-      return createForEmbedded(topics);
+      Flowable<ChangeRecord> changeRecordFlowable =
+          changeEventBuffers.buffer(createForEmbedded(topics));
+      return debeziumConfig.isReplayLastEvent()
+          ? changeRecordFlowable
+          : changeRecordFlowable.startWith(ChangeRecord.SUBSCRIPTION_STARTED);
     } else {
-      return createForKafka(topics);
+      return changeEventBuffers
+          .buffer(createForKafka(topics))
+          .startWith(ChangeRecord.SUBSCRIPTION_STARTED);
     }
   }
 
-  private Flowable<ChangeEvent<String, String>> createForEmbedded(Set<String> topics) {
+  private Flowable<ChangeRecord> createForEmbedded(Set<String> topics) {
     return debeziumEngineSingleton
-        .getChangeEventFlowable()
-        .filter(changeEvent -> topics.contains(changeEvent.destination()));
+        .getChangeRecordFlowable()
+        .filter(changeRecord -> topics.contains(changeRecord.getDestination()));
   }
 
-  private Flowable<ChangeEvent<String, String>> createForKafka(Set<String> topics) {
-    Map<String, String> kafkaConfig = new HashMap<>();
-    kafkaConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, debeziumConfig.getBootstrapServers());
-    kafkaConfig.put(
-        ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
-        "org.apache.kafka.common.serialization.StringDeserializer");
-    kafkaConfig.put(
-        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-        "org.apache.kafka.common.serialization.StringDeserializer");
-    kafkaConfig.put(ConsumerConfig.GROUP_ID_CONFIG, "tc-" + UUID.randomUUID());
-    kafkaConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-    KafkaConsumer<String, String> consumer = KafkaConsumer.create(vertx, kafkaConfig);
-    consumer.subscribe(topics);
-    return consumer
-        .toFlowable()
-        .map(
-            new Function<>() {
-              @Override
-              public ChangeEvent<String, String> apply(
-                  @NonNull KafkaConsumerRecord<String, String> record) {
-                return new ChangeEvent<>() {
-                  @Override
-                  public String key() {
-                    return record.key();
-                  }
-
-                  @Override
-                  public String value() {
-                    return record.value();
-                  }
-
-                  @Override
-                  public String destination() {
-                    return record.topic();
-                  }
-                };
-              }
-            });
+  private Flowable<ChangeRecord> createForKafka(Set<String> topics) {
+    return kafkaEventHub.subscribe(topics);
   }
 }
@@ -0,0 +1,137 @@
+package dev.fastgql.events;
+
+import dev.fastgql.db.DebeziumConfig;
+import io.reactivex.Flowable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+
+/**
+ * Single Kafka consumer shared by all subscriptions. Records are multicast to subscribers of their
+ * topic, topics are subscribed when first subscriber needs them and unsubscribed when last one is
+ * gone. Consumer starts from the latest offset, so only changes made after subscribing are
+ * delivered.
+ */
+@Singleton
+public class KafkaEventHub {
+
+  private static class Topic {
+    private final FlowableProcessor<ChangeRecord> processor =
+        PublishProcessor.<ChangeRecord>create().toSerialized();
+    private int subscriberCount = 0;
+  }
+
+  private final Supplier<KafkaConsumer<String, String>> consumerFactory;
+  private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+  private KafkaConsumer<String, String> consumer;
+
+  @Inject
+  public KafkaEventHub(Vertx vertx, DebeziumConfig debeziumConfig) {
+    this(() -> createConsumer(vertx, debeziumConfig));
+  }
+
+  /**
+   * Creates hub with consumer created by given factory when first subscriber comes.
+   *
+   * @param consumerFactory creates Kafka consumer
+   */
+  KafkaEventHub(Supplier<KafkaConsumer<String, String>> consumerFactory) {
+    this.consumerFactory = consumerFactory;
+  }
+
+  /**
+   * Creates flowable of change records of given topics. Every Kafka record is decoded once, no
+   * matter how many subscribers its topic has. It does not buffer records, so it has to be consumed
+   * through {@link ChangeEventBuffers}.
+   *
+   * @param topicNames names of topics
+   * @return flowable of change records
+   */
+  public Flowable<ChangeRecord> subscribe(Set<String> topicNames) {
+    return Flowable.defer(
+        () -> Flowable.merge(acquire(topicNames)).doFinally(() -> release(topicNames)));
+  }
+
+  private synchronized List<Flowable<ChangeRecord>> acquire(Set<String> topicNames) {
+    boolean changed = false;
+    for (String topicName : topicNames) {
+      Topic topic = topics.get(topicName);
+      if (topic == null) {
+        topic = new Topic();
+        topics.put(topicName, topic);
+        changed = true;
+      }
+      topic.subscriberCount++;
+    }
+    if (changed) {
+      updateConsumerSubscription();
+    }
+    return topicNames.stream()
+        .map(topicName -> topics.get(topicName).processor)
+        .collect(Collectors.toList());
+  }
+
+  private synchronized void release(Set<String> topicNames) {
+    boolean changed = false;
+    for (String topicName : topicNames) {
+      Topic topic = topics.get(topicName);
+      if (topic != null && --topic.subscriberCount == 0) {
+        topics.remove(topicName);
+        changed = true;
+      }
+    }
+    if (changed) {
+      updateConsumerSubscription();
+    }
+  }
+
+  private void updateConsumerSubscription() {
+    if (consumer == null) {
+      consumer = consumerFactory.get();
+      consumer.handler(this::dispatch);
+    }
+    if (topics.isEmpty()) {
+      consumer.unsubscribe();
+    } else {
+      consumer.subscribe(new HashSet<>(topics.keySet()));
+    }
+  }
+
+  private static KafkaConsumer<String, String> createConsumer(
+      Vertx vertx, DebeziumConfig debeziumConfig) {
+    Map<String, String> kafkaConfig = new HashMap<>();
+    kafkaConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, debeziumConfig.getBootstrapServers());
+    kafkaConfig.put(
+        ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
+        "org.apache.kafka.common.serialization.StringDeserializer");
+    kafkaConfig.put(
+        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+        "org.apache.kafka.common.serialization.StringDeserializer");
+    // offsets are committed, so topics which stay subscribed when subscription changes continue
+    // from where they were
+    kafkaConfig.put(ConsumerConfig.GROUP_ID_CONFIG, "fastgql-" + UUID.randomUUID());
+    kafkaConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    return KafkaConsumer.create(vertx, kafkaConfig);
+  }
+
+  private void dispatch(KafkaConsumerRecord<String, String> record) {
+    Topic topic = topics.get(record.topic());
+    if (topic != null) {
+      topic.processor.onNext(ChangeRecord.decode(record.topic(), record.key(), record.value()));
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package dev.fastgql.graphql;
+
+import dev.fastgql.sql.Keyset;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.AstPrinter;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.IntValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.Value;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Utils for connection fields, which return one page of rows of a table with cursors, paginated
+ * with {@code after} and {@code before} instead of offset. Rows are always ordered by {@code
+ * order_by} extended with primary key, so that values of order columns identify each row and can be
+ * used as its cursor.
+ */
+public class ConnectionUtils {
+
+  private static final String ORDER_BY = "order_by";
+  private static final String LIMIT = "limit";
+  private static final String BEFORE = "before";
+  private static final String AFTER = "after";
+
+  private static Argument getArgument(Field field, String name) {
+    return field.getArguments().stream()
+        .filter(argument -> argument.getName().equals(name))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static List<ObjectField> getOrderByFields(Field connectionField) {
+    Argument orderBy = getArgument(connectionField, ORDER_BY);
+    if (orderBy == null) {
+      return List.of();
+    }
+    List<Value<?>> values = new ArrayList<>();
+    if (orderBy.getValue() instanceof ArrayValue) {
+      ((ArrayValue) orderBy.getValue()).getValues().forEach(values::add);
+    } else {
+      values.add(orderBy.getValue());
+    }
+    return values.stream()
+        .flatMap(value -> ((ObjectValue) value).getObjectFields().stream())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets columns by which rows of given connection field are ordered: columns of its {@code
+   * order_by}, followed by primary key columns which are not among them. Columns which can be null
+   * are rejected, since rows with null would never be selected by cursor comparing them.
+   *
+   * @param connectionField connection field
+   * @param tableName name of the table
+   * @param primaryKey names of primary key columns
+   * @param nullableColumns names of columns of the table which can be null
+   * @return names of order columns
+   */
+  public static List<String> getKeyColumns(
+      Field connectionField,
+      String tableName,
+      List<String> primaryKey,
+      Set<String> nullableColumns) {
+    List<String> keyColumns = new ArrayList<>();
+    getOrderByFields(connectionField)
+        .forEach(
+            objectField -> {
+              if (!(objectField.getValue() instanceof EnumValue)) {
+                throw new RuntimeException(
+                    "Cursor pagination does not support order_by on relationships");
+              }
+              if (nullableColumns.contains(objectField.getName())) {
+                throw new RuntimeException(
+                    String.format(
+                        "Cursor pagination does not support order_by on nullable column %s",
+                        objectField.getName()));
+              }
+              keyColumns.add(objectField.getName());
+            });
+    primaryKey.stream().filter(key -> !keyColumns.contains(key)).forEach(keyColumns::add);
+    if (keyColumns.isEmpty()) {
+      throw new RuntimeException(
+          String.format(
+              "Cursor pagination of table %s requires order_by or primary key", tableName));
+    }
+    return keyColumns;
+  }
+
+  /**
+   * Creates field querying the table of given connection field. Its selection set is selection set
+   * of nodes extended with order columns, it is ordered by all order columns and its limit is
+   * increased by one, so that presence of the next page can be checked.
+   *
+   * @param connectionField connection field
+   * @param tableName name of the table
+   * @param keyColumns names of order columns, from {@link #getKeyColumns(Field, String, List, Set)}
+   * @return field querying the table
+   */
+  public static Field createTableField(
+      Field connectionField, String tableName, List<String> keyColumns) {
+    Map<String, Selection<?>> printedToSelection = new LinkedHashMap<>();
+    if (connectionField.getSelectionSet() != null) {
+      connectionField.getSelectionSet().getSelections().stream()
+          .filter(selection -> selection instanceof Field)
+          .map(selection -> (Field) selection)
+          .filter(field -> field.getName().equals("edges") && field.getSelectionSet() != null)
+          .flatMap(field -> field.getSelectionSet().getSelections().stream())
+          .filter(selection -> selection instanceof Field)
+          .map(selection -> (Field) selection)
+          .filter(field -> field.getName().equals("node") && field.getSelectionSet() != null)
+          .flatMap(field -> field.getSelectionSet().getSelections().stream())
+          .forEach(
+              selection ->
+                  printedToSelection.putIfAbsent(AstPrinter.printAst(selection), selection));
+    }
+    List<Selection<?>> selections = new ArrayList<>(printedToSelection.values());
+    keyColumns.stream()
+        .filter(
+            keyName ->
+                selections.stream()
+                    .noneMatch(
+                        selection ->
+                            selection instanceof Field
+                                && ((Field) selection).getName().equals(keyName)
+                                && ((Field) selection).getAlias() == null))
+        .forEach(keyName -> selections.add(new Field(keyName)));
+
+    Map<String, String> keyColumnToOrder = new LinkedHashMap<>();
+    getOrderByFields(connectionField)
+        .forEach(
+            objectField ->
+                keyColumnToOrder.putIfAbsent(
+                    objectField.getName(), ((EnumValue) objectField.getValue()).getName()));
+    ArrayValue.Builder orderByValues = ArrayValue.newArrayValue();
+    keyColumns.forEach(
+        keyName ->
+            orderByValues.value(
+                ObjectValue.newObjectValue()
+                    .objectField(
+                        new ObjectField(
+                            keyName, new EnumValue(keyColumnToOrder.getOrDefault(keyName, "asc"))))
+                    .build()));
+
+    List<Argument> arguments = new ArrayList<>();
+    connectionField.getArguments().stream()
+        .filter(argument -> !argument.getName().equals(ORDER_BY))
+        .map(
+            argument ->
+                argument.getName().equals(LIMIT)
+                    ? new Argument(
+                        LIMIT,
+                        new IntValue(
+                            ((IntValue) argument.getValue()).getValue().add(BigInteger.ONE)))
+                    : argument)
+        .forEach(arguments::add);
+    arguments.add(new Argument(ORDER_BY, orderByValues.build()));
+
+    return connectionField.transform(
+        builder ->
+            builder
+                .name(tableName)
+                .alias(null)
+                .arguments(arguments)
+                .selectionSet(new SelectionSet(selections)));
+  }
+
+  /**
+   * Creates response of connection field from rows of its table field. Rows before cursor are read
+   * in reverse order, so they are reversed back here.
+   *
+   * @param connectionField connection field
+   * @param keyColumns names of order columns
+   * @param rows rows of field created by {@link #createTableField(Field, String, List)}
+   * @return map with edges and page info
+   */
+  public static Map<String, Object> toConnection(
+      Field connectionField, List<String> keyColumns, List<Map<String, Object>> rows) {
+    Argument limit = getArgument(connectionField, LIMIT);
+    boolean before = getArgument(connectionField, BEFORE) != null;
+    boolean after = getArgument(connectionField, AFTER) != null;
+    int pageSize =
+        limit == null ? rows.size() : ((IntValue) limit.getValue()).getValue().intValueExact();
+    boolean hasMore = rows.size() > pageSize;
+    List<Map<String, Object>> pageRows =
+        new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())));
+    if (before) {
+      Collections.reverse(pageRows);
+    }
+    List<Map<String, Object>> edges =
+        pageRows.stream()
+            .map(
+                row ->
+                    Map.of(
+                        "cursor",
+                        Keyset.encodeCursor(
+                            keyColumns.stream().map(row::get).collect(Collectors.toList())),
+                        "node",
+                        row))
+            .collect(Collectors.toList());
+    Map<String, Object> pageInfo = new HashMap<>();
+    pageInfo.put("hasNextPage", before || hasMore);
+    pageInfo.put("hasPreviousPage", before ? hasMore : after);
+    pageInfo.put("startCursor", edges.isEmpty() ? null : edges.get(0).get("cursor"));
+    pageInfo.put("endCursor", edges.isEmpty() ? null : edges.get(edges.size() - 1).get("cursor"));
+    return Map.of("edges", edges, "pageInfo", pageInfo);
+  }
+}
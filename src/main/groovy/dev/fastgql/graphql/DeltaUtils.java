@@ -0,0 +1,192 @@
+package dev.fastgql.graphql;
+
+import dev.fastgql.sql.TablePermissions;
+import graphql.language.AstPrinter;
+import graphql.language.Field;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import io.reactivex.Flowable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Utils for incremental subscriptions, which send rows inserted, updated and deleted since previous
+ * result instead of all rows.
+ */
+public class DeltaUtils {
+
+  private static final Set<String> DELTA_FIELDS = Set.of("inserted", "updated", "deleted");
+
+  /**
+   * Creates field querying the table of given delta field. Its selection set is union of selection
+   * sets of inserted, updated and deleted rows, extended with primary key of the table. Fields with
+   * the same response key are merged into one field selecting union of their selection sets.
+   *
+   * @param deltaField delta field of subscription
+   * @param tableName name of the table
+   * @param primaryKey names of primary key columns
+   * @return field querying the table
+   */
+  public static Field createTableField(
+      Field deltaField, String tableName, List<String> primaryKey) {
+    Map<String, Selection<?>> keyToSelection = new LinkedHashMap<>();
+    if (deltaField.getSelectionSet() != null) {
+      deltaField.getSelectionSet().getSelections().stream()
+          .filter(selection -> selection instanceof Field)
+          .map(selection -> (Field) selection)
+          .filter(field -> DELTA_FIELDS.contains(field.getName()))
+          .filter(field -> field.getSelectionSet() != null)
+          .flatMap(field -> field.getSelectionSet().getSelections().stream())
+          .forEach(selection -> mergeSelection(keyToSelection, selection));
+    }
+    primaryKey.forEach(keyName -> mergeSelection(keyToSelection, new Field(keyName)));
+    return deltaField.transform(
+        builder ->
+            builder
+                .name(tableName)
+                .alias(null)
+                .selectionSet(new SelectionSet(new ArrayList<>(keyToSelection.values()))));
+  }
+
+  /**
+   * Returns columns identifying rows of the table in deltas: its primary key if the role can select
+   * all of its columns, otherwise empty list, so that rows are identified by all selected columns.
+   *
+   * @param primaryKey names of primary key columns
+   * @param tablePermissions select permissions of the role on the table, null if it has none
+   * @return names of key columns
+   */
+  public static List<String> getKeyColumns(
+      List<String> primaryKey, TablePermissions tablePermissions) {
+    return tablePermissions != null
+            && primaryKey.stream().allMatch(tablePermissions::isColumnAllowed)
+        ? primaryKey
+        : List.of();
+  }
+
+  private static void mergeSelection(
+      Map<String, Selection<?>> keyToSelection, Selection<?> selection) {
+    if (!(selection instanceof Field)) {
+      keyToSelection.putIfAbsent(AstPrinter.printAst(selection), selection);
+      return;
+    }
+    Field field = (Field) selection;
+    keyToSelection.merge(
+        field.getAlias() != null ? field.getAlias() : field.getName(),
+        field,
+        (previous, next) -> mergeFields((Field) previous, (Field) next));
+  }
+
+  private static Field mergeFields(Field first, Field second) {
+    if (!first.getName().equals(second.getName())
+        || !printArguments(first).equals(printArguments(second))) {
+      throw new RuntimeException(
+          String.format(
+              "Selections of '%s' in delta subscription differ in field or arguments",
+              first.getAlias() != null ? first.getAlias() : first.getName()));
+    }
+    if (first.getSelectionSet() == null || second.getSelectionSet() == null) {
+      return first.getSelectionSet() == null ? second : first;
+    }
+    Map<String, Selection<?>> keyToSelection = new LinkedHashMap<>();
+    first
+        .getSelectionSet()
+        .getSelections()
+        .forEach(selection -> mergeSelection(keyToSelection, selection));
+    second
+        .getSelectionSet()
+        .getSelections()
+        .forEach(selection -> mergeSelection(keyToSelection, selection));
+    return first.transform(
+        builder ->
+            builder.selectionSet(new SelectionSet(new ArrayList<>(keyToSelection.values()))));
+  }
+
+  private static List<String> printArguments(Field field) {
+    return field.getArguments().stream().map(AstPrinter::printAst).collect(Collectors.toList());
+  }
+
+  /**
+   * Transforms flowable of results into flowable of deltas. First delta contains all rows as
+   * inserted, following ones are emitted only if result has changed.
+   *
+   * @param resultFlowable flowable of results
+   * @param primaryKey names of primary key columns, if empty rows are identified by all columns
+   * @return flowable of deltas
+   */
+  public static Flowable<Map<String, Object>> toDeltas(
+      Flowable<List<Map<String, Object>>> resultFlowable, List<String> primaryKey) {
+    return Flowable.defer(
+        () -> {
+          AtomicReference<List<Map<String, Object>>> previousResult = new AtomicReference<>();
+          return resultFlowable
+              .map(
+                  result -> {
+                    List<Map<String, Object>> previous = previousResult.getAndSet(result);
+                    Map<String, List<Map<String, Object>>> delta =
+                        diff(previous == null ? List.of() : previous, result, primaryKey);
+                    return previous == null || !isEmpty(delta)
+                        ? Optional.<Map<String, Object>>of(new HashMap<>(delta))
+                        : Optional.<Map<String, Object>>empty();
+                  })
+              .filter(Optional::isPresent)
+              .map(Optional::get);
+        });
+  }
+
+  /**
+   * Computes rows inserted, updated and deleted between two results.
+   *
+   * @param previous previous result
+   * @param current current result
+   * @param primaryKey names of primary key columns, if empty rows are identified by all columns
+   * @return map with "inserted", "updated" and "deleted" lists of rows
+   */
+  public static Map<String, List<Map<String, Object>>> diff(
+      List<Map<String, Object>> previous,
+      List<Map<String, Object>> current,
+      List<String> primaryKey) {
+    Map<Object, Deque<Map<String, Object>>> keyToPreviousRows = new LinkedHashMap<>();
+    previous.forEach(
+        row ->
+            keyToPreviousRows
+                .computeIfAbsent(createKey(row, primaryKey), key -> new ArrayDeque<>())
+                .add(row));
+    List<Map<String, Object>> inserted = new ArrayList<>();
+    List<Map<String, Object>> updated = new ArrayList<>();
+    current.forEach(
+        row -> {
+          Deque<Map<String, Object>> previousRows =
+              keyToPreviousRows.get(createKey(row, primaryKey));
+          Map<String, Object> previousRow = previousRows == null ? null : previousRows.poll();
+          if (previousRow == null) {
+            inserted.add(row);
+          } else if (!previousRow.equals(row)) {
+            updated.add(row);
+          }
+        });
+    List<Map<String, Object>> deleted =
+        keyToPreviousRows.values().stream().flatMap(Deque::stream).collect(Collectors.toList());
+    return Map.of("inserted", inserted, "updated", updated, "deleted", deleted);
+  }
+
+  private static boolean isEmpty(Map<String, List<Map<String, Object>>> delta) {
+    return delta.values().stream().allMatch(List::isEmpty);
+  }
+
+  private static Object createKey(Map<String, Object> row, List<String> primaryKey) {
+    if (primaryKey.isEmpty()) {
+      return row;
+    }
+    return primaryKey.stream().map(row::get).collect(Collectors.toList());
+  }
+}
@@ -6,9 +6,12 @@
 
 package dev.fastgql.graphql;
 
+import static graphql.Scalars.GraphQLBoolean;
+import static graphql.Scalars.GraphQLFloat;
 import static graphql.Scalars.GraphQLInt;
 import static graphql.Scalars.GraphQLString;
 
+import dev.fastgql.common.KeyType;
 import dev.fastgql.common.QualifiedName;
 import dev.fastgql.common.ReferenceType;
 import dev.fastgql.db.DatabaseSchema;
@@ -20,6 +23,7 @@ import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLTypeReference;
 import java.util.HashMap;
@@ -27,6 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Data structure defining GraphQL schema, including standard fields as well as one-to-one and
@@ -41,6 +47,8 @@ public class GraphQLDatabaseSchema {
   private final DatabaseSchema databaseSchema;
   private final GraphQLArgument limit;
   private final GraphQLArgument offset;
+  private final GraphQLArgument after;
+  private final GraphQLArgument before;
   private final Map<String, GraphQLArgument> orderByMap;
   private final Map<String, GraphQLArgument> whereMap;
 
@@ -48,6 +56,20 @@ public class GraphQLDatabaseSchema {
     return graph.get(table).get(field);
   }
 
+  /**
+   * Returns names of columns of given table which have given type.
+   *
+   * @param table name of the table
+   * @param keyType type of columns
+   * @return names of columns
+   */
+  public Set<String> getColumnsOfType(String table, KeyType keyType) {
+    return databaseSchema.getGraph().getOrDefault(table, Map.of()).values().stream()
+        .filter(keyDefinition -> keyDefinition.getKeyType() == keyType)
+        .map(keyDefinition -> keyDefinition.getQualifiedName().getKeyName())
+        .collect(Collectors.toSet());
+  }
+
   /**
    * Constructs object from {@link DatabaseSchema}.
    *
@@ -58,6 +80,8 @@ public class GraphQLDatabaseSchema {
     this.databaseSchema = databaseSchema;
     this.limit = createArgument("limit", GraphQLInt);
     this.offset = createArgument("offset", GraphQLInt);
+    this.after = createArgument("after", GraphQLString);
+    this.before = createArgument("before", GraphQLString);
     this.orderByMap = createOrderByMap(databaseSchema);
     this.whereMap = createWhereMap(databaseSchema);
   }
@@ -131,14 +155,24 @@ public class GraphQLDatabaseSchema {
 
     GraphQLObjectType.Builder sqlInternalObjectTypeBuilder =
         GraphQLObjectType.newObject().name("__sql_internal");
+    GraphQLObjectType.Builder traceInternalObjectTypeBuilder =
+        GraphQLObjectType.newObject().name("__trace_internal");
+    GraphQLObjectType traceObjectType = createTraceObjectType();
+    GraphQLObjectType pageInfoObjectType = createPageInfoObjectType();
 
     graph.forEach(
         (tableName, fieldNameToGraphQLField) -> {
+          builder.field(createConnectionFieldDefinition(tableName, pageInfoObjectType));
           sqlInternalObjectTypeBuilder.field(
               GraphQLFieldDefinition.newFieldDefinition()
                   .name(tableName)
                   .type(GraphQLString)
                   .build());
+          traceInternalObjectTypeBuilder.field(
+              GraphQLFieldDefinition.newFieldDefinition()
+                  .name(tableName)
+                  .type(traceObjectType)
+                  .build());
         });
 
     GraphQLObjectType sqlObjectType =
@@ -154,12 +188,88 @@ public class GraphQLDatabaseSchema {
                     .name("user")
                     .type(GraphQLString)
                     .build())
+            .field(
+                GraphQLFieldDefinition.newFieldDefinition()
+                    .name("trace")
+                    .type(traceInternalObjectTypeBuilder)
+                    .build())
             .build();
 
     builder.field(
         GraphQLFieldDefinition.newFieldDefinition().name("__meta").type(sqlObjectType).build());
   }
 
+  private static GraphQLFieldDefinition createFieldDefinition(String name, GraphQLOutputType type) {
+    return GraphQLFieldDefinition.newFieldDefinition().name(name).type(type).build();
+  }
+
+  /**
+   * Creates field with one page of rows of given table, in shape of Relay connection: rows with
+   * their cursors as edges and page info. It has the same arguments as the table, except for
+   * offset, which is replaced by {@code after} and {@code before} cursors.
+   */
+  private GraphQLFieldDefinition createConnectionFieldDefinition(
+      String tableName, GraphQLObjectType pageInfoObjectType) {
+    GraphQLObjectType edgeObjectType =
+        GraphQLObjectType.newObject()
+            .name(GraphQLNaming.getNameEdgeType(tableName))
+            .field(createFieldDefinition("cursor", GraphQLString))
+            .field(createFieldDefinition("node", GraphQLTypeReference.typeRef(tableName)))
+            .build();
+    GraphQLObjectType connectionObjectType =
+        GraphQLObjectType.newObject()
+            .name(GraphQLNaming.getNameConnectionType(tableName))
+            .field(createFieldDefinition("edges", GraphQLList.list(edgeObjectType)))
+            .field(createFieldDefinition("pageInfo", pageInfoObjectType))
+            .build();
+    return GraphQLFieldDefinition.newFieldDefinition()
+        .name(GraphQLNaming.getNameConnectionType(tableName))
+        .type(connectionObjectType)
+        .argument(limit)
+        .argument(after)
+        .argument(before)
+        .argument(orderByMap.get(tableName))
+        .argument(whereMap.get(tableName))
+        .build();
+  }
+
+  private static GraphQLObjectType createPageInfoObjectType() {
+    return GraphQLObjectType.newObject()
+        .name("page_info")
+        .field(createFieldDefinition("hasNextPage", GraphQLBoolean))
+        .field(createFieldDefinition("hasPreviousPage", GraphQLBoolean))
+        .field(createFieldDefinition("startCursor", GraphQLString))
+        .field(createFieldDefinition("endCursor", GraphQLString))
+        .build();
+  }
+
+  /**
+   * Creates type of trace of executed query (see {@link dev.fastgql.sql.ExecutionTrace}), with
+   * executed statements and breakdown of time in milliseconds.
+   */
+  private static GraphQLObjectType createTraceObjectType() {
+    GraphQLObjectType statementObjectType =
+        GraphQLObjectType.newObject()
+            .name("__trace_statement")
+            .field(createFieldDefinition("query", GraphQLString))
+            .field(createFieldDefinition("params", GraphQLString))
+            .field(createFieldDefinition("rows", GraphQLInt))
+            .field(createFieldDefinition("ms", GraphQLFloat))
+            .field(createFieldDefinition("overhead", GraphQLBoolean))
+            .field(createFieldDefinition("error", GraphQLString))
+            .build();
+    return GraphQLObjectType.newObject()
+        .name("__trace")
+        .field(createFieldDefinition("roundTrips", GraphQLInt))
+        .field(createFieldDefinition("totalMs", GraphQLFloat))
+        .field(createFieldDefinition("poolMs", GraphQLFloat))
+        .field(createFieldDefinition("databaseMs", GraphQLFloat))
+        .field(createFieldDefinition("overheadMs", GraphQLFloat))
+        .field(createFieldDefinition("mappingMs", GraphQLFloat))
+        .field(createFieldDefinition("statements", GraphQLList.list(statementObjectType)))
+        .build();
+  }
+
   /**
    * Applies this schema to given {@link GraphQLObjectType} builders (e.g. Query or Subscription
    * object builders).
@@ -205,6 +315,43 @@ public class GraphQLDatabaseSchema {
         });
   }
 
+  /**
+   * Applies incremental variant of each table to given {@link GraphQLObjectType} Subscription
+   * object builder. It has the same arguments as the table, and returns rows inserted, updated and
+   * deleted since previous result instead of all rows.
+   *
+   * @param builder builder to which delta fields will be applied
+   */
+  public void applyDeltaToSubscriptionObjectType(GraphQLObjectType.Builder builder) {
+    Objects.requireNonNull(builder);
+
+    graph
+        .keySet()
+        .forEach(
+            tableName -> {
+              GraphQLList rowList = GraphQLList.list(GraphQLTypeReference.typeRef(tableName));
+              GraphQLObjectType.Builder deltaObjectBuilder =
+                  GraphQLObjectType.newObject().name(GraphQLNaming.getNameDeltaType(tableName));
+              Stream.of("inserted", "updated", "deleted")
+                  .forEach(
+                      name ->
+                          deltaObjectBuilder.field(
+                              GraphQLFieldDefinition.newFieldDefinition()
+                                  .name(name)
+                                  .type(rowList)
+                                  .build()));
+              builder.field(
+                  GraphQLFieldDefinition.newFieldDefinition()
+                      .name(GraphQLNaming.getNameDeltaType(tableName))
+                      .type(deltaObjectBuilder)
+                      .argument(limit)
+                      .argument(offset)
+                      .argument(orderByMap.get(tableName))
+                      .argument(whereMap.get(tableName))
+                      .build());
+            });
+  }
+
   private static GraphQLArgument createArgument(String name, GraphQLScalarType type) {
     return GraphQLArgument.newArgument().name(name).type(type).build();
   }
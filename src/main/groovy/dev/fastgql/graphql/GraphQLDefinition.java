@@ -7,34 +7,54 @@
 package dev.fastgql.graphql;
 
 import com.google.inject.assistedinject.Assisted;
+import dev.fastgql.common.KeyType;
 import dev.fastgql.db.DatabaseSchema;
 import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.db.DebeziumConfig;
-import dev.fastgql.dsl.PermissionsSpec;
+import dev.fastgql.db.KeyDefinition;
 import dev.fastgql.dsl.RoleSpec;
+import dev.fastgql.events.ChangeRecord;
+import dev.fastgql.events.CoalescingUtils;
 import dev.fastgql.events.DebeziumEngineSingleton;
 import dev.fastgql.events.EventFlowableFactory;
+import dev.fastgql.security.PermissionsSnapshot;
 import dev.fastgql.sql.*;
 import graphql.GraphQL;
+import graphql.language.Document;
 import graphql.language.Field;
 import graphql.language.OperationDefinition;
+import graphql.language.Selection;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
+import graphql.validation.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.jwt.impl.JWTUser;
 import io.vertx.ext.web.handler.graphql.VertxDataFetcher;
 import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.sqlclient.Cursor;
 import io.vertx.reactivex.sqlclient.Pool;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.SqlClient;
 import io.vertx.reactivex.sqlclient.Transaction;
+import io.vertx.reactivex.sqlclient.Tuple;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -64,6 +84,10 @@ public class GraphQLDefinition {
 
     Builder enableMutation();
 
+    Builder enableStreaming(Consumer<QueryStreamer> queryStreamerConsumer);
+
+    Builder enableIngest(Consumer<RowIngester> rowIngesterConsumer);
+
     GraphQL build();
   }
 
@@ -73,31 +97,49 @@ public class GraphQLDefinition {
     private final Pool sqlConnectionPool;
     private final GraphQLSchema.Builder graphQLSchemaBuilder;
     private final GraphQLCodeRegistry.Builder graphQLCodeRegistryBuilder;
-    private final Function<Transaction, QueryExecutor> transactionQueryExecutorFunction;
+    private final Function<SqlClient, QueryExecutor> sqlClientQueryExecutorFunction;
     private final DebeziumEngineSingleton debeziumEngineSingleton;
     private final EventFlowableFactory eventFlowableFactory;
     private final Function<Set<TableAlias>, String> lockQueryFunction;
     private final String unlockQuery;
-    private final Supplier<PermissionsSpec> permissionsSpecSupplier;
+    private final String snapshotBeginQuery;
+    private final List<String> rollbackQueries;
+    private final Supplier<PermissionsSnapshot> permissionsSnapshotSupplier;
     private final DatasourceConfig.DBType dbType;
+    private final ExecutionConfig executionConfig;
+    private final QueryPlanCache queryPlanCache;
+    private final SubscriptionMultiplexer subscriptionMultiplexer;
+    private final Timer queryCompileTimer;
+    private final Timer mutationCompileTimer;
+    private final Timer poolAcquireTimer;
     private boolean queryEnabled = false;
     private boolean mutationEnabled = false;
     private boolean subscriptionEnabled = false;
     private boolean returningStatementEnabled = false;
+    private Consumer<QueryStreamer> queryStreamerConsumer = null;
+    private Consumer<RowIngester> rowIngesterConsumer = null;
 
     /**
      * Class builder, has to be initialized with database schema and SQL connection pool.
      *
      * @param databaseSchema input database schema
      * @param sqlConnectionPool SQL connection pool
+     * @param executionConfig query execution config
+     * @param queryPlanCache cache of compiled queries
+     * @param subscriptionMultiplexer groups of identical subscriptions
+     * @param meterRegistry registry of compile and pool acquire timers
      */
     @Inject
     public DefaultBuilder(
         @Assisted DatabaseSchema databaseSchema,
         Pool sqlConnectionPool,
         DatasourceConfig datasourceConfig,
-        Function<Transaction, QueryExecutor> transactionQueryExecutorFunction,
-        Supplier<PermissionsSpec> permissionsSpecSupplier,
+        ExecutionConfig executionConfig,
+        QueryPlanCache queryPlanCache,
+        SubscriptionMultiplexer subscriptionMultiplexer,
+        MeterRegistry meterRegistry,
+        Function<SqlClient, QueryExecutor> sqlClientQueryExecutorFunction,
+        Supplier<PermissionsSnapshot> permissionsSnapshotSupplier,
         DebeziumEngineSingleton debeziumEngineSingleton,
         EventFlowableFactory eventFlowableFactory) {
       this.databaseSchema = databaseSchema;
@@ -108,13 +150,53 @@ public class GraphQLDefinition {
       // if (datasourceConfig.getDbType().equals(DatasourceConfig.DBType.postgresql)) {
       //  returningStatementEnabled = true;
       // }
-      this.transactionQueryExecutorFunction = transactionQueryExecutorFunction;
+      this.sqlClientQueryExecutorFunction = sqlClientQueryExecutorFunction;
       this.debeziumEngineSingleton = debeziumEngineSingleton;
       this.eventFlowableFactory = eventFlowableFactory;
-      this.lockQueryFunction = datasourceConfig.tableListLockQueryFunction();
-      this.unlockQuery = datasourceConfig.getUnlockQuery();
-      this.permissionsSpecSupplier = permissionsSpecSupplier;
+      this.snapshotBeginQuery =
+          executionConfig.getReadConsistency() == ExecutionConfig.ReadConsistency.snapshot
+              ? datasourceConfig.getSnapshotBeginQuery()
+              : null;
+      // tables are not locked when queries are executed in snapshot transaction
+      this.lockQueryFunction =
+          snapshotBeginQuery == null
+              ? datasourceConfig.tableListLockQueryFunction()
+              : tables -> null;
+      this.unlockQuery = snapshotBeginQuery == null ? datasourceConfig.getUnlockQuery() : null;
+      // connection is returned to the pool after failed query, so it cannot keep tables locked
+      this.rollbackQueries =
+          unlockQuery == null ? List.of("ROLLBACK") : List.of("ROLLBACK", unlockQuery);
+      this.permissionsSnapshotSupplier = permissionsSnapshotSupplier;
       this.dbType = datasourceConfig.getDbType();
+      this.executionConfig = executionConfig;
+      this.queryPlanCache = queryPlanCache;
+      this.subscriptionMultiplexer = subscriptionMultiplexer;
+      this.queryCompileTimer = createCompileTimer(meterRegistry, "query");
+      this.mutationCompileTimer = createCompileTimer(meterRegistry, "mutation");
+      this.poolAcquireTimer =
+          Timer.builder("fastgql.pool.acquire")
+              .description(
+                  "Time waiting for connection from SQL connection pool, with BEGIN for mutations")
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+    }
+
+    private static Timer createCompileTimer(MeterRegistry meterRegistry, String operation) {
+      return Timer.builder("fastgql.plan.compile")
+          .description("Time compiling GraphQL field to SQL, not counting plan cache hits")
+          .tag("operation", operation)
+          .register(meterRegistry);
+    }
+
+    /** Records time from subscription to given connection request until connection is ready. */
+    private <T> Single<T> timePoolAcquire(Single<T> connectionSingle) {
+      return Single.defer(
+          () -> {
+            long startNanos = System.nanoTime();
+            return connectionSingle.doOnSuccess(
+                connection ->
+                    poolAcquireTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+          });
     }
 
     // private Single<Map<String, Object>> getResponseMutation(
@@ -135,37 +217,63 @@ public class GraphQLDefinition {
     // }
 
     private RoleSpec getRoleSpecForUser(Map<String, Object> userParams) {
+      return getRoleSpecForUser(permissionsSnapshotSupplier.get(), userParams);
+    }
+
+    private static RoleSpec getRoleSpecForUser(
+        PermissionsSnapshot permissionsSnapshot, Map<String, Object> userParams) {
       String role = (String) userParams.getOrDefault("role", "default");
-      PermissionsSpec permissionsSpec = permissionsSpecSupplier.get();
-      if (permissionsSpec == null) {
+      if (permissionsSnapshot.getPermissionsSpec() == null) {
         throw new RuntimeException("No permissions defined");
       }
-      return permissionsSpec.getRole(role);
+      return permissionsSnapshot.getPermissionsSpec().getRole(role);
     }
 
     private QueryFunctions createExecutionFunctions(Map<String, Object> userParams) {
+      return createExecutionFunctions(getRoleSpecForUser(userParams), userParams);
+    }
+
+    private QueryFunctions createExecutionFunctions(
+        RoleSpec roleSpec, Map<String, Object> userParams) {
       return new QueryFunctions(
           graphQLDatabaseSchema,
-          getRoleSpecForUser(userParams),
+          roleSpec,
           userParams,
           lockQueryFunction,
           unlockQuery,
-          dbType);
+          dbType,
+          executionConfig);
     }
 
     private ExecutionDefinition<List<Map<String, Object>>> createQueryExecutionDefinition(
         DataFetchingEnvironment env, Map<String, Object> userParams) {
-      Field field = env.getField();
-      QueryFunctions queryFunctions = createExecutionFunctions(userParams);
-      return queryFunctions.createExecutionDefinition(field, true);
+      return createQueryPlan(env.getField(), userParams).bind(userParams);
+    }
+
+    private QueryPlan createQueryPlan(Field field, Map<String, Object> userParams) {
+      PermissionsSnapshot permissionsSnapshot = permissionsSnapshotSupplier.get();
+      RoleSpec roleSpec = getRoleSpecForUser(permissionsSnapshot, userParams);
+      return queryPlanCache.get(
+          graphQLDatabaseSchema,
+          permissionsSnapshot.getVersion(),
+          roleSpec,
+          dbType,
+          field,
+          true,
+          () ->
+              queryCompileTimer.record(
+                  () ->
+                      createExecutionFunctions(roleSpec, userParams).createQueryPlan(field, true)));
     }
 
     private ExecutionDefinition<Map<String, Object>> createMutationExecutionDefinition(
         DataFetchingEnvironment env, Map<String, Object> userParams) {
       MutationFunctions mutationFunctions =
           new MutationFunctions(getRoleSpecForUser(userParams), userParams);
-      return mutationFunctions.createExecutionDefinition(
-          env.getField(), env.getArgument("objects"), dbType);
+      return mutationCompileTimer.record(
+          () ->
+              mutationFunctions.createExecutionDefinition(
+                  env.getField(), env.getArgument("objects"), dbType));
     }
 
     private static Stream<Field> createFieldStream(DataFetchingEnvironment env) {
@@ -182,7 +290,10 @@ public class GraphQLDefinition {
     }
 
     private static Map<String, Object> createUserParamsQuery(DataFetchingEnvironment env) {
-      RoutingContext routingContext = env.getContext();
+      return createUserParams(env.getContext());
+    }
+
+    private static Map<String, Object> createUserParams(RoutingContext routingContext) {
       User user = routingContext.getDelegate().user();
       JWTUser jwtUser = (JWTUser) user;
       return jwtUser == null ? Map.of() : jwtUser.principal().getMap();
@@ -196,10 +307,326 @@ public class GraphQLDefinition {
         Transaction transaction, ExecutionDefinition<T> executionDefinition) {
       return executionDefinition
           .getQueryExecutorResponseFunction()
-          .apply(transactionQueryExecutorFunction.apply(transaction))
+          .apply(sqlClientQueryExecutorFunction.apply(transaction))
           .flatMap(result -> transaction.rxCommit().andThen(Maybe.just(result)));
     }
 
+    /**
+     * Executes query on single connection with configured {@link ExecutionConfig.ReadConsistency}:
+     * in transaction with locked tables, in read-only snapshot transaction, or without transaction
+     * if the query consists of single SQL query.
+     */
+    private <T> Maybe<T> executeRead(ExecutionDefinition<T> executionDefinition) {
+      return executeRead(executionDefinition, null);
+    }
+
+    /**
+     * Executes query like {@link #executeRead(ExecutionDefinition)}, adding connection wait and
+     * every executed statement to given trace, if it is not null.
+     */
+    private <T> Maybe<T> executeRead(
+        ExecutionDefinition<T> executionDefinition, ExecutionTrace executionTrace) {
+      return timePoolAcquire(sqlConnectionPool.rxGetConnection())
+          .flatMapMaybe(
+              connection -> {
+                QueryExecutor queryExecutor = sqlClientQueryExecutorFunction.apply(connection);
+                if (executionTrace != null) {
+                  executionTrace.onConnectionAcquired();
+                  queryExecutor = executionTrace.wrap(queryExecutor);
+                }
+                return (snapshotBeginQuery != null && executionDefinition.isSingleQuery()
+                        ? executionDefinition
+                            .getQueryExecutorResponseFunction()
+                            .apply(queryExecutor)
+                        : executeReadTransaction(queryExecutor, executionDefinition))
+                    .doFinally(connection::close);
+              });
+    }
+
+    private <T> Maybe<T> executeReadTransaction(
+        QueryExecutor queryExecutor, ExecutionDefinition<T> executionDefinition) {
+      return queryExecutor
+          .apply(snapshotBeginQuery == null ? "BEGIN" : snapshotBeginQuery)
+          .ignoreElement()
+          .andThen(executionDefinition.getQueryExecutorResponseFunction().apply(queryExecutor))
+          .map(Optional::of)
+          .toSingle(Optional.empty())
+          .flatMap(result -> queryExecutor.apply("COMMIT").map(rows -> result))
+          .onErrorResumeNext(
+              error ->
+                  Observable.fromIterable(rollbackQueries)
+                      .concatMapCompletable(query -> queryExecutor.apply(query).ignoreElement())
+                      .onErrorComplete()
+                      .andThen(Single.error(error)))
+          .flatMapMaybe(result -> result.map(Maybe::just).orElseGet(Maybe::empty));
+    }
+
+    /** Executes query of given field for real, and returns its trace instead of its result. */
+    private Single<Map.Entry<String, Map<String, Object>>> traceRead(
+        Field field, Map<String, Object> userParams) {
+      return Single.defer(
+          () -> {
+            ExecutionDefinition<List<Map<String, Object>>> executionDefinition =
+                createQueryPlan(field, userParams).bind(userParams);
+            ExecutionTrace executionTrace = new ExecutionTrace();
+            return executeRead(executionDefinition, executionTrace)
+                .ignoreElement()
+                .doOnComplete(executionTrace::onFinished)
+                .toSingle(() -> Map.entry(field.getName(), executionTrace.toMap()));
+          });
+    }
+
+    /**
+     * Returns root field of given document, if the document consists of single query with single
+     * root field, without variables, fragments and directives.
+     */
+    private static Field getSingleRootField(Document document) {
+      if (document.getDefinitions().size() != 1
+          || !(document.getDefinitions().get(0) instanceof OperationDefinition)) {
+        return null;
+      }
+      OperationDefinition operationDefinition =
+          (OperationDefinition) document.getDefinitions().get(0);
+      List<Selection<?>> selections = new ArrayList<>();
+      operationDefinition.getSelectionSet().getSelections().forEach(selections::add);
+      if (!operationDefinition.getOperation().equals(OperationDefinition.Operation.QUERY)
+          || !operationDefinition.getVariableDefinitions().isEmpty()
+          || !operationDefinition.getDirectives().isEmpty()
+          || selections.size() != 1
+          || !(selections.get(0) instanceof Field)) {
+        return null;
+      }
+      Field field = (Field) selections.get(0);
+      return field.getDirectives().isEmpty() && !field.getName().startsWith("__") ? field : null;
+    }
+
+    /**
+     * Streams response of given document, if it is a query with single root field which has {@link
+     * QueryPlan#getStreamPlan()}. Rows are read from cursor {@link
+     * ExecutionConfig#getStreamFetchSize()} at a time, in read transaction, and every batch is
+     * encoded and emitted before the next one is fetched, so memory used does not depend on number
+     * of rows. Documents which are invalid or fail to compile are left to {@link GraphQL}, so that
+     * their errors are reported the same way as for any other query.
+     */
+    private Flowable<Buffer> streamQuery(
+        GraphQLSchema graphQLSchema, Document document, RoutingContext routingContext) {
+      Field field = getSingleRootField(document);
+      if (field == null
+          || !databaseSchema.getTableNames().contains(field.getName())
+          || !new Validator().validateDocument(graphQLSchema, document).isEmpty()) {
+        return null;
+      }
+      Map<String, Object> userParams = createUserParams(routingContext);
+      StreamPlan streamPlan;
+      try {
+        streamPlan = createQueryPlan(field, userParams).getStreamPlan();
+      } catch (RuntimeException e) {
+        return null;
+      }
+      if (streamPlan == null) {
+        return null;
+      }
+      JsonRowEncoder jsonRowEncoder = new JsonRowEncoder(graphQLDatabaseSchema, field);
+      String prefix =
+          String.format(
+              "{\"data\":{\"%s\":[", field.getAlias() == null ? field.getName() : field.getAlias());
+      int fetchSize = executionConfig.getStreamFetchSize();
+      return timePoolAcquire(sqlConnectionPool.rxGetConnection())
+          .flatMapPublisher(
+              connection -> {
+                QueryExecutor queryExecutor = sqlClientQueryExecutorFunction.apply(connection);
+                Completable beginCompletable =
+                    queryExecutor
+                        .apply(snapshotBeginQuery == null ? "BEGIN" : snapshotBeginQuery)
+                        .ignoreElement()
+                        .andThen(
+                            streamPlan.getLockQuery() == null
+                                ? Completable.complete()
+                                : queryExecutor.apply(streamPlan.getLockQuery()).ignoreElement());
+                Completable endCompletable =
+                    (streamPlan.getUnlockQuery() == null
+                            ? Completable.complete()
+                            : queryExecutor.apply(streamPlan.getUnlockQuery()).ignoreElement())
+                        .andThen(queryExecutor.apply("COMMIT").ignoreElement());
+                Completable rollbackCompletable =
+                    Observable.fromIterable(rollbackQueries)
+                        .concatMapCompletable(query -> queryExecutor.apply(query).ignoreElement())
+                        .onErrorComplete();
+                AtomicBoolean firstBatch = new AtomicBoolean(true);
+                return beginCompletable
+                    .andThen(connection.rxPrepare(streamPlan.getQuery(userParams)))
+                    .flatMapPublisher(
+                        preparedStatement -> {
+                          Cursor cursor =
+                              preparedStatement.cursor(
+                                  Tuple.wrap(streamPlan.buildParams(userParams)));
+                          // next batch is read only when all rows of previous one are requested
+                          Flowable<Row> rows =
+                              Single.defer(() -> cursor.rxRead(fetchSize))
+                                  .repeat()
+                                  .takeUntil(rowSet -> !cursor.hasMore())
+                                  .concatMapIterable(rowSet -> rowSet, 1);
+                          return Flowable.concat(
+                                  Flowable.just(prefix),
+                                  streamPlan
+                                      .createResponses(rows, userParams)
+                                      .map(jsonRowEncoder::encode)
+                                      .buffer(fetchSize)
+                                      .map(
+                                          batch ->
+                                              (firstBatch.getAndSet(false) ? "" : ",")
+                                                  + String.join(",", batch)),
+                                  Flowable.just("]}}"),
+                                  endCompletable.<String>toFlowable())
+                              .doFinally(
+                                  () -> {
+                                    cursor.close();
+                                    preparedStatement.close();
+                                  });
+                        })
+                    .onErrorResumeNext(
+                        (Throwable error) -> rollbackCompletable.andThen(Flowable.error(error)))
+                    // client closing the response cancels the stream in the middle of transaction
+                    .doOnCancel(() -> rollbackCompletable.doFinally(connection::close).subscribe())
+                    .doOnTerminate(connection::close);
+              })
+          .map(Buffer::buffer);
+    }
+
+    /**
+     * Enables streaming of queries which can be streamed, if {@link
+     * ExecutionConfig#getStreamFetchSize()} is not 0, by passing {@link QueryStreamer} of built
+     * schema to given consumer.
+     *
+     * @param queryStreamerConsumer consumer of query streamer, called by {@link #build()}
+     * @return this
+     */
+    public Builder enableStreaming(Consumer<QueryStreamer> queryStreamerConsumer) {
+      if (executionConfig.getStreamFetchSize() <= 0) {
+        log.debug("Streaming is not enabled in execution config");
+        return this;
+      }
+      this.queryStreamerConsumer = queryStreamerConsumer;
+      return this;
+    }
+
+    /**
+     * Inserts rows into table in batches of {@link ExecutionConfig#getIngestBatchSize()} rows, each
+     * inserted with {@link MutationFunctions#insertRows(String, List, DatasourceConfig.DBType,
+     * QueryExecutor)} before next one is requested, in single transaction which is rolled back if
+     * any row fails.
+     */
+    private Single<Integer> ingestRows(
+        String tableName, Flowable<Map<String, Object>> rows, RoutingContext routingContext) {
+      Map<String, KeyDefinition> columnToKeyDefinition = databaseSchema.getGraph().get(tableName);
+      if (columnToKeyDefinition == null) {
+        return Single.error(new RuntimeException("Unknown table: " + tableName));
+      }
+      Map<String, Object> userParams = createUserParams(routingContext);
+      MutationFunctions mutationFunctions;
+      try {
+        mutationFunctions = new MutationFunctions(getRoleSpecForUser(userParams), userParams);
+      } catch (RuntimeException e) {
+        return Single.error(e);
+      }
+      return timePoolAcquire(sqlConnectionPool.rxBegin())
+          .flatMap(
+              transaction -> {
+                QueryExecutor queryExecutor = sqlClientQueryExecutorFunction.apply(transaction);
+                return rows.map(row -> convertIngestedRow(columnToKeyDefinition, row))
+                    .buffer(executionConfig.getIngestBatchSize())
+                    .concatMapSingle(
+                        batch ->
+                            mutationFunctions.insertRows(tableName, batch, dbType, queryExecutor),
+                        1)
+                    .reduce(0, Integer::sum)
+                    .flatMap(count -> transaction.rxCommit().andThen(Single.just(count)))
+                    .onErrorResumeNext(
+                        error ->
+                            transaction
+                                .rxRollback()
+                                .onErrorComplete()
+                                .andThen(Single.error(error)));
+              });
+    }
+
+    /**
+     * Converts string values, like all values of CSV rows, to types of their columns. Empty strings
+     * in columns other than strings are converted to null, as CSV has no other way to express it.
+     */
+    static Map<String, Object> convertIngestedRow(
+        Map<String, KeyDefinition> columnToKeyDefinition, Map<String, Object> row) {
+      Map<String, Object> converted = new HashMap<>(row.size() * 4 / 3 + 1);
+      row.forEach(
+          (column, value) -> {
+            KeyDefinition keyDefinition = columnToKeyDefinition.get(column);
+            if (!(value instanceof String) || keyDefinition == null) {
+              converted.put(column, value);
+              return;
+            }
+            String string = (String) value;
+            if (string.isEmpty() && keyDefinition.getKeyType() != KeyType.STRING) {
+              converted.put(column, null);
+              return;
+            }
+            try {
+              switch (keyDefinition.getKeyType()) {
+                case INT:
+                  converted.put(column, Long.parseLong(string));
+                  break;
+                case FLOAT:
+                  converted.put(column, Double.parseDouble(string));
+                  break;
+                case BOOL:
+                  converted.put(column, parseBoolean(string));
+                  break;
+                default:
+                  converted.put(column, string);
+              }
+            } catch (IllegalArgumentException e) {
+              throw new RuntimeException(
+                  String.format(
+                      "Invalid %s value '%s' in column %s",
+                      keyDefinition.getKeyType(), string, column));
+            }
+          });
+      return converted;
+    }
+
+    /** Parses boolean literals accepted by PostgreSQL, rejecting all others. */
+    private static boolean parseBoolean(String string) {
+      switch (string.trim().toLowerCase()) {
+        case "true":
+        case "t":
+        case "yes":
+        case "y":
+        case "on":
+        case "1":
+          return true;
+        case "false":
+        case "f":
+        case "no":
+        case "n":
+        case "off":
+        case "0":
+          return false;
+        default:
+          throw new IllegalArgumentException(string);
+      }
+    }
+
+    /**
+     * Enables ingest endpoint, if mutation is enabled, by passing {@link RowIngester} of built
+     * schema to given consumer.
+     *
+     * @param rowIngesterConsumer consumer of row ingester, called by {@link #build()}
+     * @return this
+     */
+    public Builder enableIngest(Consumer<RowIngester> rowIngesterConsumer) {
+      this.rowIngesterConsumer = rowIngesterConsumer;
+      return this;
+    }
+
     /**
      * Enables query by defining data fetcher using {@link VertxDataFetcher} and adding it to {@link
      * GraphQLCodeRegistry}.
@@ -218,12 +645,9 @@ public class GraphQLDefinition {
                 if (hasMeta) {
                   promise.complete(null);
                 } else {
-                  sqlConnectionPool
-                      .rxBegin()
-                      .flatMapMaybe(
-                          transaction ->
-                              executeTransaction(
-                                  transaction,
+                  Maybe.defer(
+                          () ->
+                              executeRead(
                                   createQueryExecutionDefinition(env, createUserParamsQuery(env))))
                       .defaultIfEmpty(List.of())
                       .subscribe(promise::complete, promise::fail);
@@ -236,9 +660,13 @@ public class GraphQLDefinition {
                 Map<String, Object> userParams = createUserParamsQuery(env);
                 QueryFunctions queryFunctions = createExecutionFunctions(userParams);
 
-                Map<String, String> mockQueries =
+                List<Field> fields =
                     createFieldStream(env)
-                        .filter(field -> !field.getName().equals("__meta"))
+                        .filter(field -> databaseSchema.getTableNames().contains(field.getName()))
+                        .collect(Collectors.toList());
+
+                Map<String, String> mockQueries =
+                    fields.stream()
                         .map(
                             field ->
                                 Map.entry(
@@ -247,21 +675,71 @@ public class GraphQLDefinition {
                                         .strip()))
                         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-                promise.complete(Map.of("sql", mockQueries, "user", userParams.toString()));
+                if (!env.getSelectionSet().contains("trace")) {
+                  promise.complete(Map.of("sql", mockQueries, "user", userParams.toString()));
+                  return;
+                }
+                // fields are executed one after another, so that their traces do not overlap
+                Observable.fromIterable(fields)
+                    .concatMapSingle(field -> traceRead(field, userParams))
+                    .toMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .subscribe(
+                        traces ->
+                            promise.complete(
+                                Map.of(
+                                    "sql",
+                                    mockQueries,
+                                    "user",
+                                    userParams.toString(),
+                                    "trace",
+                                    traces)),
+                        promise::fail);
               });
 
       databaseSchema
           .getTableNames()
           .forEach(
-              tableName ->
-                  graphQLCodeRegistryBuilder.dataFetcher(
-                      FieldCoordinates.coordinates("Query", tableName), queryDataFetcher));
+              tableName -> {
+                graphQLCodeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates("Query", tableName), queryDataFetcher);
+                graphQLCodeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates(
+                        "Query", GraphQLNaming.getNameConnectionType(tableName)),
+                    createConnectionDataFetcher(tableName));
+              });
       graphQLCodeRegistryBuilder.dataFetcher(
           FieldCoordinates.coordinates("Query", "__meta"), metaDataFetcher);
       queryEnabled = true;
       return this;
     }
 
+    /**
+     * Creates data fetcher of connection field of given table, which queries the table with field
+     * created by {@link ConnectionUtils#createTableField(Field, String, List)}, so that it is
+     * compiled and cached like any other query.
+     */
+    private VertxDataFetcher<Map<String, Object>> createConnectionDataFetcher(String tableName) {
+      List<String> primaryKey = getSelectablePrimaryKey(tableName);
+      Set<String> nullableColumns = databaseSchema.getNullableKeys(tableName);
+      return new VertxDataFetcher<>(
+          (env, promise) ->
+              Single.defer(
+                      () -> {
+                        List<String> keyColumns =
+                            ConnectionUtils.getKeyColumns(
+                                env.getField(), tableName, primaryKey, nullableColumns);
+                        Field tableField =
+                            ConnectionUtils.createTableField(env.getField(), tableName, keyColumns);
+                        Map<String, Object> userParams = createUserParamsQuery(env);
+                        return executeRead(createQueryPlan(tableField, userParams).bind(userParams))
+                            .toSingle(List.of())
+                            .map(
+                                rows ->
+                                    ConnectionUtils.toConnection(env.getField(), keyColumns, rows));
+                      })
+                  .subscribe(promise::complete, promise::fail));
+    }
+
     /**
      * Enables mutation by defining data fetcher using {@link VertxDataFetcher} and adding it to
      * {@link GraphQLCodeRegistry}.
@@ -275,8 +753,7 @@ public class GraphQLDefinition {
       VertxDataFetcher<Map<String, Object>> mutationDataFetcher =
           new VertxDataFetcher<>(
               (env, promise) ->
-                  sqlConnectionPool
-                      .rxBegin()
+                  timePoolAcquire(sqlConnectionPool.rxBegin())
                       .flatMapMaybe(
                           transaction ->
                               executeTransaction(
@@ -337,27 +814,82 @@ public class GraphQLDefinition {
       }
 
       DataFetcher<Flowable<List<Map<String, Object>>>> subscriptionDataFetcher =
-          env -> {
-            ExecutionDefinition<List<Map<String, Object>>> executionDefinition =
-                createQueryExecutionDefinition(env, createUserParamsSubscription(env));
-            return eventFlowableFactory
-                .create(executionDefinition.getQueriedTables())
-                .flatMapSingle(record -> sqlConnectionPool.rxBegin())
-                .flatMapMaybe(transaction -> executeTransaction(transaction, executionDefinition))
-                .defaultIfEmpty(List.of());
-          };
+          env -> subscribe(env.getField(), createUserParamsSubscription(env));
 
       databaseSchema
           .getTableNames()
           .forEach(
-              tableName ->
-                  graphQLCodeRegistryBuilder.dataFetcher(
-                      FieldCoordinates.coordinates("Subscription", tableName),
-                      subscriptionDataFetcher));
+              tableName -> {
+                graphQLCodeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates("Subscription", tableName),
+                    subscriptionDataFetcher);
+                List<String> primaryKey = getSelectablePrimaryKey(tableName);
+                DataFetcher<Flowable<Map<String, Object>>> deltaDataFetcher =
+                    env -> {
+                      Map<String, Object> userParams = createUserParamsSubscription(env);
+                      RoleSpec roleSpec = getRoleSpecForUser(userParams);
+                      List<String> keyColumns =
+                          DeltaUtils.getKeyColumns(
+                              primaryKey,
+                              roleSpec == null ? null : roleSpec.getTablePermissions(tableName));
+                      return DeltaUtils.toDeltas(
+                          subscribe(
+                              DeltaUtils.createTableField(env.getField(), tableName, keyColumns),
+                              userParams),
+                          keyColumns);
+                    };
+                graphQLCodeRegistryBuilder.dataFetcher(
+                    FieldCoordinates.coordinates(
+                        "Subscription", GraphQLNaming.getNameDeltaType(tableName)),
+                    deltaDataFetcher);
+              });
       subscriptionEnabled = true;
       return this;
     }
 
+    private List<String> getSelectablePrimaryKey(String tableName) {
+      List<String> primaryKey = databaseSchema.getPrimaryKey(tableName);
+      return primaryKey.stream()
+              .allMatch(keyName -> graphQLDatabaseSchema.fieldAt(tableName, keyName) != null)
+          ? primaryKey
+          : List.of();
+    }
+
+    private Flowable<List<Map<String, Object>>> subscribe(
+        Field field, Map<String, Object> userParams) {
+      QueryPlan queryPlan = createQueryPlan(field, userParams);
+      Supplier<Flowable<List<Map<String, Object>>>> flowableSupplier =
+          () -> createSubscriptionFlowable(queryPlan, userParams);
+      if (!executionConfig.isMultiplexSubscriptions()) {
+        return flowableSupplier.get();
+      }
+      // plans are cached per field and role, so the same plan means the same SQL query
+      return subscriptionMultiplexer.join(List.of(queryPlan, userParams), flowableSupplier);
+    }
+
+    private Flowable<List<Map<String, Object>>> createSubscriptionFlowable(
+        QueryPlan queryPlan, Map<String, Object> userParams) {
+      ExecutionDefinition<List<Map<String, Object>>> executionDefinition =
+          queryPlan.bind(userParams);
+      Flowable<ChangeRecord> changeRecordFlowable =
+          eventFlowableFactory.create(executionDefinition.getQueriedTables());
+      if (executionConfig.isFilterChangeEvents() && queryPlan.getRootTable() != null) {
+        changeRecordFlowable =
+            changeRecordFlowable.filter(
+                changeRecord ->
+                    changeRecord.mayAffectRows(
+                        queryPlan.getRootTable(),
+                        row -> queryPlan.mayMatchRootRow(row, userParams)));
+      }
+      // requesting next event only when re-query is done keeps at most one in flight
+      return CoalescingUtils.coalesce(
+              changeRecordFlowable,
+              executionConfig.getSubscriptionWindowMillis(),
+              executionConfig.getSubscriptionWindowEvents())
+          .flatMapMaybe(record -> executeRead(executionDefinition), false, 1)
+          .defaultIfEmpty(List.of());
+    }
+
     /**
      * Build {@link GraphQL} by applying internally constructed {@link GraphQLDatabaseSchema} to
      * query / subscription builders.
@@ -385,6 +917,7 @@ public class GraphQLDefinition {
         graphQLSchemaBuilder.query(queryBuilder);
       }
       if (subscriptionEnabled) {
+        graphQLDatabaseSchema.applyDeltaToSubscriptionObjectType(subscriptionBuilder);
         graphQLSchemaBuilder.subscription(subscriptionBuilder);
       }
       if (mutationEnabled) {
@@ -393,6 +926,13 @@ public class GraphQLDefinition {
       }
       GraphQLSchema graphQLSchema =
           graphQLSchemaBuilder.codeRegistry(graphQLCodeRegistryBuilder.build()).build();
+      if (queryEnabled && queryStreamerConsumer != null) {
+        queryStreamerConsumer.accept(
+            (document, routingContext) -> streamQuery(graphQLSchema, document, routingContext));
+      }
+      if (mutationEnabled && rowIngesterConsumer != null) {
+        rowIngesterConsumer.accept(this::ingestRows);
+      }
       return GraphQL.newGraphQL(graphQLSchema).build();
     }
   }
@@ -18,6 +18,18 @@ public class GraphQLNaming {
     return String.format("%s_bool_exp", name);
   }
 
+  public static String getNameDeltaType(String name) {
+    return String.format("%s_delta", name);
+  }
+
+  public static String getNameConnectionType(String name) {
+    return String.format("%s_connection", name);
+  }
+
+  public static String getNameEdgeType(String name) {
+    return String.format("%s_edge", name);
+  }
+
   public static String getNameForReferencingField(QualifiedName qualifiedName) {
     Objects.requireNonNull(qualifiedName);
     return String.format("%s_ref", qualifiedName.getKeyName());
@@ -0,0 +1,59 @@
+package dev.fastgql.graphql;
+
+import dev.fastgql.common.ReferenceType;
+import graphql.language.Field;
+import graphql.language.Selection;
+import graphql.schema.GraphQLScalarType;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+
+/**
+ * Encodes responses of rows of streamed query to JSON the same way {@link graphql.GraphQL} would
+ * serialize them: keys in order of selection and under aliases if given, missing values as nulls
+ * and values of columns coerced by their scalar types.
+ */
+class JsonRowEncoder {
+  private final GraphQLDatabaseSchema graphQLDatabaseSchema;
+  private final Field field;
+
+  /**
+   * Creates encoder of responses of given root field.
+   *
+   * @param graphQLDatabaseSchema schema in which types of columns are looked up
+   * @param field root field, selecting only columns and referencing fields
+   */
+  JsonRowEncoder(GraphQLDatabaseSchema graphQLDatabaseSchema, Field field) {
+    this.graphQLDatabaseSchema = graphQLDatabaseSchema;
+    this.field = field;
+  }
+
+  String encode(Map<String, Object> response) {
+    return toJsonObject(field.getName(), field, response).encode();
+  }
+
+  @SuppressWarnings("unchecked")
+  private JsonObject toJsonObject(String tableName, Field field, Map<String, Object> response) {
+    JsonObject jsonObject = new JsonObject();
+    for (Selection<?> selection : field.getSelectionSet().getSelections()) {
+      Field subField = (Field) selection;
+      String key = subField.getAlias() == null ? subField.getName() : subField.getAlias();
+      GraphQLField graphQLField = graphQLDatabaseSchema.fieldAt(tableName, subField.getName());
+      Object value = response.get(subField.getName());
+      if (value == null) {
+        jsonObject.putNull(key);
+      } else if (graphQLField.getReferenceType() == ReferenceType.REFERENCING) {
+        jsonObject.put(
+            key,
+            toJsonObject(
+                graphQLField.getForeignName().getTableName(),
+                subField,
+                (Map<String, Object>) value));
+      } else {
+        jsonObject.put(
+            key,
+            ((GraphQLScalarType) graphQLField.getGraphQLType()).getCoercing().serialize(value));
+      }
+    }
+    return jsonObject;
+  }
+}
@@ -0,0 +1,24 @@
+package dev.fastgql.graphql;
+
+import graphql.language.Document;
+import io.reactivex.Flowable;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+/**
+ * Executes query documents which can be streamed, emitting JSON of their response in chunks as rows
+ * are read from database, instead of building whole response in memory.
+ */
+@FunctionalInterface
+public interface QueryStreamer {
+
+  /**
+   * Streams response of given document.
+   *
+   * @param document parsed query document
+   * @param routingContext context of the request, with authenticated user
+   * @return chunks of JSON response, or null if document has to be executed by {@link
+   *     graphql.GraphQL}
+   */
+  Flowable<Buffer> stream(Document document, RoutingContext routingContext);
+}
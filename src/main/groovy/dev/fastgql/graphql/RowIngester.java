@@ -0,0 +1,26 @@
+package dev.fastgql.graphql;
+
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Map;
+
+/**
+ * Inserts rows streamed by client into a table in single transaction, checking them against insert
+ * permissions like rows of insert mutation.
+ */
+@FunctionalInterface
+public interface RowIngester {
+
+  /**
+   * Inserts given rows into given table.
+   *
+   * @param tableName name of the table
+   * @param rows rows as maps of column names to values, string values are converted to types of
+   *     their columns
+   * @param routingContext context of the request, with authenticated user
+   * @return number of inserted rows
+   */
+  Single<Integer> ingest(
+      String tableName, Flowable<Map<String, Object>> rows, RoutingContext routingContext);
+}
@@ -0,0 +1,64 @@
+package dev.fastgql.graphql;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.reactivex.Flowable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.inject.Singleton;
+
+/**
+ * Groups identical subscriptions, so that each group re-executes its query once per change and
+ * broadcasts result to all its members. Group is created with its first member, joining members get
+ * the latest result right away, and group is removed when its last member leaves.
+ */
+@Singleton
+public class SubscriptionMultiplexer implements MeterBinder {
+
+  private final Map<Object, Flowable<?>> groups = new ConcurrentHashMap<>();
+  private final AtomicLong memberCount = new AtomicLong();
+
+  /**
+   * Joins group of given key, creating it with given flowable supplier if it does not exist.
+   *
+   * @param key key of the group, equal for subscriptions which always get equal results
+   * @param flowableSupplier creates flowable of results of the group
+   * @param <T> type of result
+   * @return flowable of results, if member does not keep up only the latest is kept for it
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Flowable<T> join(Object key, Supplier<Flowable<T>> flowableSupplier) {
+    return Flowable.defer(
+        () ->
+            ((Flowable<T>) groups.computeIfAbsent(key, k -> createGroup(k, flowableSupplier.get())))
+                .onBackpressureLatest()
+                .doOnSubscribe(subscription -> memberCount.incrementAndGet())
+                .doFinally(memberCount::decrementAndGet));
+  }
+
+  private <T> Flowable<T> createGroup(Object key, Flowable<T> flowable) {
+    AtomicReference<Flowable<T>> group = new AtomicReference<>();
+    group.set(flowable.doFinally(() -> groups.remove(key, group.get())).replay(1).refCount());
+    return group.get();
+  }
+
+  public int getGroupCount() {
+    return groups.size();
+  }
+
+  public long getMemberCount() {
+    return memberCount.get();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("fastgql.subscriptions.groups", this, SubscriptionMultiplexer::getGroupCount)
+        .register(registry);
+    Gauge.builder("fastgql.subscriptions.members", this, SubscriptionMultiplexer::getMemberCount)
+        .register(registry);
+  }
+}
@@ -0,0 +1,354 @@
+package dev.fastgql.load;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.Launcher;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.WebSocketConnectOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.ext.web.handler.graphql.ApolloWSMessageType;
+import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpClient;
+import io.vertx.reactivex.core.http.WebSocket;
+import io.vertx.reactivex.ext.web.client.HttpRequest;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import io.vertx.reactivex.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.reactivex.ext.web.codec.BodyCodec;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Load generator for running FastGQL. It sends configured mix of queries and mutations at target
+ * rate, keeps configured number of subscriptions open, and prints latency percentiles, throughput
+ * and number of SQL statements executed per operation. SQL statements are counted with {@code
+ * /v1/stats} of the server, by executing every query and mutation once before the load starts.
+ *
+ * <p>Run it with {@code ./gradlew loadTest} against FastGQL started with {@code ./gradlew
+ * vertxRun}, optionally with {@code --args='-conf <file>'} to use other than default config (see
+ * {@link LoadConfig}).
+ */
+public class LoadClient extends AbstractVerticle {
+
+  static final String SEQUENCE = "{{sequence}}";
+
+  private static final String DEFAULT_CONFIG = "src/main/resources/load-test.json";
+  private static final long TICK_MILLIS = 5;
+
+  private LoadConfig loadConfig;
+  private WebClient webClient;
+  private HttpClient httpClient;
+  private final Map<String, OperationStats> operationStats = new LinkedHashMap<>();
+  private final List<WebSocket> webSockets = new ArrayList<>();
+  private long sequence;
+  private boolean recording = false;
+
+  public static void main(String[] args) {
+    List<String> launcherArgs = new ArrayList<>(List.of(LoadClient.class.getName()));
+    launcherArgs.addAll(args.length > 0 ? List.of(args) : List.of("-conf", DEFAULT_CONFIG));
+    Launcher.executeCommand("run", launcherArgs.toArray(new String[0]));
+  }
+
+  @Override
+  public void start(Promise<Void> future) {
+    loadConfig = LoadConfig.createWithJsonConfig(config());
+    sequence = loadConfig.getSequenceStart();
+    webClient =
+        WebClient.create(
+            vertx,
+            new WebClientOptions()
+                .setDefaultHost(loadConfig.getHost())
+                .setDefaultPort(loadConfig.getPort())
+                .setMaxPoolSize(loadConfig.getConnections())
+                .setMaxWaitQueueSize(-1));
+    int subscriptionCount =
+        loadConfig.getOperations().stream()
+            .filter(operation -> operation.getType() == LoadConfig.OperationType.subscription)
+            .mapToInt(LoadConfig.Operation::getCount)
+            .sum();
+    // every subscription holds its own connection
+    httpClient =
+        vertx.createHttpClient(
+            new HttpClientOptions().setMaxPoolSize(Math.max(1, subscriptionCount)));
+    loadConfig
+        .getOperations()
+        .forEach(
+            operation -> operationStats.put(operation.getName(), new OperationStats(operation)));
+
+    future.complete();
+
+    List<LoadConfig.Operation> requestOperations =
+        loadConfig.getOperations().stream()
+            .filter(operation -> operation.getType() != LoadConfig.OperationType.subscription)
+            .collect(Collectors.toList());
+
+    updatePermissions()
+        .andThen(countSqlStatements(requestOperations))
+        .andThen(openSubscriptions())
+        .andThen(sendLoad(requestOperations, loadConfig.getWarmupSeconds()))
+        .andThen(Completable.fromAction(() -> recording = true))
+        .andThen(
+            fetchExecutedStatementCount()
+                .flatMap(
+                    executedBefore ->
+                        sendLoad(requestOperations, loadConfig.getDurationSeconds())
+                            .andThen(fetchExecutedStatementCount())
+                            .map(executedAfter -> executedAfter - executedBefore)))
+        .doFinally(() -> recording = false)
+        .subscribe(
+            executedStatementCount -> {
+              printReport(executedStatementCount);
+              finish();
+            },
+            error -> {
+              error.printStackTrace();
+              finish();
+            });
+  }
+
+  private void finish() {
+    webSockets.forEach(WebSocket::close);
+    vertx.close();
+  }
+
+  private <T> HttpRequest<T> authorize(HttpRequest<T> request) {
+    return loadConfig.getToken() == null
+        ? request
+        : request.bearerTokenAuthentication(loadConfig.getToken());
+  }
+
+  private String nextQuery(LoadConfig.Operation operation) {
+    return operation.getQuery().replace(SEQUENCE, Long.toString(sequence++));
+  }
+
+  private Single<JsonObject> send(LoadConfig.Operation operation) {
+    return authorize(webClient.post("/v1/graphql"))
+        .expect(ResponsePredicate.SC_OK)
+        .as(BodyCodec.jsonObject())
+        .rxSendJsonObject(new JsonObject().put("query", nextQuery(operation)))
+        .map(
+            response -> {
+              JsonArray errors = response.body().getJsonArray("errors");
+              if (errors != null && !errors.isEmpty()) {
+                throw new RuntimeException(
+                    String.format("operation '%s' failed: %s", operation.getName(), errors));
+              }
+              return response.body();
+            });
+  }
+
+  private Completable updatePermissions() {
+    if (loadConfig.getPermissionsFile() == null) {
+      return Completable.complete();
+    }
+    return vertx
+        .fileSystem()
+        .rxReadFile(loadConfig.getPermissionsFile())
+        .flatMap(
+            script ->
+                authorize(webClient.post("/v1/permissions"))
+                    .expect(ResponsePredicate.SC_OK)
+                    .rxSendBuffer(script))
+        .ignoreElement();
+  }
+
+  private Single<Long> fetchExecutedStatementCount() {
+    return authorize(webClient.get("/v1/stats"))
+        .expect(ResponsePredicate.SC_OK)
+        .as(BodyCodec.jsonObject())
+        .rxSend()
+        .map(response -> response.body().getJsonObject("statements").getLong("executed"));
+  }
+
+  /**
+   * Executes every operation once, alone, and counts SQL statements executed by the server for it.
+   * If server stats are not available, count stays unknown.
+   */
+  private Completable countSqlStatements(List<LoadConfig.Operation> operations) {
+    return Completable.concat(
+        operations.stream()
+            .map(
+                operation ->
+                    fetchExecutedStatementCount()
+                        .flatMap(
+                            executedBefore ->
+                                send(operation)
+                                    .flatMap(response -> fetchExecutedStatementCount())
+                                    .map(executedAfter -> executedAfter - executedBefore))
+                        .doOnSuccess(
+                            count ->
+                                operationStats.get(operation.getName()).setSqlStatementCount(count))
+                        .ignoreElement()
+                        .doOnError(
+                            error ->
+                                System.err.printf(
+                                    "SQL statements of '%s' not counted: %s%n",
+                                    operation.getName(), error.getMessage()))
+                        .onErrorComplete())
+            .collect(Collectors.toList()));
+  }
+
+  private Completable openSubscriptions() {
+    return Completable.merge(
+        loadConfig.getOperations().stream()
+            .filter(operation -> operation.getType() == LoadConfig.OperationType.subscription)
+            .flatMap(
+                operation ->
+                    IntStream.range(0, operation.getCount())
+                        .mapToObj(index -> openSubscription(operation)))
+            .collect(Collectors.toList()));
+  }
+
+  private Completable openSubscription(LoadConfig.Operation operation) {
+    OperationStats stats = operationStats.get(operation.getName());
+    WebSocketConnectOptions options =
+        new WebSocketConnectOptions()
+            .setHost(loadConfig.getHost())
+            .setPort(loadConfig.getPort())
+            .setURI("/v1/graphql");
+    if (loadConfig.getToken() != null) {
+      options.addHeader(HttpHeaders.AUTHORIZATION.toString(), "Bearer " + loadConfig.getToken());
+    }
+    long startNanos = System.nanoTime();
+    return httpClient
+        .rxWebSocket(options)
+        .doOnSuccess(
+            webSocket -> {
+              webSockets.add(webSocket);
+              boolean[] resultReceived = {false};
+              webSocket.handler(
+                  buffer -> {
+                    JsonObject message = buffer.toJsonObject();
+                    String type = message.getString("type");
+                    if (ApolloWSMessageType.DATA.getText().equals(type)) {
+                      JsonArray errors = message.getJsonObject("payload").getJsonArray("errors");
+                      if (errors != null && !errors.isEmpty()) {
+                        stats.recordFailure();
+                      } else if (!resultReceived[0]) {
+                        resultReceived[0] = true;
+                        stats.recordSuccess(System.nanoTime() - startNanos);
+                      } else if (recording) {
+                        stats.recordUpdate();
+                      }
+                    } else if (ApolloWSMessageType.ERROR.getText().equals(type)) {
+                      stats.recordFailure();
+                    }
+                  });
+              webSocket.writeTextMessage(
+                  new JsonObject()
+                      .put("type", ApolloWSMessageType.CONNECTION_INIT.getText())
+                      .encode());
+              webSocket.writeTextMessage(
+                  new JsonObject()
+                      .put("id", "1")
+                      .put("type", ApolloWSMessageType.START.getText())
+                      .put("payload", new JsonObject().put("query", nextQuery(operation)))
+                      .encode());
+            })
+        .ignoreElement();
+  }
+
+  /**
+   * Sends requests of given operations for given time, at configured rate and with operations
+   * picked at random by weight. Requests are sent on schedule, and latency is measured from the
+   * time request was scheduled at, so that slow responses do not hide delay of requests queued
+   * behind them.
+   */
+  private Completable sendLoad(List<LoadConfig.Operation> operations, int seconds) {
+    long totalCount = (long) (loadConfig.getRate() * seconds);
+    int totalWeight = operations.stream().mapToInt(LoadConfig.Operation::getWeight).sum();
+    if (totalCount == 0 || totalWeight == 0) {
+      return Completable.complete();
+    }
+    return Completable.create(
+        emitter -> {
+          long startNanos = System.nanoTime();
+          long[] sentCount = {0};
+          long[] pendingCount = {0};
+          vertx.setPeriodic(
+              TICK_MILLIS,
+              timerId -> {
+                long dueCount =
+                    Math.min(
+                        totalCount,
+                        (long) (loadConfig.getRate() * (System.nanoTime() - startNanos) / 1e9));
+                for (; sentCount[0] < dueCount; sentCount[0]++) {
+                  long scheduledNanos =
+                      startNanos + (long) (sentCount[0] * 1e9 / loadConfig.getRate());
+                  OperationStats stats =
+                      operationStats.get(pickOperation(operations, totalWeight).getName());
+                  pendingCount[0]++;
+                  send(stats.getOperation())
+                      .subscribe(
+                          (response, error) -> {
+                            pendingCount[0]--;
+                            if (recording && error == null) {
+                              stats.recordSuccess(System.nanoTime() - scheduledNanos);
+                            } else if (recording) {
+                              stats.recordFailure();
+                            }
+                            if (sentCount[0] == totalCount && pendingCount[0] == 0) {
+                              emitter.onComplete();
+                            }
+                          });
+                }
+                if (sentCount[0] == totalCount) {
+                  vertx.cancelTimer(timerId);
+                }
+              });
+        });
+  }
+
+  private static LoadConfig.Operation pickOperation(
+      List<LoadConfig.Operation> operations, int totalWeight) {
+    int random = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (LoadConfig.Operation operation : operations) {
+      random -= operation.getWeight();
+      if (random < 0) {
+        return operation;
+      }
+    }
+    return operations.get(operations.size() - 1);
+  }
+
+  private void printReport(long executedStatementCount) {
+    double seconds = loadConfig.getDurationSeconds();
+    long requestCount =
+        operationStats.values().stream()
+            .filter(
+                stats -> stats.getOperation().getType() != LoadConfig.OperationType.subscription)
+            .mapToLong(OperationStats::getSucceededCount)
+            .sum();
+    System.out.println(OperationStats.formatHeader());
+    operationStats.values().forEach(stats -> System.out.println(stats.format(seconds)));
+    System.out.printf(
+        "%d SQL statements executed, %.2f per request%n",
+        executedStatementCount,
+        requestCount == 0 ? 0.0 : (double) executedStatementCount / requestCount);
+    if (loadConfig.getReportFile() != null) {
+      JsonObject report =
+          new JsonObject()
+              .put("rate", loadConfig.getRate())
+              .put("durationSeconds", loadConfig.getDurationSeconds())
+              .put("sqlStatements", executedStatementCount)
+              .put(
+                  "operations",
+                  new JsonArray(
+                      operationStats.values().stream()
+                          .map(stats -> stats.toJson(seconds))
+                          .collect(Collectors.toList())));
+      vertx
+          .fileSystem()
+          .writeFileBlocking(loadConfig.getReportFile(), Buffer.buffer(report.encodePrettily()));
+    }
+  }
+}
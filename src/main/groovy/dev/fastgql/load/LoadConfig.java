@@ -0,0 +1,211 @@
+package dev.fastgql.load;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Config of {@link LoadClient}, read from JSON file passed to it with {@code -conf}. */
+public class LoadConfig {
+
+  /** Type of GraphQL operation. */
+  public enum OperationType {
+    query,
+    mutation,
+    subscription
+  }
+
+  /**
+   * Single operation of the mix. Queries and mutations are sent at rate proportional to their
+   * weight, subscriptions are opened once, {@link #getCount()} times, when load starts.
+   */
+  public static class Operation {
+    private final String name;
+    private final OperationType type;
+    private final String query;
+    private final int weight;
+    private final int count;
+
+    private Operation(String name, OperationType type, String query, int weight, int count) {
+      this.name = name;
+      this.type = type;
+      this.query = query;
+      this.weight = weight;
+      this.count = count;
+    }
+
+    private static Operation createWithJsonConfig(JsonObject config) {
+      OperationType type = OperationType.valueOf(config.getString("type", "query"));
+      return new Operation(
+          config.getString("name", type.name()),
+          type,
+          config.getString("query"),
+          config.getInteger("weight", 1),
+          config.getInteger("count", 1));
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public OperationType getType() {
+      return type;
+    }
+
+    /**
+     * GraphQL document of the operation. Every occurrence of {@value LoadClient#SEQUENCE} is
+     * replaced with number unique for each request, so that mutations can insert distinct rows.
+     *
+     * @return GraphQL document
+     */
+    public String getQuery() {
+      return query;
+    }
+
+    public int getWeight() {
+      return weight;
+    }
+
+    public int getCount() {
+      return count;
+    }
+  }
+
+  private final String host;
+  private final int port;
+  private final String token;
+  private final String permissionsFile;
+  private final String reportFile;
+  private final double rate;
+  private final int durationSeconds;
+  private final int warmupSeconds;
+  private final int connections;
+  private final long sequenceStart;
+  private final List<Operation> operations;
+
+  private LoadConfig(
+      String host,
+      int port,
+      String token,
+      String permissionsFile,
+      String reportFile,
+      double rate,
+      int durationSeconds,
+      int warmupSeconds,
+      int connections,
+      long sequenceStart,
+      List<Operation> operations) {
+    this.host = host;
+    this.port = port;
+    this.token = token;
+    this.permissionsFile = permissionsFile;
+    this.reportFile = reportFile;
+    this.rate = rate;
+    this.durationSeconds = durationSeconds;
+    this.warmupSeconds = warmupSeconds;
+    this.connections = connections;
+    this.sequenceStart = sequenceStart;
+    this.operations = operations;
+  }
+
+  public static LoadConfig createWithJsonConfig(JsonObject config) {
+    return new LoadConfig(
+        config.getString("host", "localhost"),
+        config.getInteger("port", 8080),
+        config.getString("token"),
+        config.getString("permissionsFile"),
+        config.getString("reportFile"),
+        config.getDouble("rate", 100.0),
+        config.getInteger("durationSeconds", 30),
+        config.getInteger("warmupSeconds", 5),
+        config.getInteger("connections", 16),
+        config.getLong("sequenceStart", System.currentTimeMillis() / 1000),
+        config.getJsonArray("operations", new JsonArray()).stream()
+            .map(operation -> Operation.createWithJsonConfig((JsonObject) operation))
+            .collect(Collectors.toList()));
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * JWT sent with every request, if null requests are sent without authorization.
+   *
+   * @return JWT
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Groovy permissions script posted to {@code /v1/permissions} before load starts, if null
+   * permissions of the server are left as they are.
+   *
+   * @return path of permissions script
+   */
+  public String getPermissionsFile() {
+    return permissionsFile;
+  }
+
+  /**
+   * File to which report is written as JSON, in addition to the table printed to standard output.
+   *
+   * @return path of report file, or null
+   */
+  public String getReportFile() {
+    return reportFile;
+  }
+
+  /**
+   * Target number of queries and mutations sent per second, in total. Requests are sent on schedule
+   * regardless of responses, and their latency is measured from the time they were scheduled at, so
+   * that server which falls behind does not slow down the load.
+   *
+   * @return requests per second
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  /**
+   * Time for which load is sent before it is measured, so that caches and JIT of the server warm
+   * up.
+   *
+   * @return warmup in seconds
+   */
+  public int getWarmupSeconds() {
+    return warmupSeconds;
+  }
+
+  /**
+   * Maximum number of HTTP connections to the server, requests exceeding it wait in queue.
+   *
+   * @return maximum number of connections
+   */
+  public int getConnections() {
+    return connections;
+  }
+
+  /**
+   * First number substituted for {@value LoadClient#SEQUENCE}, by default current time in seconds,
+   * so that rows inserted by consecutive runs do not collide and still fit INT column.
+   *
+   * @return first sequence number
+   */
+  public long getSequenceStart() {
+    return sequenceStart;
+  }
+
+  public List<Operation> getOperations() {
+    return operations;
+  }
+}
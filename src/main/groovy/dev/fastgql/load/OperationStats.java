@@ -0,0 +1,115 @@
+package dev.fastgql.load;
+
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measurements of single operation of the mix. For queries and mutations latency is time from
+ * scheduled send to response, for subscriptions it is time from subscribing to first result.
+ */
+class OperationStats {
+
+  private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+  private final LoadConfig.Operation operation;
+  private final Histogram latencyMicros = new Histogram(3);
+  private long succeededCount = 0;
+  private long failedCount = 0;
+  private long updateCount = 0;
+  private Long sqlStatementCount = null;
+
+  OperationStats(LoadConfig.Operation operation) {
+    this.operation = operation;
+  }
+
+  LoadConfig.Operation getOperation() {
+    return operation;
+  }
+
+  void recordSuccess(long latencyNanos) {
+    latencyMicros.recordValue(Math.max(0, latencyNanos / 1000));
+    succeededCount++;
+  }
+
+  void recordFailure() {
+    failedCount++;
+  }
+
+  void recordUpdate() {
+    updateCount++;
+  }
+
+  void setSqlStatementCount(long sqlStatementCount) {
+    this.sqlStatementCount = sqlStatementCount;
+  }
+
+  long getSucceededCount() {
+    return succeededCount;
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000.0;
+  }
+
+  /**
+   * Formats single line of report.
+   *
+   * @param seconds length of measurement
+   * @return line of report
+   */
+  String format(double seconds) {
+    boolean subscription = operation.getType() == LoadConfig.OperationType.subscription;
+    return String.format(
+        "%-24s %-12s %8d %6d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %6s",
+        operation.getName(),
+        operation.getType(),
+        succeededCount,
+        failedCount,
+        (subscription ? updateCount : succeededCount) / seconds,
+        toMillis(latencyMicros.getValueAtPercentile(PERCENTILES[0])),
+        toMillis(latencyMicros.getValueAtPercentile(PERCENTILES[1])),
+        toMillis(latencyMicros.getValueAtPercentile(PERCENTILES[2])),
+        toMillis(latencyMicros.getValueAtPercentile(PERCENTILES[3])),
+        toMillis(latencyMicros.getMaxValue()),
+        sqlStatementCount == null ? "-" : sqlStatementCount.toString());
+  }
+
+  static String formatHeader() {
+    return String.format(
+        "%-24s %-12s %8s %6s %10s %9s %9s %9s %9s %9s %6s",
+        "operation",
+        "type",
+        "ok",
+        "failed",
+        "per sec",
+        "p50 ms",
+        "p90 ms",
+        "p99 ms",
+        "p99.9 ms",
+        "max ms",
+        "sql");
+  }
+
+  JsonObject toJson(double seconds) {
+    JsonObject latency = new JsonObject();
+    for (double percentile : PERCENTILES) {
+      latency.put(
+          String.format("p%s", percentile).replace(".0", ""),
+          toMillis(latencyMicros.getValueAtPercentile(percentile)));
+    }
+    latency.put("max", toMillis(latencyMicros.getMaxValue()));
+    JsonObject json =
+        new JsonObject()
+            .put("name", operation.getName())
+            .put("type", operation.getType().name())
+            .put("succeeded", succeededCount)
+            .put("failed", failedCount)
+            .put("latencyMs", latency);
+    if (operation.getType() == LoadConfig.OperationType.subscription) {
+      json.put("updates", updateCount).put("updatesPerSecond", updateCount / seconds);
+    } else {
+      json.put("perSecond", succeededCount / seconds).put("sqlStatements", sqlStatementCount);
+    }
+    return json;
+  }
+}
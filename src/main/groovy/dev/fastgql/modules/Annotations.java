@@ -10,6 +10,10 @@ class Annotations {
   @Retention(RUNTIME)
   @interface ServerPort {}
 
+  @Qualifier
+  @Retention(RUNTIME)
+  @interface ServerInstances {}
+
   @Qualifier
   @Retention(RUNTIME)
   @interface UpdateHandler {}
@@ -21,4 +25,20 @@ class Annotations {
   @Qualifier
   @Retention(RUNTIME)
   @interface JwtToken {}
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @interface StatsHandler {}
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @interface MetricsHandler {}
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @interface RequestMetricsHandler {}
+
+  @Qualifier
+  @Retention(RUNTIME)
+  @interface InitialGraphQL {}
 }
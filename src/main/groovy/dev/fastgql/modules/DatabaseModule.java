@@ -5,11 +5,14 @@ import com.google.inject.Provides;
 import dev.fastgql.db.DatabaseSchema;
 import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.db.MetadataUtils;
+import dev.fastgql.db.PoolStats;
+import dev.fastgql.modules.Annotations.ServerInstances;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.sqlclient.Pool;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.function.Function;
+import javax.inject.Singleton;
 
 public class DatabaseModule extends AbstractModule {
   @Provides
@@ -26,8 +29,21 @@ public class DatabaseModule extends AbstractModule {
     };
   }
 
+  /**
+   * Pool shared by all server verticles. Vert.x pool runs its connections on the context it was
+   * created on, so it keeps separate pool for every context using it, with max size split across
+   * server instances.
+   */
   @Provides
-  Pool providePool(DatasourceConfig datasourceConfig, Vertx vertx) {
-    return datasourceConfig.getPool(vertx);
+  @Singleton
+  Pool providePool(
+      DatasourceConfig datasourceConfig, Vertx vertx, @ServerInstances int serverInstances) {
+    return datasourceConfig.getContextPool(vertx, serverInstances);
+  }
+
+  @Provides
+  @Singleton
+  PoolStats providePoolStats(Pool pool, DatasourceConfig datasourceConfig) {
+    return PoolStats.create(pool, datasourceConfig.getPoolConfig());
   }
 }
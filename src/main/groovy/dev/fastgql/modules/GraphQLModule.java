@@ -7,6 +7,8 @@ import dev.fastgql.db.DatabaseSchema;
 import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.db.DebeziumConfig;
 import dev.fastgql.graphql.GraphQLDefinition;
+import dev.fastgql.router.IngestHandler;
+import dev.fastgql.router.QueryStreamHandler;
 import graphql.GraphQL;
 import io.reactivex.Single;
 import io.reactivex.schedulers.Schedulers;
@@ -30,7 +32,9 @@ public class GraphQLModule extends AbstractModule {
       DatasourceConfig datasourceConfig,
       DebeziumConfig debeziumConfig,
       Function<Connection, DatabaseSchema> connectionDatabaseSchemaFunction,
-      GraphQLDefinition.BuilderFactory graphQLDefinitionBuilderFactory) {
+      GraphQLDefinition.BuilderFactory graphQLDefinitionBuilderFactory,
+      QueryStreamHandler queryStreamHandler,
+      IngestHandler ingestHandler) {
     return Single.fromCallable(
             () -> {
               DatabaseSchema databaseSchema;
@@ -47,6 +51,8 @@ public class GraphQLModule extends AbstractModule {
                     .enableQuery()
                     .enableSubscription(vertx, debeziumConfig)
                     .enableMutation()
+                    .enableStreaming(queryStreamHandler::updateQueryStreamer)
+                    .enableIngest(ingestHandler::updateRowIngester)
                     .build());
   }
 }
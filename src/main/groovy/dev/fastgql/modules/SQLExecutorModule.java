@@ -2,7 +2,9 @@ package dev.fastgql.modules;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
+import dev.fastgql.sql.PreparedStatementCache;
 import dev.fastgql.sql.QueryExecutor;
+import dev.fastgql.sql.QueryExecutorStats;
 import io.reactivex.Single;
 import io.vertx.reactivex.sqlclient.*;
 import java.util.function.Function;
@@ -14,17 +16,35 @@ public class SQLExecutorModule extends AbstractModule {
   private static final Logger log = LoggerFactory.getLogger(SQLExecutorModule.class);
 
   @Provides
-  Function<Transaction, QueryExecutor> provideTransactionQueryExecutorFunction() {
-    return transaction ->
-        (query, params) -> {
-          Single<RowSet<Row>> result =
-              params != null && params.size() > 0
-                  ? transaction.preparedQuery(query).rxExecute(Tuple.wrap(params))
-                  : transaction.query(query).rxExecute();
-
-          return result
-              .doOnSuccess(rows -> log.info("[executed] {} {}", query, params))
-              .doOnError(error -> log.error("[error executing] {} {}", query, params));
-        };
+  Function<SqlClient, QueryExecutor> provideSqlClientQueryExecutorFunction(
+      PreparedStatementCache preparedStatementCache, QueryExecutorStats queryExecutorStats) {
+    return sqlClient ->
+        (query, params) ->
+            Single.defer(
+                () -> {
+                  Single<RowSet<Row>> result;
+                  if (params == null || params.isEmpty()) {
+                    result = sqlClient.query(query).rxExecute();
+                  } else if (preparedStatementCache.isCacheable(sqlClient)) {
+                    result =
+                        preparedStatementCache.execute(
+                            (SqlConnection) sqlClient, query, Tuple.wrap(params));
+                  } else {
+                    result = sqlClient.preparedQuery(query).rxExecute(Tuple.wrap(params));
+                  }
+                  long startNanos = System.nanoTime();
+                  return result
+                      .doOnSuccess(
+                          rows -> {
+                            queryExecutorStats.onExecuted(
+                                query, System.nanoTime() - startNanos, rows.rowCount());
+                            log.debug("[executed] {} {}", query, params);
+                          })
+                      .doOnError(
+                          error -> {
+                            queryExecutorStats.onFailed(query, System.nanoTime() - startNanos);
+                            log.error("[error executing] {} {}", query, params);
+                          });
+                });
   }
 }
@@ -2,32 +2,51 @@ package dev.fastgql.modules;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
-import dev.fastgql.dsl.PermissionsConfig;
-import dev.fastgql.dsl.PermissionsSpec;
+import dev.fastgql.db.PoolStats;
+import dev.fastgql.events.ChangeEventBuffers;
+import dev.fastgql.graphql.SubscriptionMultiplexer;
+import dev.fastgql.modules.Annotations.InitialGraphQL;
+import dev.fastgql.modules.Annotations.MetricsHandler;
 import dev.fastgql.modules.Annotations.PermissionsUpdateHandler;
+import dev.fastgql.modules.Annotations.RequestMetricsHandler;
 import dev.fastgql.modules.Annotations.ServerPort;
+import dev.fastgql.modules.Annotations.StatsHandler;
 import dev.fastgql.modules.Annotations.UpdateHandler;
 import dev.fastgql.router.ApolloWSHandlerUpdatable;
 import dev.fastgql.router.GraphQLHandlerUpdatable;
+import dev.fastgql.router.IngestHandler;
+import dev.fastgql.router.QueryStreamHandler;
 import dev.fastgql.security.JWTConfig;
+import dev.fastgql.security.PermissionsScriptCache;
 import dev.fastgql.security.PermissionsStore;
+import dev.fastgql.sql.ExecutionConfig;
+import dev.fastgql.sql.PreparedStatementCache;
+import dev.fastgql.sql.QueryExecutorStats;
+import dev.fastgql.sql.QueryPlanCache;
 import graphql.GraphQL;
-import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
 import io.reactivex.Single;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Context;
+import io.vertx.reactivex.core.RxHelper;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.core.http.HttpServer;
 import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.Route;
 import io.vertx.reactivex.ext.web.Router;
 import io.vertx.reactivex.ext.web.RoutingContext;
 import io.vertx.reactivex.ext.web.handler.BodyHandler;
 import io.vertx.reactivex.ext.web.handler.JWTAuthHandler;
 import io.vertx.reactivex.ext.web.handler.graphql.GraphiQLHandler;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
-import org.codehaus.groovy.control.CompilerConfiguration;
 
 public class ServerModule extends AbstractModule {
 
@@ -43,22 +62,62 @@ public class ServerModule extends AbstractModule {
     return GraphQLHandlerUpdatable.create();
   }
 
+  @Provides
+  @Singleton
+  QueryStreamHandler provideQueryStreamHandler() {
+    return QueryStreamHandler.create();
+  }
+
+  @Provides
+  @Singleton
+  IngestHandler provideIngestHandler(ExecutionConfig executionConfig) {
+    return IngestHandler.create(executionConfig.getIngestMaxLineBytes());
+  }
+
   @Provides
   @Singleton
   ApolloWSHandlerUpdatable provideApolloWSHandlerUpdatable() {
     return ApolloWSHandlerUpdatable.create();
   }
 
+  /**
+   * GraphQL built once at startup and set on handlers shared by all server instances, later
+   * versions are set on them by update handler.
+   */
+  @Provides
+  @Singleton
+  @InitialGraphQL
+  Single<GraphQL> provideInitialGraphQLSingle(
+      GraphQLHandlerUpdatable graphQLHandlerUpdatable,
+      ApolloWSHandlerUpdatable apolloWSHandlerUpdatable,
+      Single<GraphQL> graphQLSingle) {
+    return graphQLSingle
+        .doOnSuccess(
+            graphQL -> {
+              if (graphQLHandlerUpdatable != null) {
+                graphQLHandlerUpdatable.updateGraphQL(graphQL);
+              }
+              if (apolloWSHandlerUpdatable != null) {
+                apolloWSHandlerUpdatable.updateGraphQL(graphQL);
+              }
+            })
+        .cache();
+  }
+
   @Provides
   @Singleton
   @UpdateHandler
   Handler<RoutingContext> provideUpdateHandler(
       GraphQLHandlerUpdatable graphQLHandlerUpdatable,
       ApolloWSHandlerUpdatable apolloWSHandlerUpdatable,
+      QueryPlanCache queryPlanCache,
+      PreparedStatementCache preparedStatementCache,
       Single<GraphQL> graphQLSingle) {
     return context ->
         graphQLSingle.subscribe(
             graphQL -> {
+              queryPlanCache.invalidateAll();
+              preparedStatementCache.invalidateAll();
               if (graphQLHandlerUpdatable != null) {
                 graphQLHandlerUpdatable.updateGraphQL(graphQL);
               }
@@ -74,18 +133,124 @@ public class ServerModule extends AbstractModule {
   @Provides
   @Singleton
   @PermissionsUpdateHandler
-  Handler<RoutingContext> providePermissionsUpdateHandler() {
+  Handler<RoutingContext> providePermissionsUpdateHandler(
+      PermissionsScriptCache permissionsScriptCache) {
     return context -> {
       String script = context.getBodyAsString();
-      CompilerConfiguration config = new CompilerConfiguration();
-      config.setScriptBaseClass(PermissionsConfig.class.getName());
-      GroovyShell shell = new GroovyShell(new Binding(), config);
-      PermissionsStore.setPermissionsSpec((PermissionsSpec) shell.evaluate(script));
+      // plans of previous permissions are dropped by query plan cache, based on version
+      PermissionsStore.setPermissionsSpec(permissionsScriptCache.evaluate(script));
       HttpServerResponse response = context.response();
       response.putHeader("content-type", "text/html").end("permissions updated");
     };
   }
 
+  @Provides
+  @Singleton
+  @StatsHandler
+  Handler<RoutingContext> provideStatsHandler(
+      PoolStats poolStats,
+      QueryPlanCache queryPlanCache,
+      PreparedStatementCache preparedStatementCache,
+      QueryExecutorStats queryExecutorStats,
+      ChangeEventBuffers changeEventBuffers,
+      SubscriptionMultiplexer subscriptionMultiplexer) {
+    return context ->
+        context
+            .response()
+            .putHeader("content-type", "application/json")
+            .end(
+                new JsonObject()
+                    .put("pool", poolStats.toJson())
+                    .put(
+                        "planCache",
+                        new JsonObject()
+                            .put("size", queryPlanCache.size())
+                            .put("hits", queryPlanCache.getHitCount())
+                            .put("misses", queryPlanCache.getMissCount()))
+                    .put(
+                        "preparedStatements",
+                        new JsonObject()
+                            .put("hits", preparedStatementCache.getHitCount())
+                            .put("misses", preparedStatementCache.getMissCount())
+                            .put("evictions", preparedStatementCache.getEvictionCount()))
+                    .put(
+                        "statements",
+                        new JsonObject()
+                            .put("executed", queryExecutorStats.getExecutedCount())
+                            .put("failed", queryExecutorStats.getFailedCount()))
+                    .put("changeEvents", changeEventBuffers.toJson())
+                    .put(
+                        "subscriptions",
+                        new JsonObject()
+                            .put("groups", subscriptionMultiplexer.getGroupCount())
+                            .put("members", subscriptionMultiplexer.getMemberCount()))
+                    .encode());
+  }
+
+  @Provides
+  @Singleton
+  PrometheusMeterRegistry providePrometheusMeterRegistry() {
+    return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+  }
+
+  @Provides
+  MeterRegistry provideMeterRegistry(PrometheusMeterRegistry prometheusMeterRegistry) {
+    return prometheusMeterRegistry;
+  }
+
+  private static String routePath(RoutingContext context) {
+    Route route = context.currentRoute();
+    return route == null || route.getPath() == null ? "other" : route.getPath();
+  }
+
+  /**
+   * Records latency of every HTTP request by method, route and status, from routing to end of
+   * response. Requests are tagged with path of the route which handled them, like
+   * "/v1/ingest/:table", not with path of the request, to keep number of series bounded; requests
+   * not handled by any route are recorded as "other".
+   */
+  @Provides
+  @Singleton
+  @RequestMetricsHandler
+  Handler<RoutingContext> provideRequestMetricsHandler(MeterRegistry meterRegistry) {
+    return context -> {
+      long startNanos = System.nanoTime();
+      context.addBodyEndHandler(
+          end ->
+              Timer.builder("fastgql.http.requests")
+                  .description("Latency of HTTP requests")
+                  .tag("method", context.request().rawMethod())
+                  .tag("uri", routePath(context))
+                  .tag("status", Integer.toString(context.response().getStatusCode()))
+                  .publishPercentileHistogram()
+                  .register(meterRegistry)
+                  .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+      context.next();
+    };
+  }
+
+  /**
+   * Exposes all metrics in Prometheus text format: HTTP requests, plan compilation, SQL statements
+   * and rows by table, pool, subscriptions and change events.
+   */
+  @Provides
+  @Singleton
+  @MetricsHandler
+  Handler<RoutingContext> provideMetricsHandler(
+      PrometheusMeterRegistry prometheusMeterRegistry,
+      PoolStats poolStats,
+      ChangeEventBuffers changeEventBuffers,
+      SubscriptionMultiplexer subscriptionMultiplexer) {
+    poolStats.bindTo(prometheusMeterRegistry);
+    changeEventBuffers.bindTo(prometheusMeterRegistry);
+    subscriptionMultiplexer.bindTo(prometheusMeterRegistry);
+    return context ->
+        context
+            .response()
+            .putHeader("content-type", TextFormat.CONTENT_TYPE_004)
+            .end(prometheusMeterRegistry.scrape());
+  }
+
   @Provides
   @Singleton
   JWTAuthHandler provideJWTAuthHandler(Vertx vertx, JWTConfig jwtConfig) {
@@ -98,24 +263,38 @@ public class ServerModule extends AbstractModule {
       @Nullable JWTAuthHandler jwtAuthHandler,
       GraphQLHandlerUpdatable graphQLHandlerUpdatable,
       ApolloWSHandlerUpdatable apolloWSHandlerUpdatable,
+      QueryStreamHandler queryStreamHandler,
+      IngestHandler ingestHandler,
+      ExecutionConfig executionConfig,
       @Nullable GraphiQLHandler graphiQLHandler,
       @UpdateHandler Handler<RoutingContext> updateHandler,
       @PermissionsUpdateHandler Handler<RoutingContext> permissionsUpdateHandler,
-      Single<GraphQL> graphQLSingle) {
+      @StatsHandler Handler<RoutingContext> statsHandler,
+      @MetricsHandler Handler<RoutingContext> metricsHandler,
+      @RequestMetricsHandler Handler<RoutingContext> requestMetricsHandler,
+      @InitialGraphQL Single<GraphQL> graphQLSingle) {
     return graphQLSingle.map(
         graphQL -> {
           Router router = Router.router(vertx);
+          if (requestMetricsHandler != null) {
+            router.route().handler(requestMetricsHandler);
+          }
           if (jwtAuthHandler != null) {
             router.route("/v1/*").handler(jwtAuthHandler);
           }
           if (apolloWSHandlerUpdatable != null) {
-            apolloWSHandlerUpdatable.updateGraphQL(graphQL);
             router.route("/v1/graphql").handler(apolloWSHandlerUpdatable);
           }
+          if (queryStreamHandler != null && executionConfig.getStreamFetchSize() > 0) {
+            router.post("/v1/graphql").handler(BodyHandler.create());
+            router.post("/v1/graphql").handler(queryStreamHandler);
+          }
           if (graphQLHandlerUpdatable != null) {
-            graphQLHandlerUpdatable.updateGraphQL(graphQL);
             router.route("/v1/graphql").handler(graphQLHandlerUpdatable);
           }
+          if (ingestHandler != null) {
+            router.post("/v1/ingest/:table").handler(ingestHandler);
+          }
           if (graphiQLHandler != null) {
             router.route("/graphiql/*").handler(graphiQLHandler);
           }
@@ -126,6 +305,12 @@ public class ServerModule extends AbstractModule {
             router.route("/v1/permissions").handler(BodyHandler.create());
             router.post("/v1/permissions").handler(permissionsUpdateHandler);
           }
+          if (statsHandler != null) {
+            router.get("/v1/stats").handler(statsHandler);
+          }
+          if (metricsHandler != null) {
+            router.get("/v1/metrics").handler(metricsHandler);
+          }
           return router;
         });
   }
@@ -136,7 +321,12 @@ public class ServerModule extends AbstractModule {
       HttpServerOptions httpServerOptions,
       Single<Router> routerSingle,
       @ServerPort int port) {
-    return routerSingle.flatMap(
-        router -> vertx.createHttpServer(httpServerOptions).requestHandler(router).rxListen(port));
+    // server has to be created on event loop of verticle which requested it
+    Context context = vertx.getOrCreateContext();
+    return routerSingle
+        .observeOn(RxHelper.scheduler(context))
+        .flatMap(
+            router ->
+                vertx.createHttpServer(httpServerOptions).requestHandler(router).rxListen(port));
   }
 }
@@ -4,8 +4,10 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.db.DebeziumConfig;
+import dev.fastgql.modules.Annotations.ServerInstances;
 import dev.fastgql.modules.Annotations.ServerPort;
 import dev.fastgql.security.JWTConfig;
+import dev.fastgql.sql.ExecutionConfig;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.core.Vertx;
 
@@ -19,6 +21,18 @@ public class VertxModule extends AbstractModule {
     this.config = config;
   }
 
+  /**
+   * Number of server verticle instances, "http.instances" entry of config: 1 by default, 0 or less
+   * for one per available processor.
+   *
+   * @param config server config
+   * @return number of instances
+   */
+  public static int serverInstances(JsonObject config) {
+    int instances = config.getInteger("http.instances", 1);
+    return instances > 0 ? instances : Runtime.getRuntime().availableProcessors();
+  }
+
   @Provides
   public Vertx provideVertx() {
     return vertx;
@@ -34,6 +48,11 @@ public class VertxModule extends AbstractModule {
     return DebeziumConfig.createWithJsonConfig(config.getJsonObject("debezium"));
   }
 
+  @Provides
+  ExecutionConfig provideExecutionConfig() {
+    return ExecutionConfig.createWithJsonConfig(config.getJsonObject("execution"));
+  }
+
   @Provides
   JWTConfig provideJWTConfig() {
     return JWTConfig.createWithJsonConfig(config.getJsonObject("auth"));
@@ -44,4 +63,10 @@ public class VertxModule extends AbstractModule {
   int port() {
     return config.getInteger("http.port", 8080);
   }
+
+  @Provides
+  @ServerInstances
+  int provideServerInstances() {
+    return serverInstances(config);
+  }
 }
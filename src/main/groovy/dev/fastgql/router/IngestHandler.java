@@ -0,0 +1,202 @@
+package dev.fastgql.router;
+
+import dev.fastgql.graphql.RowIngester;
+import io.reactivex.Flowable;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles POST requests to "/v1/ingest/:table", inserting rows of request body into the table with
+ * current {@link RowIngester} as the body is received, so that memory used by the request does not
+ * depend on number of rows. Body is either newline delimited JSON objects, or CSV with header line
+ * of column names if content type is "text/csv". Has to be used without body handler.
+ */
+public class IngestHandler implements Handler<RoutingContext> {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestHandler.class);
+
+  private final int maxLineBytes;
+  private volatile RowIngester rowIngester;
+
+  private IngestHandler(int maxLineBytes) {
+    this.maxLineBytes = maxLineBytes;
+  }
+
+  /**
+   * Create ingest handler.
+   *
+   * @param maxLineBytes maximum length of line of request body in bytes, requests with longer lines
+   *     fail
+   */
+  public static IngestHandler create(int maxLineBytes) {
+    return new IngestHandler(maxLineBytes);
+  }
+
+  /**
+   * Set ingester of new GraphQL schema.
+   *
+   * @param rowIngester new row ingester
+   */
+  public void updateRowIngester(RowIngester rowIngester) {
+    this.rowIngester = rowIngester;
+  }
+
+  /**
+   * Splits CSV line into values. Values can be quoted, with quotes escaped by doubling them, but
+   * cannot contain line breaks.
+   *
+   * @param line CSV line
+   * @return list of values, unquoted empty values are null
+   */
+  static List<String> parseCsvLine(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    boolean wasQuoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+        wasQuoted = true;
+      } else if (c == ',') {
+        values.add(value.length() == 0 && !wasQuoted ? null : value.toString());
+        value.setLength(0);
+        wasQuoted = false;
+      } else {
+        value.append(c);
+      }
+    }
+    values.add(value.length() == 0 && !wasQuoted ? null : value.toString());
+    return values;
+  }
+
+  /**
+   * Splits chunks of request body into lines. Chunks are split on bytes, so that multi-byte
+   * characters split between chunks are decoded correctly. Fails as soon as line longer than given
+   * limit is received, so that body without line breaks is not buffered whole.
+   *
+   * @param chunks chunks of request body
+   * @param maxLineBytes maximum length of line in bytes
+   * @return lines without line breaks
+   */
+  static Flowable<String> splitLines(Flowable<Buffer> chunks, int maxLineBytes) {
+    AtomicReference<Buffer> remainder = new AtomicReference<>(Buffer.buffer());
+    return chunks
+        .concatMapIterable(
+            chunk -> {
+              Buffer buffer = remainder.get().appendBuffer(chunk);
+              List<String> lines = new ArrayList<>();
+              int start = 0;
+              for (int i = 0; i < buffer.length(); i++) {
+                if (buffer.getByte(i) == '\n') {
+                  checkLineLength(i - start, maxLineBytes);
+                  lines.add(buffer.getString(start, i, "UTF-8"));
+                  start = i + 1;
+                }
+              }
+              checkLineLength(buffer.length() - start, maxLineBytes);
+              remainder.set(buffer.getBuffer(start, buffer.length()));
+              return lines;
+            })
+        .concatWith(Flowable.fromCallable(() -> remainder.get().toString("UTF-8")));
+  }
+
+  private static void checkLineLength(int lineBytes, int maxLineBytes) {
+    if (lineBytes > maxLineBytes) {
+      throw new RuntimeException(String.format("Line is longer than %d bytes", maxLineBytes));
+    }
+  }
+
+  /**
+   * Parses lines of request body to rows.
+   *
+   * @param lines lines of request body, without line breaks
+   * @param csv whether lines are CSV with header, otherwise they are JSON objects
+   * @return rows
+   */
+  static Flowable<Map<String, Object>> parseRows(Flowable<String> lines, boolean csv) {
+    Flowable<String> nonEmptyLines =
+        lines
+            .map(line -> line.endsWith("\r") ? line.substring(0, line.length() - 1) : line)
+            .filter(line -> !line.isBlank());
+    if (!csv) {
+      return nonEmptyLines.map(line -> new JsonObject(line).getMap());
+    }
+    AtomicReference<List<String>> header = new AtomicReference<>();
+    return nonEmptyLines.concatMapIterable(
+        line -> {
+          List<String> values = parseCsvLine(line);
+          if (header.get() == null) {
+            header.set(values);
+            return List.of();
+          }
+          List<String> columns = header.get();
+          if (values.size() != columns.size()) {
+            throw new RuntimeException(
+                String.format(
+                    "CSV row has %d values, but header has %d columns",
+                    values.size(), columns.size()));
+          }
+          Map<String, Object> row = new HashMap<>(columns.size() * 4 / 3 + 1);
+          for (int i = 0; i < columns.size(); i++) {
+            row.put(columns.get(i), values.get(i));
+          }
+          return List.of(row);
+        });
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    RowIngester currentRowIngester = rowIngester;
+    if (currentRowIngester == null) {
+      ctx.next();
+      return;
+    }
+    String contentType = ctx.request().getHeader("Content-Type");
+    boolean csv = contentType != null && contentType.startsWith("text/csv");
+    // request is paused while rows of previous batch are inserted
+    Flowable<Buffer> chunks =
+        ctx.request().toFlowable().map(io.vertx.reactivex.core.buffer.Buffer::getDelegate);
+    currentRowIngester
+        .ingest(ctx.pathParam("table"), parseRows(splitLines(chunks, maxLineBytes), csv), ctx)
+        .subscribe(
+            count ->
+                ctx.response()
+                    .putHeader("Content-Type", "application/json")
+                    .end(new JsonObject().put("affected_rows", count).encode()),
+            error -> {
+              log.error("ingest failed", error);
+              if (!ctx.response().ended()) {
+                ctx.response()
+                    .setStatusCode(400)
+                    .putHeader("Content-Type", "application/json")
+                    .end(
+                        new JsonObject()
+                            .put(
+                                "errors",
+                                new JsonArray()
+                                    .add(new JsonObject().put("message", error.getMessage())))
+                            .encode());
+              }
+            });
+  }
+}
@@ -0,0 +1,92 @@
+package dev.fastgql.router;
+
+import dev.fastgql.graphql.QueryStreamer;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import io.reactivex.Flowable;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles POST requests of GraphQL queries which can be streamed by current {@link QueryStreamer},
+ * writing their response with chunked transfer encoding as it is produced. All other requests,
+ * including ones with variables, are passed to next handler. Has to be preceded by body handler.
+ */
+public class QueryStreamHandler implements Handler<RoutingContext> {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryStreamHandler.class);
+
+  private volatile QueryStreamer queryStreamer;
+
+  private QueryStreamHandler() {}
+
+  public static QueryStreamHandler create() {
+    return new QueryStreamHandler();
+  }
+
+  /**
+   * Set streamer of new GraphQL schema.
+   *
+   * @param queryStreamer new query streamer
+   */
+  public void updateQueryStreamer(QueryStreamer queryStreamer) {
+    this.queryStreamer = queryStreamer;
+  }
+
+  private static Document parseDocument(RoutingContext ctx) {
+    try {
+      JsonObject body = ctx.getBodyAsJson();
+      if (body == null || !(body.getValue("query") instanceof String)) {
+        return null;
+      }
+      JsonObject variables = body.getJsonObject("variables");
+      if (variables != null && !variables.isEmpty()) {
+        return null;
+      }
+      return new Parser().parseDocument(body.getString("query"));
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    QueryStreamer currentQueryStreamer = queryStreamer;
+    Document document = currentQueryStreamer == null ? null : parseDocument(ctx);
+    Flowable<Buffer> responseFlowable =
+        document == null ? null : currentQueryStreamer.stream(document, ctx);
+    if (responseFlowable == null) {
+      ctx.next();
+      return;
+    }
+    HttpServerResponse response = ctx.response();
+    response.setChunked(true).putHeader("Content-Type", "application/json");
+    responseFlowable.subscribe(
+        response
+            .toSubscriber()
+            .onError(
+                error -> {
+                  log.error("streamed query failed", error);
+                  if (response.headWritten()) {
+                    // response is already partially written, so only way to signal error is to
+                    // not finish it
+                    response.reset();
+                  } else {
+                    response.end(
+                        new JsonObject()
+                            .put(
+                                "errors",
+                                new JsonArray()
+                                    .add(new JsonObject().put("message", error.getMessage())))
+                            .putNull("data")
+                            .encode());
+                  }
+                }));
+  }
+}
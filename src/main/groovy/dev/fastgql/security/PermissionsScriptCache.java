@@ -0,0 +1,86 @@
+package dev.fastgql.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import dev.fastgql.dsl.PermissionsConfig;
+import dev.fastgql.dsl.PermissionsSpec;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutionException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+/**
+ * Compiled permissions scripts, keyed by SHA-256 of their content, so that posting the same script
+ * again does not compile and load new classes. Each script is compiled by its own class loader, and
+ * meta classes of evicted scripts are removed, so that their classes can be unloaded once
+ * permissions created by them are replaced.
+ */
+@Singleton
+public class PermissionsScriptCache {
+  private static final int MAX_SCRIPTS = 8;
+
+  private final Cache<String, Class<?>> cache;
+  private final CompilerConfiguration compilerConfiguration;
+
+  @Inject
+  public PermissionsScriptCache() {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_SCRIPTS)
+            .removalListener(
+                (RemovalListener<String, Class<?>>)
+                    notification -> InvokerHelper.removeClass(notification.getValue()))
+            .build();
+    this.compilerConfiguration = new CompilerConfiguration();
+    compilerConfiguration.setScriptBaseClass(PermissionsConfig.class.getName());
+  }
+
+  private static String hash(String script) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hash = new StringBuilder();
+      for (byte b : digest) {
+        hash.append(String.format("%02x", b));
+      }
+      return hash.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Class<?> compile(String script) {
+    GroovyClassLoader classLoader =
+        new GroovyClassLoader(PermissionsConfig.class.getClassLoader(), compilerConfiguration);
+    return classLoader.parseClass(script);
+  }
+
+  /**
+   * Evaluates permissions script, compiling it only if script with the same content is not cached.
+   *
+   * @param script permissions script
+   * @return permissions defined by the script
+   */
+  public PermissionsSpec evaluate(String script) {
+    Class<?> scriptClass;
+    try {
+      scriptClass = cache.get(hash(script), () -> compile(script));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    Script instance = InvokerHelper.createScript(scriptClass, new Binding());
+    return (PermissionsSpec) instance.run();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
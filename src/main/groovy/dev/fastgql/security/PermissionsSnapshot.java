@@ -0,0 +1,26 @@
+package dev.fastgql.security;
+
+import dev.fastgql.dsl.PermissionsSpec;
+
+/**
+ * Compiled permissions together with their version. Snapshots are never modified after they are
+ * published, each update of permissions publishes new snapshot with greater version, so that caches
+ * can tell which entries were created with outdated permissions.
+ */
+public class PermissionsSnapshot {
+  private final long version;
+  private final PermissionsSpec permissionsSpec;
+
+  public PermissionsSnapshot(long version, PermissionsSpec permissionsSpec) {
+    this.version = version;
+    this.permissionsSpec = permissionsSpec;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public PermissionsSpec getPermissionsSpec() {
+    return permissionsSpec;
+  }
+}
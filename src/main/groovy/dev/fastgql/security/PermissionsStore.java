@@ -1,15 +1,33 @@
 package dev.fastgql.security;
 
 import dev.fastgql.dsl.PermissionsSpec;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Permissions set through API. Current {@link PermissionsSnapshot} is replaced atomically, so
+ * reading it does not block and requests started before an update keep using snapshot they read.
+ */
 public class PermissionsStore {
-  private static PermissionsSpec permissionsSpec = null;
+  private static final AtomicReference<PermissionsSnapshot> snapshot =
+      new AtomicReference<>(new PermissionsSnapshot(0, null));
 
-  public static synchronized void setPermissionsSpec(PermissionsSpec permissionsSpec) {
-    PermissionsStore.permissionsSpec = permissionsSpec;
+  /**
+   * Compiles given permissions and publishes them as new snapshot.
+   *
+   * @param permissionsSpec new permissions
+   * @return published snapshot
+   */
+  public static PermissionsSnapshot setPermissionsSpec(PermissionsSpec permissionsSpec) {
+    PermissionsSpec compiled = permissionsSpec == null ? null : permissionsSpec.compile();
+    return snapshot.updateAndGet(
+        current -> new PermissionsSnapshot(current.getVersion() + 1, compiled));
   }
 
-  public static synchronized PermissionsSpec getPermissionsSpec() {
-    return permissionsSpec;
+  public static PermissionsSnapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  public static PermissionsSpec getPermissionsSpec() {
+    return snapshot.get().getPermissionsSpec();
   }
 }
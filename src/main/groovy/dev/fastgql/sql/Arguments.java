@@ -3,6 +3,7 @@ package dev.fastgql.sql;
 import dev.fastgql.graphql.GraphQLDatabaseSchema;
 import graphql.language.Argument;
 import graphql.language.IntValue;
+import graphql.language.StringValue;
 import java.math.BigInteger;
 import java.util.List;
 
@@ -12,17 +13,21 @@ public class Arguments {
   private static final String ORDER_BY = "order_by";
   private static final String LIMIT = "limit";
   private static final String OFFSET = "offset";
+  private static final String AFTER = "after";
+  private static final String BEFORE = "before";
 
   private final Condition condition;
   private final List<OrderBy> orderByList;
   private final BigInteger limit;
   private final BigInteger offset;
+  private final Keyset keyset;
 
   public Arguments() {
     this.condition = null;
     this.orderByList = null;
     this.limit = null;
     this.offset = null;
+    this.keyset = null;
   }
 
   public Arguments(
@@ -34,6 +39,8 @@ public class Arguments {
     List<OrderBy> orderByList = null;
     BigInteger limit = null;
     BigInteger offset = null;
+    String after = null;
+    String before = null;
 
     for (Argument argument : arguments) {
       switch (argument.getName()) {
@@ -50,6 +57,12 @@ public class Arguments {
         case OFFSET:
           offset = ((IntValue) argument.getValue()).getValue();
           break;
+        case AFTER:
+          after = ((StringValue) argument.getValue()).getValue();
+          break;
+        case BEFORE:
+          before = ((StringValue) argument.getValue()).getValue();
+          break;
         default:
           break;
       }
@@ -58,6 +71,14 @@ public class Arguments {
     this.orderByList = orderByList;
     this.limit = limit;
     this.offset = offset;
+    if (after != null && before != null) {
+      throw new RuntimeException("Only one of after and before can be used at once");
+    }
+    this.keyset =
+        after != null || before != null
+            ? new Keyset(
+                orderByList, Keyset.decodeCursor(after != null ? after : before), before != null)
+            : null;
   }
 
   public Condition getCondition() {
@@ -75,4 +96,8 @@ public class Arguments {
   public BigInteger getOffset() {
     return offset;
   }
+
+  public Keyset getKeyset() {
+    return keyset;
+  }
 }
@@ -0,0 +1,201 @@
+package dev.fastgql.sql;
+
+import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.common.RelationalOperatorType;
+import dev.fastgql.dsl.LogicalConnective;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates {@link Condition} against single row in memory, with {@link
+ * RelationalOperator#getValidator()} of its operators. Result is three-valued: {@code null} means
+ * that condition cannot be evaluated (it refers to another table, to column missing in the row, or
+ * uses operator without validator), so the row may match it.
+ *
+ * <p>Comparison of NULL in SQL is neither true nor false, so it is not evaluated either. Strings
+ * are compared only for equality and only in text columns which database compares as Java does:
+ * collation of other text columns could give different result, and values of columns of other
+ * types, like timestamps or numerics, can come as strings in different format than the one used in
+ * condition.
+ */
+class ConditionEvaluator {
+
+  private static final Set<RelationalOperator> EQUALITY_OPERATORS =
+      EnumSet.of(
+          RelationalOperator._eq,
+          RelationalOperator._neq,
+          RelationalOperator._in,
+          RelationalOperator._nin,
+          RelationalOperator._any);
+
+  private static class Term {
+    private final LogicalConnective connective;
+    private final Boolean value;
+
+    private Term(LogicalConnective connective, Boolean value) {
+      this.connective = connective;
+      this.value = value;
+    }
+  }
+
+  private final Map<String, Object> row;
+  private final Map<String, Object> jwtParams;
+  private final Set<String> stringColumns;
+
+  private ConditionEvaluator(
+      Map<String, Object> row, Map<String, Object> jwtParams, Set<String> stringColumns) {
+    this.row = row;
+    this.jwtParams = jwtParams;
+    this.stringColumns = stringColumns;
+  }
+
+  /**
+   * Evaluates condition against given row.
+   *
+   * @param condition condition to evaluate
+   * @param row values of columns of the row, by column name
+   * @param jwtParams JWT params of the request
+   * @param stringColumns text columns which database compares for equality as Java compares strings
+   * @return true or false, or null if condition cannot be evaluated
+   */
+  static Boolean evaluate(
+      Condition condition,
+      Map<String, Object> row,
+      Map<String, Object> jwtParams,
+      Set<String> stringColumns) {
+    return combine(new ConditionEvaluator(row, jwtParams, stringColumns).flatten(condition));
+  }
+
+  /**
+   * Flattens condition into terms joined by connectives, with the same grouping as SQL created for
+   * it by {@link ConditionUtils#conditionToSQL}, where AND takes precedence over OR.
+   */
+  private List<Term> flatten(Condition condition) {
+    List<Term> next =
+        condition.getNext().stream()
+            .flatMap(nextCondition -> flatten(nextCondition).stream())
+            .collect(Collectors.toCollection(ArrayList::new));
+    LogicalConnective connective = condition.getConnective();
+
+    boolean hasRoot =
+        condition.getReferencing() != null
+            || (condition.getColumn() != null
+                && condition.getOperator() != null
+                && condition.getFunction() != null);
+
+    if (!hasRoot) {
+      if (condition.isNegated()) {
+        return List.of(new Term(connective, null));
+      }
+      if (connective != null && !next.isEmpty()) {
+        Term first = next.get(0);
+        next.set(0, new Term(connective, first.connective == null ? first.value : null));
+      }
+      return next;
+    }
+
+    Boolean root = condition.getReferencing() != null ? null : evaluateRoot(condition);
+
+    if (!condition.isNegated() && connective == null) {
+      next.add(0, new Term(null, root));
+      return next;
+    }
+
+    Boolean value = root;
+    if (!next.isEmpty()) {
+      next.add(0, new Term(null, root));
+      value = combine(next);
+    }
+    return List.of(new Term(connective, condition.isNegated() ? not(value) : value));
+  }
+
+  private static Boolean combine(List<Term> terms) {
+    if (terms.isEmpty()) {
+      return true;
+    }
+    Boolean orValue = false;
+    Boolean andValue = terms.get(0).value;
+    for (Term term : terms.subList(1, terms.size())) {
+      if (term.connective == LogicalConnective.or) {
+        orValue = or(orValue, andValue);
+        andValue = term.value;
+      } else {
+        andValue = and(andValue, term.value);
+      }
+    }
+    return or(orValue, andValue);
+  }
+
+  private Boolean evaluateRoot(Condition condition) {
+    RelationalOperator operator = condition.getOperator();
+    if (operator.getRelationalOperatorType() != RelationalOperatorType.generic
+        || !row.containsKey(condition.getColumn())) {
+      return null;
+    }
+    try {
+      Object left = normalize(row.get(condition.getColumn()));
+      Object right = normalize(condition.getFunction().apply(jwtParams));
+      if ((operator == RelationalOperator._in
+              || operator == RelationalOperator._nin
+              || operator == RelationalOperator._any)
+          && right != null
+          && !(right instanceof Object[])) {
+        right = new Object[] {right};
+      }
+      if (operator != RelationalOperator._is_null && (left == null || right == null)) {
+        return null;
+      }
+      if ((containsString(left) || containsString(right))
+          && (!stringColumns.contains(condition.getColumn())
+              || !EQUALITY_OPERATORS.contains(operator))) {
+        return null;
+      }
+      return operator.getValidator().apply(left, right);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /** Converts numbers to {@link BigDecimal} and lists to arrays, so that they can be compared. */
+  private static Object normalize(Object value) {
+    if (value instanceof Number) {
+      return new BigDecimal(value.toString());
+    } else if (value instanceof List) {
+      return ((List<?>) value).stream().map(ConditionEvaluator::normalize).toArray();
+    } else if (value instanceof Object[]) {
+      return Arrays.stream((Object[]) value).map(ConditionEvaluator::normalize).toArray();
+    } else {
+      return value;
+    }
+  }
+
+  private static boolean containsString(Object value) {
+    return value instanceof String
+        || (value instanceof Object[]
+            && Arrays.stream((Object[]) value).anyMatch(element -> element instanceof String));
+  }
+
+  private static Boolean not(Boolean value) {
+    return value == null ? null : !value;
+  }
+
+  private static Boolean and(Boolean first, Boolean second) {
+    if (Boolean.FALSE.equals(first) || Boolean.FALSE.equals(second)) {
+      return false;
+    }
+    return first == null || second == null ? null : true;
+  }
+
+  private static Boolean or(Boolean first, Boolean second) {
+    if (Boolean.TRUE.equals(first) || Boolean.TRUE.equals(second)) {
+      return true;
+    }
+    return first == null || second == null ? null : false;
+  }
+}
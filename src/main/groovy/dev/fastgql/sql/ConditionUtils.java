@@ -1,6 +1,7 @@
 package dev.fastgql.sql;
 
 import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.dsl.LogicalConnective;
 import dev.fastgql.graphql.GraphQLDatabaseSchema;
 import dev.fastgql.graphql.GraphQLField;
@@ -12,8 +13,10 @@ import graphql.language.ObjectField;
 import graphql.language.ObjectValue;
 import graphql.language.StringValue;
 import graphql.language.Value;
+import java.lang.reflect.Array;
 import java.util.*;
 import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 class ConditionUtils {
@@ -21,6 +24,15 @@ class ConditionUtils {
     return new Condition(columnName, RelationalOperator._eq, params -> value);
   }
 
+  static Condition checkColumnIsInValues(
+      String columnName, List<Object> values, DatasourceConfig.DBType dbType) {
+    if (dbType == DatasourceConfig.DBType.postgresql) {
+      Object array = toArray(values);
+      return new Condition(columnName, RelationalOperator._any, params -> array);
+    }
+    return new Condition(columnName, RelationalOperator._in, params -> values);
+  }
+
   public static Set<TableAlias> conditionToTableAliasSet(Condition condition, String tableAlias) {
     Set<TableAlias> ret =
         condition.getNext().stream()
@@ -39,11 +51,54 @@ class ConditionUtils {
     return ret;
   }
 
+  /**
+   * Converts list of values to array which can be bound as single param of {@code = ANY(...)} on
+   * PostgreSQL. Array of numbers is {@code Number[]}, which is accepted for all numeric column
+   * types, other arrays are typed with common class of their elements. Type of empty list is not
+   * known, so it is converted to null.
+   *
+   * @param value list, array or single value
+   * @return array, or null for empty list
+   */
+  static Object toArray(Object value) {
+    List<?> values =
+        value instanceof Collection
+            ? new ArrayList<>((Collection<?>) value)
+            : value instanceof Object[]
+                ? Arrays.asList((Object[]) value)
+                : value == null ? List.of() : List.of(value);
+    List<Class<?>> classes =
+        values.stream()
+            .filter(Objects::nonNull)
+            .map(Object::getClass)
+            .distinct()
+            .collect(Collectors.toList());
+    if (classes.isEmpty()) {
+      return null;
+    }
+    Class<?> elementClass =
+        classes.stream().allMatch(Number.class::isAssignableFrom)
+            ? Number.class
+            : classes.size() == 1 ? classes.get(0) : Object.class;
+    Object array = Array.newInstance(elementClass, values.size());
+    for (int i = 0; i < values.size(); i++) {
+      Array.set(array, i, values.get(i));
+    }
+    return array;
+  }
+
+  private static boolean isListOperator(RelationalOperator operator) {
+    return operator == RelationalOperator._in || operator == RelationalOperator._nin;
+  }
+
   private static PreparedQuery conditionToSQLInternal(
-      Condition condition, String tableAlias, Map<String, Object> jwtParams) {
+      Condition condition,
+      String tableAlias,
+      Function<Condition, Object> valueFunction,
+      boolean listsAsArrays) {
     PreparedQuery nextPreparedQuery =
         condition.getNext().stream()
-            .map(it -> conditionToSQLInternal(it, tableAlias, jwtParams))
+            .map(it -> conditionToSQLInternal(it, tableAlias, valueFunction, listsAsArrays))
             .collect(PreparedQuery.collector());
 
     PreparedQuery connective =
@@ -75,22 +130,38 @@ class ConditionUtils {
               tableAlias,
               referencing.getColumn()));
       rootConditionPrepared.merge(
-          conditionToSQLInternal(referencing.getCondition(), referencingAlias, jwtParams));
+          conditionToSQLInternal(
+              referencing.getCondition(), referencingAlias, valueFunction, listsAsArrays));
       rootConditionPrepared.merge("))");
     } else if (condition.getColumn() != null
         && condition.getOperator() != null
         && condition.getFunction() != null) {
-      Object value = condition.getFunction().apply(jwtParams);
+      Object value = valueFunction.apply(condition);
 
       RelationalOperator operator = condition.getOperator();
 
-      rootConditionPrepared
-          .merge(tableAlias)
-          .merge(".")
-          .merge(condition.getColumn())
-          .merge(condition.getOperator().getSql());
+      String column = String.format("%s.%s", tableAlias, condition.getColumn());
+
+      if (listsAsArrays && isListOperator(operator)) {
+        // single array param keeps the same SQL for lists of any length; null array (empty list)
+        // matches no rows for _in and all non-null values for _nin
+        if (operator == RelationalOperator._in) {
+          rootConditionPrepared.merge(column).merge(" = ANY(").addParam(value).merge(")");
+        } else {
+          rootConditionPrepared
+              .merge(String.format("(%s IS NOT NULL AND (%s = ANY(", column, column))
+              .addParam(value)
+              .merge(")) IS NOT TRUE)");
+        }
+        return withNext(rootConditionPrepared, not, connective, nextPreparedQueryWithSpace);
+      }
+
+      rootConditionPrepared.merge(column).merge(condition.getOperator().getSql());
 
       switch (operator) {
+        case _any:
+          rootConditionPrepared.merge("(").addParam(value).merge(")");
+          break;
         case _in:
         case _nin:
           rootConditionPrepared.merge("(");
@@ -113,23 +184,64 @@ class ConditionUtils {
     }
 
     if (!rootConditionPrepared.isEmpty()) {
-      return not.isEmpty() && connective.isEmpty()
-          ? rootConditionPrepared.merge(nextPreparedQueryWithSpace)
-          : nextPreparedQueryWithSpace.isEmpty()
-              ? not.merge(connective).merge(rootConditionPrepared)
-              : not.merge(connective)
-                  .merge(PreparedQuery.create("("))
-                  .merge(rootConditionPrepared)
-                  .merge(nextPreparedQueryWithSpace)
-                  .merge(PreparedQuery.create(")"));
+      return withNext(rootConditionPrepared, not, connective, nextPreparedQueryWithSpace);
     }
 
     return connective.isEmpty() ? nextPreparedQuery : connective.merge(nextPreparedQuery);
   }
 
+  private static PreparedQuery withNext(
+      PreparedQuery rootConditionPrepared,
+      PreparedQuery not,
+      PreparedQuery connective,
+      PreparedQuery nextPreparedQueryWithSpace) {
+    return not.isEmpty() && connective.isEmpty()
+        ? rootConditionPrepared.merge(nextPreparedQueryWithSpace)
+        : nextPreparedQueryWithSpace.isEmpty()
+            ? not.merge(connective).merge(rootConditionPrepared)
+            : not.merge(connective)
+                .merge(PreparedQuery.create("("))
+                .merge(rootConditionPrepared)
+                .merge(nextPreparedQueryWithSpace)
+                .merge(PreparedQuery.create(")"));
+  }
+
   static PreparedQuery conditionToSQL(
       Condition condition, String tableAlias, Map<String, Object> jwtParams) {
-    return conditionToSQLInternal(condition, tableAlias, jwtParams);
+    return conditionToSQLInternal(
+        condition, tableAlias, it -> it.getFunction().apply(jwtParams), false);
+  }
+
+  /**
+   * Converts condition to SQL once for all requests: each param of returned query is function of
+   * JWT params creating its value. On PostgreSQL values of {@code _in} and {@code _nin} are bound
+   * as single array, with {@code = ANY(...)} and {@code (... = ANY(...)) IS NOT TRUE}, on other
+   * databases number of their params depends on values, so null is returned if condition contains
+   * them.
+   */
+  static PreparedQuery conditionToSQLTemplate(
+      Condition condition, String tableAlias, DatasourceConfig.DBType dbType) {
+    if (dbType == DatasourceConfig.DBType.postgresql) {
+      return conditionToSQLInternal(
+          condition,
+          tableAlias,
+          it ->
+              isListOperator(it.getOperator())
+                  ? (Function<Map<String, Object>, Object>)
+                      jwtParams -> toArray(it.getFunction().apply(jwtParams))
+                  : it.getFunction(),
+          true);
+    }
+    return hasListOperator(condition)
+        ? null
+        : conditionToSQLInternal(condition, tableAlias, Condition::getFunction, false);
+  }
+
+  private static boolean hasListOperator(Condition condition) {
+    return isListOperator(condition.getOperator())
+        || (condition.getReferencing() != null
+            && hasListOperator(condition.getReferencing().getCondition()))
+        || condition.getNext().stream().anyMatch(ConditionUtils::hasListOperator);
   }
 
   private static String listToSql(List<?> list) {
@@ -0,0 +1,238 @@
+package dev.fastgql.sql;
+
+import io.vertx.core.json.JsonObject;
+
+/** Query execution config, read from the optional "execution" entry of the server config. */
+public class ExecutionConfig {
+
+  /** How queries (and subscription re-queries) get consistent view of all queried tables. */
+  public enum ReadConsistency {
+    /** Transaction in which all queried tables are locked for writing before querying them. */
+    lock,
+    /**
+     * Read-only snapshot transaction without table locks, queries consisting of single SQL query
+     * are executed without transaction.
+     */
+    snapshot
+  }
+
+  private static final int DEFAULT_PLAN_CACHE_SIZE = 1000;
+  private static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 256;
+  private static final int DEFAULT_INGEST_BATCH_SIZE = 1000;
+  private static final int DEFAULT_INGEST_MAX_LINE_BYTES = 1024 * 1024;
+
+  private final boolean batchReferenced;
+  private final int planCacheSize;
+  private final ReadConsistency readConsistency;
+  private final int preparedStatementCacheSize;
+  private final long subscriptionWindowMillis;
+  private final int subscriptionWindowEvents;
+  private final boolean multiplexSubscriptions;
+  private final boolean filterChangeEvents;
+  private final int streamFetchSize;
+  private final int ingestBatchSize;
+  private final int ingestMaxLineBytes;
+
+  private ExecutionConfig() {
+    this.batchReferenced = true;
+    this.planCacheSize = DEFAULT_PLAN_CACHE_SIZE;
+    this.readConsistency = ReadConsistency.snapshot;
+    this.preparedStatementCacheSize = DEFAULT_PREPARED_STATEMENT_CACHE_SIZE;
+    this.subscriptionWindowMillis = 0;
+    this.subscriptionWindowEvents = 0;
+    this.multiplexSubscriptions = true;
+    this.filterChangeEvents = true;
+    this.streamFetchSize = 0;
+    this.ingestBatchSize = DEFAULT_INGEST_BATCH_SIZE;
+    this.ingestMaxLineBytes = DEFAULT_INGEST_MAX_LINE_BYTES;
+  }
+
+  private ExecutionConfig(
+      boolean batchReferenced,
+      int planCacheSize,
+      ReadConsistency readConsistency,
+      int preparedStatementCacheSize,
+      long subscriptionWindowMillis,
+      int subscriptionWindowEvents,
+      boolean multiplexSubscriptions,
+      boolean filterChangeEvents,
+      int streamFetchSize,
+      int ingestBatchSize,
+      int ingestMaxLineBytes) {
+    this.batchReferenced = batchReferenced;
+    this.planCacheSize = planCacheSize;
+    this.readConsistency = readConsistency;
+    this.preparedStatementCacheSize = preparedStatementCacheSize;
+    this.subscriptionWindowMillis = subscriptionWindowMillis;
+    this.subscriptionWindowEvents = subscriptionWindowEvents;
+    this.multiplexSubscriptions = multiplexSubscriptions;
+    this.filterChangeEvents = filterChangeEvents;
+    this.streamFetchSize = streamFetchSize;
+    this.ingestBatchSize = ingestBatchSize;
+    this.ingestMaxLineBytes = ingestMaxLineBytes;
+  }
+
+  /**
+   * Create execution config from json config, missing entries (or whole config if it is null) are
+   * set to defaults.
+   *
+   * @param config json config
+   * @throws IllegalArgumentException if "subscriptionWindowEvents" is set without
+   *     "subscriptionWindowMillis", as window closed only by number of events would hold back last
+   *     events until next ones arrive
+   */
+  public static ExecutionConfig createWithJsonConfig(JsonObject config) {
+    if (config != null) {
+      if (config.getInteger("subscriptionWindowEvents", 0) > 0
+          && config.getLong("subscriptionWindowMillis", 0L) <= 0) {
+        throw new IllegalArgumentException(
+            "subscriptionWindowEvents requires subscriptionWindowMillis greater than 0");
+      }
+      return new ExecutionConfig(
+          config.getBoolean("batchReferenced", true),
+          config.getInteger("planCacheSize", DEFAULT_PLAN_CACHE_SIZE),
+          ReadConsistency.valueOf(
+              config.getString("readConsistency", ReadConsistency.snapshot.name())),
+          config.getInteger("preparedStatementCacheSize", DEFAULT_PREPARED_STATEMENT_CACHE_SIZE),
+          config.getLong("subscriptionWindowMillis", 0L),
+          config.getInteger("subscriptionWindowEvents", 0),
+          config.getBoolean("multiplexSubscriptions", true),
+          config.getBoolean("filterChangeEvents", true),
+          config.getInteger("streamFetchSize", 0),
+          config.getInteger("ingestBatchSize", DEFAULT_INGEST_BATCH_SIZE),
+          config.getInteger("ingestMaxLineBytes", DEFAULT_INGEST_MAX_LINE_BYTES));
+    } else {
+      return new ExecutionConfig();
+    }
+  }
+
+  /**
+   * Whether one-to-many (REFERENCED) fields are fetched with a single query per nesting level
+   * instead of a single query per parent row.
+   *
+   * @return true if batching is enabled
+   */
+  public boolean isBatchReferenced() {
+    return batchReferenced;
+  }
+
+  /**
+   * Maximum number of compiled query plans kept in {@link QueryPlanCache}, 0 disables caching.
+   *
+   * @return plan cache size
+   */
+  public int getPlanCacheSize() {
+    return planCacheSize;
+  }
+
+  public ReadConsistency getReadConsistency() {
+    return readConsistency;
+  }
+
+  /**
+   * Maximum number of statements kept prepared on every connection by {@link
+   * PreparedStatementCache}, 0 disables caching.
+   *
+   * @return prepared statement cache size
+   */
+  public int getPreparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
+  /**
+   * Length of window in which change events of single subscription are coalesced into one re-query,
+   * 0 disables windows. First event of subscription is never delayed.
+   *
+   * @return window length in milliseconds
+   */
+  public long getSubscriptionWindowMillis() {
+    return subscriptionWindowMillis;
+  }
+
+  /**
+   * Maximum number of change events in single window, after which it is closed before its time
+   * passes, 0 means no limit. Can be set only together with window length.
+   *
+   * @return maximum number of events in window
+   */
+  public int getSubscriptionWindowEvents() {
+    return subscriptionWindowEvents;
+  }
+
+  /**
+   * Whether subscriptions with the same query plan and params share single re-query per change.
+   *
+   * @return true if subscriptions are multiplexed
+   */
+  public boolean isMultiplexSubscriptions() {
+    return multiplexSubscriptions;
+  }
+
+  /**
+   * Whether change events of subscription root table are checked against its conditions before
+   * re-query, skipping ones in which neither old nor new row matches them.
+   *
+   * @return true if change events are filtered
+   */
+  public boolean isFilterChangeEvents() {
+    return filterChangeEvents;
+  }
+
+  /**
+   * Number of rows fetched from database cursor at once by queries which are streamed to HTTP
+   * response row by row, 0 disables streaming.
+   *
+   * @return stream fetch size
+   */
+  public int getStreamFetchSize() {
+    return streamFetchSize;
+  }
+
+  /**
+   * Number of rows sent to ingest endpoint which are inserted at once, which bounds number of rows
+   * held in memory by one ingest request.
+   *
+   * @return ingest batch size
+   */
+  public int getIngestBatchSize() {
+    return ingestBatchSize;
+  }
+
+  /**
+   * Maximum length in bytes of single line of body sent to ingest endpoint, which bounds memory
+   * held by one ingest request while waiting for the end of line.
+   *
+   * @return maximum line length in bytes
+   */
+  public int getIngestMaxLineBytes() {
+    return ingestMaxLineBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "ExecutionConfig{"
+        + "batchReferenced="
+        + batchReferenced
+        + ", planCacheSize="
+        + planCacheSize
+        + ", readConsistency="
+        + readConsistency
+        + ", preparedStatementCacheSize="
+        + preparedStatementCacheSize
+        + ", subscriptionWindowMillis="
+        + subscriptionWindowMillis
+        + ", subscriptionWindowEvents="
+        + subscriptionWindowEvents
+        + ", multiplexSubscriptions="
+        + multiplexSubscriptions
+        + ", filterChangeEvents="
+        + filterChangeEvents
+        + ", streamFetchSize="
+        + streamFetchSize
+        + ", ingestBatchSize="
+        + ingestBatchSize
+        + ", ingestMaxLineBytes="
+        + ingestMaxLineBytes
+        + '}';
+  }
+}
@@ -7,11 +7,20 @@ import java.util.function.Function;
 public class ExecutionDefinition<T> {
   private final Function<QueryExecutor, Maybe<T>> queryExecutorResponseFunction;
   private final Set<String> queriedTables;
+  private final boolean singleQuery;
 
   ExecutionDefinition(
       Function<QueryExecutor, Maybe<T>> queryExecutorResponseFunction, Set<String> queriedTables) {
+    this(queryExecutorResponseFunction, queriedTables, false);
+  }
+
+  ExecutionDefinition(
+      Function<QueryExecutor, Maybe<T>> queryExecutorResponseFunction,
+      Set<String> queriedTables,
+      boolean singleQuery) {
     this.queryExecutorResponseFunction = queryExecutorResponseFunction;
     this.queriedTables = queriedTables;
+    this.singleQuery = singleQuery;
   }
 
   public Function<QueryExecutor, Maybe<T>> getQueryExecutorResponseFunction() {
@@ -21,4 +30,14 @@ public class ExecutionDefinition<T> {
   public Set<String> getQueriedTables() {
     return queriedTables;
   }
+
+  /**
+   * Whether response is created with single SQL query (besides table locks), which sees consistent
+   * state of the database even outside of transaction.
+   *
+   * @return true if only single query is executed
+   */
+  public boolean isSingleQuery() {
+    return singleQuery;
+  }
 }
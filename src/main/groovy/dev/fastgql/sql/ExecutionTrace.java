@@ -0,0 +1,160 @@
+package dev.fastgql.sql;
+
+import io.reactivex.Single;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Trace of single execution of query: every SQL statement with its parameters, number of rows and
+ * time, and breakdown of total time into waiting for connection, waiting for database and the rest
+ * (mapping rows to response and building queries for nested fields). Statements which do not read
+ * or write data (BEGIN, COMMIT, table locks) are reported separately as transaction overhead.
+ */
+public class ExecutionTrace {
+
+  private static final Pattern DATA_STATEMENT_PATTERN =
+      Pattern.compile("^\\s*(SELECT|INSERT|UPDATE|DELETE|WITH)\\b", Pattern.CASE_INSENSITIVE);
+
+  private static class Statement {
+    private final String query;
+    private final List<Object> params;
+    private final long startNanos;
+    private long endNanos = -1;
+    private int rowCount = -1;
+    private String error;
+
+    private Statement(String query, List<Object> params, long startNanos) {
+      this.query = query;
+      this.params = params;
+      this.startNanos = startNanos;
+    }
+
+    private boolean isOverhead() {
+      return !DATA_STATEMENT_PATTERN.matcher(query).find();
+    }
+
+    private Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("query", query);
+      map.put(
+          "params",
+          params.stream()
+              .map(
+                  param ->
+                      param instanceof Object[]
+                          ? Arrays.toString((Object[]) param)
+                          : String.valueOf(param))
+              .collect(Collectors.joining(", ", "[", "]")));
+      map.put("rows", rowCount);
+      map.put("ms", toMillis(endNanos - startNanos));
+      map.put("overhead", isOverhead());
+      map.put("error", error);
+      return map;
+    }
+  }
+
+  private final long startNanos;
+  private final List<Statement> statements = new ArrayList<>();
+  private long connectionNanos = -1;
+  private long endNanos = -1;
+
+  public ExecutionTrace() {
+    this.startNanos = System.nanoTime();
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos < 0 ? 0.0 : nanos / 1_000_000.0;
+  }
+
+  /**
+   * Wraps given executor, so that every statement executed with it is added to this trace.
+   *
+   * @param queryExecutor executor to trace
+   * @return tracing executor
+   */
+  public QueryExecutor wrap(QueryExecutor queryExecutor) {
+    return (query, params) ->
+        Single.defer(
+            () -> {
+              Statement statement = new Statement(query, params, System.nanoTime());
+              synchronized (statements) {
+                statements.add(statement);
+              }
+              return queryExecutor
+                  .apply(query, params)
+                  .doOnSuccess(
+                      rows -> {
+                        statement.endNanos = System.nanoTime();
+                        statement.rowCount = rows.rowCount();
+                      })
+                  .doOnError(
+                      error -> {
+                        statement.endNanos = System.nanoTime();
+                        statement.error = error.getMessage();
+                      });
+            });
+  }
+
+  public void onConnectionAcquired() {
+    connectionNanos = System.nanoTime();
+  }
+
+  public void onFinished() {
+    endNanos = System.nanoTime();
+  }
+
+  /** Time in which at least one statement was executing, overlapping statements counted once. */
+  private static long databaseNanos(List<Statement> statements) {
+    long total = 0;
+    long coveredUntil = Long.MIN_VALUE;
+    for (Statement statement : statements) {
+      long end = statement.endNanos < 0 ? statement.startNanos : statement.endNanos;
+      long start = Math.max(statement.startNanos, coveredUntil);
+      if (end > start) {
+        total += end - start;
+        coveredUntil = end;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Creates response of {@code __meta { trace }}.
+   *
+   * @return map of trace fields
+   */
+  public Map<String, Object> toMap() {
+    List<Statement> statementsByStart;
+    synchronized (statements) {
+      statementsByStart =
+          statements.stream()
+              .sorted(Comparator.comparingLong(statement -> statement.startNanos))
+              .collect(Collectors.toList());
+    }
+    long totalNanos = (endNanos < 0 ? System.nanoTime() : endNanos) - startNanos;
+    long poolNanos = connectionNanos < 0 ? 0 : connectionNanos - startNanos;
+    long databaseNanos = databaseNanos(statementsByStart);
+    long overheadNanos =
+        statementsByStart.stream()
+            .filter(Statement::isOverhead)
+            .mapToLong(statement -> Math.max(0, statement.endNanos - statement.startNanos))
+            .sum();
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("roundTrips", statementsByStart.size());
+    map.put("totalMs", toMillis(totalNanos));
+    map.put("poolMs", toMillis(poolNanos));
+    map.put("databaseMs", toMillis(databaseNanos));
+    map.put("overheadMs", toMillis(overheadNanos));
+    map.put("mappingMs", toMillis(totalNanos - poolNanos - databaseNanos));
+    map.put(
+        "statements",
+        statementsByStart.stream().map(Statement::toMap).collect(Collectors.toList()));
+    return map;
+  }
+}
@@ -0,0 +1,137 @@
+package dev.fastgql.sql;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Position in rows ordered by {@code order_by}, given by values of all order columns of a row, and
+ * condition selecting rows after or before it. Condition compares order columns with the values
+ * instead of skipping rows with OFFSET, so it can use index on these columns and does not get
+ * slower on deeper pages. Columns are expected to identify rows and to not be null, which holds for
+ * order extended with primary key, as order by nullable columns is rejected when connection field
+ * is created.
+ */
+public class Keyset {
+  private final List<OrderBy> orderByList;
+  private final List<Object> values;
+  private final boolean before;
+
+  Keyset(List<OrderBy> orderByList, List<Object> values, boolean before) {
+    if (orderByList == null || orderByList.size() != values.size()) {
+      throw new RuntimeException("Cursor does not match order_by of the query");
+    }
+    if (orderByList.stream()
+        .anyMatch(orderBy -> orderBy.isOnRelationship() || orderBy.isNullsOrderSet())) {
+      throw new RuntimeException(
+          "Cursor pagination supports only asc and desc order by columns of queried table");
+    }
+    if (values.stream().anyMatch(Objects::isNull)) {
+      throw new RuntimeException("Cursor pagination does not support null values of order_by");
+    }
+    this.orderByList = orderByList;
+    this.values = values;
+    this.before = before;
+  }
+
+  /**
+   * Encodes values of order columns of a row as opaque cursor.
+   *
+   * @param values values of order columns
+   * @return cursor
+   */
+  public static String encodeCursor(List<Object> values) {
+    return Base64.getUrlEncoder()
+        .encodeToString(new JsonArray(values).encode().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes cursor created by {@link #encodeCursor(List)}.
+   *
+   * @param cursor cursor
+   * @return values of order columns
+   */
+  static List<Object> decodeCursor(String cursor) {
+    try {
+      JsonArray jsonArray =
+          new JsonArray(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+      List<Object> values = new ArrayList<>(jsonArray.size());
+      jsonArray.forEach(values::add);
+      return values;
+    } catch (IllegalArgumentException | DecodeException e) {
+      throw new RuntimeException(String.format("Invalid cursor: %s", cursor));
+    }
+  }
+
+  /**
+   * Whether rows before the cursor are selected, in which case they are ordered in reverse, so that
+   * LIMIT keeps the ones closest to the cursor.
+   *
+   * @return true for rows before the cursor
+   */
+  boolean isBefore() {
+    return before;
+  }
+
+  /**
+   * Creates condition selecting rows strictly after (or before) the cursor. If all columns are
+   * ordered in the same direction it is single row comparison, like {@code (t.a, t.b) > ($1, $2)},
+   * otherwise it is expanded column by column.
+   *
+   * @return condition with values as params
+   */
+  PreparedQuery toPreparedQuery() {
+    List<String> operators =
+        orderByList.stream()
+            .map(orderBy -> orderBy.isDescending() == before ? ">" : "<")
+            .collect(Collectors.toList());
+    if (operators.stream().distinct().count() == 1) {
+      PreparedQuery preparedQuery = PreparedQuery.create("(");
+      for (int i = 0; i < orderByList.size(); i++) {
+        preparedQuery.merge(i == 0 ? "" : ", ").merge(orderByList.get(i).columnSqlString());
+      }
+      preparedQuery.merge(String.format(") %s (", operators.get(0)));
+      for (int i = 0; i < values.size(); i++) {
+        preparedQuery.merge(i == 0 ? "" : ", ").addParam(values.get(i));
+      }
+      return preparedQuery.merge(")");
+    }
+    return expandedPreparedQuery(operators, 0);
+  }
+
+  /** Creates {@code (a > $1 OR (a = $2 AND (b < $3 OR ...)))} starting from given column. */
+  private PreparedQuery expandedPreparedQuery(List<String> operators, int index) {
+    String column = orderByList.get(index).columnSqlString();
+    PreparedQuery preparedQuery =
+        PreparedQuery.create(String.format("(%s %s ", column, operators.get(index)))
+            .addParam(values.get(index));
+    if (index < orderByList.size() - 1) {
+      preparedQuery
+          .merge(String.format(" OR (%s = ", column))
+          .addParam(values.get(index))
+          .merge(" AND ")
+          .merge(expandedPreparedQuery(operators, index + 1))
+          .merge(")");
+    }
+    return preparedQuery.merge(")");
+  }
+
+  /**
+   * Order of rows selected by this keyset, reversed for rows before the cursor.
+   *
+   * @return list of order by
+   */
+  List<OrderBy> getOrderByList() {
+    if (!before) {
+      return orderByList;
+    }
+    List<OrderBy> reversed = new ArrayList<>();
+    orderByList.forEach(orderBy -> reversed.add(orderBy.reversed()));
+    return reversed;
+  }
+}
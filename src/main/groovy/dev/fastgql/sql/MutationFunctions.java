@@ -7,13 +7,10 @@ import graphql.language.Argument;
 import graphql.language.Field;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
-import io.vertx.core.json.JsonArray;
+import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class MutationFunctions {
 
@@ -27,19 +24,8 @@ public class MutationFunctions {
     }
   }
 
-  static class Pair<L, R> {
-    private final L left;
-    private final R right;
-
-    Pair(L value, R alias) {
-      this.left = value;
-      this.right = alias;
-    }
-
-    static <L, R> Pair<L, R> of(L left, R right) {
-      return new Pair<>(left, right);
-    }
-  }
+  /** Limit of params of one query, which is within limits of both Postgres and MySQL. */
+  private static final int MAX_PARAMS_PER_QUERY = 32767;
 
   private final RoleSpec roleSpec;
   private final Map<String, Object> jwtParams;
@@ -78,12 +64,13 @@ public class MutationFunctions {
     return valid;
   }
 
-  private QueryParams buildMutationQueryFromRow(
-      String tableName, Object row, DatasourceConfig.DBType dbType) {
-    JsonObject rowObject = JsonObject.mapFrom(row);
-
-    PlaceholderCounter placeholderCounter = new PlaceholderCounter(dbType);
-
+  /**
+   * Builds queries inserting given rows. Permissions and presets are resolved once for all rows,
+   * then rows with the same set of columns are inserted with multi-row {@code INSERT ... VALUES},
+   * split into chunks which do not exceed {@link #MAX_PARAMS_PER_QUERY} params.
+   */
+  private List<QueryParams> buildMutationQueries(
+      String tableName, List<?> rows, DatasourceConfig.DBType dbType) {
     TableSpec tableSpec = roleSpec.getTable(tableName);
     if (tableSpec == null) {
       throw new RuntimeException("No permissions defined for table table " + tableName);
@@ -94,76 +81,111 @@ public class MutationFunctions {
       throw new RuntimeException("User does not have insert permissions on table " + tableName);
     }
 
-    List<String> allowedColumns = opSpec.getAllowed();
+    Set<String> allowedColumns = new HashSet<>(opSpec.getAllowed());
 
-    List<Map.Entry<String, Object>> columnNameToValueArguments =
-        rowObject.stream()
-            .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
-            .collect(Collectors.toList());
+    List<Preset> presets = opSpec.createPresets();
+    Map<String, Object> columnNameToValuePresets = new HashMap<>();
+    if (presets != null) {
+      presets.forEach(
+          preset ->
+              columnNameToValuePresets.put(
+                  preset.getColumn(), preset.getFunction().apply(jwtParams)));
+    }
 
-    List<String> columnsSqlListArguments =
-        columnNameToValueArguments.stream()
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toUnmodifiableList());
+    Condition condition = opSpec.getCondition() == null ? new Condition() : opSpec.getCondition();
 
-    if (!allowedColumns.containsAll(columnsSqlListArguments)) {
-      throw new RuntimeException("Insert query violates server-side permissions");
-    }
+    Map<List<String>, List<List<Object>>> columnNamesToRowValues = new LinkedHashMap<>();
+    for (Object row : rows) {
+      JsonObject rowObject =
+          row instanceof Map
+              ? new JsonObject(castToMap(row))
+              : row instanceof JsonObject ? (JsonObject) row : JsonObject.mapFrom(row);
 
-    List<Preset> presets = opSpec.createPresets();
+      if (!allowedColumns.containsAll(rowObject.fieldNames())) {
+        throw new RuntimeException("Insert query violates server-side permissions");
+      }
 
-    List<Map.Entry<String, Object>> columnNameToValuePresets =
-        presets == null
-            ? List.of()
-            : presets.stream()
-                .map(preset -> Map.entry(preset.getColumn(), preset.getFunction().apply(jwtParams)))
-                .collect(Collectors.toList());
-
-    Map<String, Pair<Object, String>> columnNameToValueAlias =
-        Stream.concat(columnNameToValuePresets.stream(), columnNameToValueArguments.stream())
-            .collect(
-                (Supplier<HashMap<String, Object>>) HashMap::new,
-                (accumulator, next) -> accumulator.put(next.getKey(), next.getValue()),
-                Map::putAll)
-            .entrySet()
-            .stream()
-            .collect(
-                LinkedHashMap::new,
-                (accumulator, next) ->
-                    accumulator.put(
-                        next.getKey(), Pair.of(next.getValue(), placeholderCounter.next())),
-                Map::putAll);
-
-    Map<String, Object> columnNameToValue =
-        columnNameToValueAlias.entrySet().stream()
-            .collect(
-                Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().left));
+      // sorted, so that rows with fields given in different order share the query
+      Map<String, Object> columnNameToValue = new TreeMap<>(columnNameToValuePresets);
+      rowObject.forEach(entry -> columnNameToValue.put(entry.getKey(), entry.getValue()));
 
-    Condition condition = opSpec.getCondition() == null ? new Condition() : opSpec.getCondition();
+      if (!checkCondition(condition, columnNameToValue)) {
+        throw new RuntimeException("Insert query violates server-side permissions");
+      }
 
-    if (!checkCondition(condition, columnNameToValue)) {
-      throw new RuntimeException("Insert query violates server-side permissions");
+      columnNamesToRowValues
+          .computeIfAbsent(new ArrayList<>(columnNameToValue.keySet()), key -> new ArrayList<>())
+          .add(new ArrayList<>(columnNameToValue.values()));
     }
 
-    String columnsSql = String.join(", ", columnNameToValueAlias.keySet());
-
-    String valuesSql =
-        columnNameToValueAlias.values().stream()
-            .map(valueAlias -> valueAlias.right)
-            .collect(Collectors.joining(", "));
+    List<QueryParams> queries = new ArrayList<>();
+    columnNamesToRowValues.forEach(
+        (columnNames, rowValues) -> {
+          int rowsPerQuery = Math.max(1, MAX_PARAMS_PER_QUERY / Math.max(1, columnNames.size()));
+          for (int from = 0; from < rowValues.size(); from += rowsPerQuery) {
+            queries.add(
+                buildInsertQuery(
+                    tableName,
+                    columnNames,
+                    rowValues.subList(from, Math.min(from + rowsPerQuery, rowValues.size())),
+                    dbType));
+          }
+        });
+    return queries;
+  }
 
-    List<Object> params =
-        columnNameToValueAlias.values().stream()
-            .map(valueAlias -> valueAlias.left)
-            .collect(Collectors.toUnmodifiableList());
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> castToMap(Object row) {
+    return (Map<String, Object>) row;
+  }
 
+  private static QueryParams buildInsertQuery(
+      String tableName,
+      List<String> columnNames,
+      List<List<Object>> rowValues,
+      DatasourceConfig.DBType dbType) {
+    PlaceholderCounter placeholderCounter = new PlaceholderCounter(dbType);
+    List<Object> params = new ArrayList<>(columnNames.size() * rowValues.size());
+    StringJoiner valuesSql = new StringJoiner(", ");
+    for (List<Object> values : rowValues) {
+      StringJoiner rowSql = new StringJoiner(", ", "(", ")");
+      for (Object value : values) {
+        rowSql.add(placeholderCounter.next());
+        params.add(value);
+      }
+      valuesSql.add(rowSql.toString());
+    }
     return new QueryParams(
         String.format(
-            "INSERT INTO %s (%s) VALUES (%s)",
-            tableName, String.join(", ", columnsSql), String.join(", ", valuesSql)),
+            "INSERT INTO %s (%s) VALUES %s",
+            tableName, String.join(", ", columnNames), valuesSql.toString()),
         params);
   }
 
+  private static Single<Integer> executeQueries(
+      List<QueryParams> queries, QueryExecutor queryExecutor) {
+    return Observable.fromIterable(queries)
+        .concatMapSingle(queryParams -> queryExecutor.apply(queryParams.sql, queryParams.params))
+        .reduce(0, (count, rowSet) -> count + rowSet.rowCount());
+  }
+
+  /**
+   * Inserts given rows into table with given query executor, checking them against insert
+   * permissions and adding presets like {@link #createExecutionDefinition(Field, Object,
+   * DatasourceConfig.DBType)}.
+   *
+   * @param tableName name of the table
+   * @param rows rows to insert, as maps of column names to values
+   * @param dbType type of the database
+   * @param queryExecutor executor of insert queries
+   * @return number of inserted rows
+   */
+  public Single<Integer> insertRows(
+      String tableName, List<?> rows, DatasourceConfig.DBType dbType, QueryExecutor queryExecutor) {
+    return Single.defer(
+        () -> executeQueries(buildMutationQueries(tableName, rows, dbType), queryExecutor));
+  }
+
   public ExecutionDefinition<Map<String, Object>> createExecutionDefinition(
       Field field, Object rowsObject, DatasourceConfig.DBType dbType) {
     String fieldName = field.getName();
@@ -184,19 +206,11 @@ public class MutationFunctions {
       throw new RuntimeException("No 'objects' argument in mutation");
     }
 
-    JsonArray rows = new JsonArray((List<?>) rowsObject);
-
-    List<QueryParams> queries =
-        rows.stream()
-            .map(row -> buildMutationQueryFromRow(tableName, row, dbType))
-            .collect(Collectors.toList());
+    List<QueryParams> queries = buildMutationQueries(tableName, (List<?>) rowsObject, dbType);
 
     Function<QueryExecutor, Maybe<Map<String, Object>>> queryExecutorFunction =
         queryExecutor ->
-            Observable.fromIterable(queries)
-                .flatMapSingle(
-                    queryParams -> queryExecutor.apply(queryParams.sql, queryParams.params))
-                .reduce(0, (count, rowSet) -> count + rowSet.rowCount())
+            executeQueries(queries, queryExecutor)
                 .map(value -> Map.of("affected_rows", (Object) value))
                 .toMaybe();
 
@@ -36,6 +36,31 @@ public class OrderBy {
     }
   }
 
+  boolean isOnRelationship() {
+    return !leftJoins.isEmpty();
+  }
+
+  boolean isDescending() {
+    return order.startsWith("DESC");
+  }
+
+  boolean isNullsOrderSet() {
+    return order.contains("NULLS");
+  }
+
+  String columnSqlString() {
+    return selectColumn.sqlString();
+  }
+
+  /**
+   * Creates the same ordering in opposite direction.
+   *
+   * @return reversed order by
+   */
+  OrderBy reversed() {
+    return new OrderBy(leftJoins, selectColumn, isDescending() ? "ASC" : "DESC");
+  }
+
   public Set<TableAlias> createTableAliasSet() {
     return leftJoins.stream()
         .map(
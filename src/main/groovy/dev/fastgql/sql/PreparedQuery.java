@@ -3,6 +3,7 @@ package dev.fastgql.sql;
 import dev.fastgql.db.DatasourceConfig;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collector;
 
 public class PreparedQuery {
@@ -72,6 +73,36 @@ public class PreparedQuery {
     return this;
   }
 
+  /**
+   * Creates query with the same SQL and params mapped with given function.
+   *
+   * @param function function mapping params
+   * @return new query
+   */
+  PreparedQuery mapParams(Function<Object, Object> function) {
+    PreparedQuery preparedQuery = new PreparedQuery();
+    preparedQuery.elements.addAll(elements);
+    params.forEach(param -> preparedQuery.params.add(function.apply(param)));
+    return preparedQuery;
+  }
+
+  /**
+   * Creates query with given text replaced in its SQL, but not in params.
+   *
+   * @param target text to replace
+   * @param replacement replacement
+   * @return new query
+   */
+  PreparedQuery replaceInQuery(String target, String replacement) {
+    PreparedQuery preparedQuery = new PreparedQuery();
+    elements.forEach(
+        element ->
+            preparedQuery.elements.add(
+                new Element(element.type, element.content.replace(target, replacement))));
+    preparedQuery.params.addAll(params);
+    return preparedQuery;
+  }
+
   public String buildQuery(DatasourceConfig.DBType dbType) {
     StringBuilder builder = new StringBuilder();
     PlaceholderCounter placeholderCounter = new PlaceholderCounter(dbType);
@@ -0,0 +1,206 @@
+package dev.fastgql.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import dev.fastgql.db.DatasourceConfig;
+import io.reactivex.Single;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.reactivex.sqlclient.PreparedStatement;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.RowSet;
+import io.vertx.reactivex.sqlclient.SqlClient;
+import io.vertx.reactivex.sqlclient.SqlConnection;
+import io.vertx.reactivex.sqlclient.Tuple;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * LRU cache of server-side prepared statements, kept separately for every database connection and
+ * keyed by SQL query. Statements evicted from the cache are closed on the server, once no query
+ * uses them. Connections are identified by backend process id and secret key, which are only
+ * available for Postgres, so on other databases statements are not cached.
+ */
+@Singleton
+public class PreparedStatementCache {
+
+  private final int maxSizePerConnection;
+  private final Cache<Long, ConnectionStatements> connectionStatementsCache;
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  @Inject
+  public PreparedStatementCache(
+      ExecutionConfig executionConfig, DatasourceConfig datasourceConfig) {
+    this.maxSizePerConnection = executionConfig.getPreparedStatementCacheSize();
+    // closing of connections by the pool is not reported, so statements of connections not used
+    // for the longest time are dropped once there are more of them than the pool can open
+    this.connectionStatementsCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(2L * datasourceConfig.getPoolConfig().getMaxSize())
+            .build();
+  }
+
+  /**
+   * Whether statements executed with given client can be cached.
+   *
+   * @param sqlClient SQL client
+   * @return true if client is Postgres connection and cache is enabled
+   */
+  public boolean isCacheable(SqlClient sqlClient) {
+    return maxSizePerConnection > 0
+        && sqlClient instanceof SqlConnection
+        && ((SqlConnection) sqlClient).getDelegate() instanceof PgConnection;
+  }
+
+  /**
+   * Executes query with statement prepared on given connection, taken from the cache or prepared
+   * and put in the cache. Statement which failed to execute is removed from the cache. Cache is
+   * looked up on subscription, so the returned single can be subscribed later or more than once.
+   *
+   * @param connection connection which executes the query, has to be cacheable
+   * @param query SQL query
+   * @param params query params
+   * @return result of the query
+   */
+  public Single<RowSet<Row>> execute(SqlConnection connection, String query, Tuple params) {
+    PgConnection pgConnection = (PgConnection) connection.getDelegate();
+    long connectionKey =
+        ((long) pgConnection.processId() << 32) | (pgConnection.secretKey() & 0xffffffffL);
+    return execute(connectionKey, connection, query, params);
+  }
+
+  /**
+   * Executes query like {@link #execute(SqlConnection, String, Tuple)}, on connection identified by
+   * given key.
+   */
+  Single<RowSet<Row>> execute(
+      long connectionKey, SqlConnection connection, String query, Tuple params) {
+    return Single.defer(
+        () -> {
+          ConnectionStatements connectionStatements;
+          try {
+            connectionStatements =
+                connectionStatementsCache.get(connectionKey, ConnectionStatements::new);
+          } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+          }
+          CachedStatement cachedStatement = connectionStatements.acquire(query, connection);
+          return cachedStatement
+              .preparedStatementSingle
+              .flatMap(preparedStatement -> preparedStatement.query().rxExecute(params))
+              .doOnError(error -> connectionStatements.remove(query, cachedStatement))
+              .doFinally(() -> connectionStatements.release(cachedStatement));
+        });
+  }
+
+  /**
+   * Drops all cached statements, e.g. after database schema was changed. Statements are closed by
+   * the next query executed on their connection, since connection might be in use now.
+   */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * Statement prepared, or being prepared, on single connection. Requests waiting for it while it
+   * is prepared share single preparation. Statement is closed when it is removed from the cache and
+   * no query uses it.
+   */
+  private static class CachedStatement {
+    private final Single<PreparedStatement> preparedStatementSingle;
+    private PreparedStatement preparedStatement;
+    private int users;
+    private boolean removed;
+
+    private CachedStatement(Single<PreparedStatement> prepareSingle, ConnectionStatements owner) {
+      this.preparedStatementSingle =
+          prepareSingle.doOnSuccess(prepared -> owner.onPrepared(this, prepared)).cache();
+    }
+
+    private void closeIfUnused() {
+      if (removed && users == 0 && preparedStatement != null) {
+        preparedStatement.close();
+        preparedStatement = null;
+      }
+    }
+  }
+
+  /**
+   * Statements of single connection. Connection is used by single request at a time, but requests
+   * using it can run on different threads, and single request can run its queries concurrently.
+   */
+  private class ConnectionStatements {
+    private long statementsGeneration = generation.get();
+    private final Map<String, CachedStatement> statements =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            if (size() > maxSizePerConnection) {
+              evictionCount.incrementAndGet();
+              markRemoved(eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        };
+
+    private synchronized CachedStatement acquire(String query, SqlConnection connection) {
+      long currentGeneration = generation.get();
+      if (statementsGeneration != currentGeneration) {
+        statements.values().forEach(this::markRemoved);
+        statements.clear();
+        statementsGeneration = currentGeneration;
+      }
+      CachedStatement cachedStatement = statements.get(query);
+      if (cachedStatement != null) {
+        hitCount.incrementAndGet();
+      } else {
+        missCount.incrementAndGet();
+        cachedStatement = new CachedStatement(connection.rxPrepare(query), this);
+        statements.put(query, cachedStatement);
+      }
+      cachedStatement.users++;
+      return cachedStatement;
+    }
+
+    private synchronized void onPrepared(
+        CachedStatement cachedStatement, PreparedStatement preparedStatement) {
+      cachedStatement.preparedStatement = preparedStatement;
+      cachedStatement.closeIfUnused();
+    }
+
+    private synchronized void release(CachedStatement cachedStatement) {
+      cachedStatement.users--;
+      cachedStatement.closeIfUnused();
+    }
+
+    private synchronized void remove(String query, CachedStatement cachedStatement) {
+      if (statements.remove(query, cachedStatement)) {
+        markRemoved(cachedStatement);
+      }
+    }
+
+    private void markRemoved(CachedStatement cachedStatement) {
+      cachedStatement.removed = true;
+      cachedStatement.closeIfUnused();
+    }
+  }
+}
@@ -3,6 +3,7 @@ package dev.fastgql.sql;
 import dev.fastgql.db.DatasourceConfig;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Query {
@@ -30,7 +31,8 @@ public class Query {
   }
 
   public SelectColumn addSelectColumn(Table table, String columnName) {
-    SelectColumn selectColumn = new SelectColumn(table, columnName, getNextResultAlias());
+    SelectColumn selectColumn =
+        new SelectColumn(table, columnName, getNextResultAlias(), selectColumns.size());
     selectColumns.add(selectColumn);
     return selectColumn;
   }
@@ -43,13 +45,51 @@ public class Query {
     return selectColumn;
   }
 
-  public List<Object> buildParams() {
+  /**
+   * Whether SQL of the query built once with {@link #buildQuery(DatasourceConfig.DBType)} can be
+   * used for all requests, with params from {@link #buildParams(Map, Condition)}.
+   *
+   * @return false if query has to be built for each request
+   */
+  public boolean isWhereFixed() {
+    return queriedTables.stream().allMatch(Table::isWhereFixed);
+  }
+
+  /**
+   * Builds params of the query for given request.
+   *
+   * @param jwtParams JWT params of current request
+   * @param extraCondition extra condition of the main table
+   * @return list of params
+   */
+  public List<Object> buildParams(Map<String, Object> jwtParams, Condition extraCondition) {
     return queriedTables.stream()
-        .flatMap(table -> table.createParams().stream())
+        .flatMap(
+            queriedTable ->
+                queriedTable
+                    .createParams(jwtParams, queriedTable == table ? extraCondition : null)
+                    .stream())
         .collect(Collectors.toList());
   }
 
   public String buildQuery(DatasourceConfig.DBType dbType) {
+    return buildQuery(
+        dbType,
+        queriedTables.stream().map(Table::getWhere).collect(PreparedQuery.collectorWithAnd()));
+  }
+
+  public String buildQuery(
+      DatasourceConfig.DBType dbType, Map<String, Object> jwtParams, Condition extraCondition) {
+    return buildQuery(
+        dbType,
+        queriedTables.stream()
+            .map(
+                queriedTable ->
+                    queriedTable.getWhere(jwtParams, queriedTable == table ? extraCondition : null))
+            .collect(PreparedQuery.collectorWithAnd()));
+  }
+
+  private String buildQuery(DatasourceConfig.DBType dbType, PreparedQuery wherePreparedQuery) {
     PreparedQuery preparedQuery =
         PreparedQuery.create()
             .merge(
@@ -61,8 +101,6 @@ public class Query {
                     table.sqlString(),
                     leftJoins.stream().map(LeftJoin::sqlString).collect(Collectors.joining(" "))));
 
-    PreparedQuery wherePreparedQuery =
-        queriedTables.stream().map(Table::getWhere).collect(PreparedQuery.collectorWithAnd());
     String orderBySqlString = table.getOrderBy();
     String limitSqlString = table.getLimit();
     String offsetSqlString = table.getOffset();
@@ -0,0 +1,90 @@
+package dev.fastgql.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Counts SQL statements executed by all {@link QueryExecutor}s, so that number of statements per
+ * GraphQL operation can be measured, and records their latency and number of rows in {@link
+ * MeterRegistry}, tagged with table the statement reads from or writes to.
+ */
+@Singleton
+public class QueryExecutorStats {
+
+  private static final Pattern TABLE_PATTERN =
+      Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+  private static final String NO_TABLE = "none";
+
+  private final MeterRegistry meterRegistry;
+  private final AtomicLong executedCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+
+  @Inject
+  public QueryExecutorStats(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Get table of given statement: the first table it selects from, inserts into or updates, or
+   * {@value #NO_TABLE} for statements like BEGIN or COMMIT.
+   *
+   * @param query SQL statement
+   * @return table name
+   */
+  static String getTableName(String query) {
+    Matcher matcher = TABLE_PATTERN.matcher(query);
+    return matcher.find() ? matcher.group(1) : NO_TABLE;
+  }
+
+  private Timer statementTimer(String query, String outcome) {
+    return Timer.builder("fastgql.sql.statements")
+        .description("Latency of SQL statements")
+        .tag("table", getTableName(query))
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records statement which was executed successfully.
+   *
+   * @param query SQL statement
+   * @param durationNanos time from sending statement to receiving its result
+   * @param rowCount number of rows returned or affected by statement
+   */
+  public void onExecuted(String query, long durationNanos, int rowCount) {
+    executedCount.incrementAndGet();
+    statementTimer(query, "success").record(durationNanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("fastgql.sql.rows")
+        .description("Rows returned or affected by SQL statements")
+        .tag("table", getTableName(query))
+        .register(meterRegistry)
+        .record(rowCount);
+  }
+
+  /**
+   * Records statement which failed.
+   *
+   * @param query SQL statement
+   * @param durationNanos time from sending statement to receiving error
+   */
+  public void onFailed(String query, long durationNanos) {
+    failedCount.incrementAndGet();
+    statementTimer(query, "error").record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public long getExecutedCount() {
+    return executedCount.get();
+  }
+
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+}
@@ -1,8 +1,10 @@
 package dev.fastgql.sql;
 
+import dev.fastgql.common.KeyType;
 import dev.fastgql.common.ReferenceType;
 import dev.fastgql.common.RelationalOperator;
 import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.OpType;
 import dev.fastgql.dsl.RoleSpec;
 import dev.fastgql.graphql.GraphQLDatabaseSchema;
 import dev.fastgql.graphql.GraphQLField;
@@ -10,7 +12,9 @@ import graphql.language.Field;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.vertx.reactivex.sqlclient.Row;
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
@@ -20,6 +24,14 @@ import java.util.stream.Stream;
 
 public class QueryFunctions {
 
+  private static final Object UNGROUPED = new Object();
+
+  /** Executes query of one level with JWT params of current request and given extra condition. */
+  @FunctionalInterface
+  private interface QueryExecutorConditionFunction<T> {
+    T apply(QueryExecutor queryExecutor, Map<String, Object> jwtParams, Condition extraCondition);
+  }
+
   private final GraphQLDatabaseSchema graphQLDatabaseSchema;
   private final RoleSpec roleSpec;
   private final Map<String, Object> jwtParams;
@@ -29,6 +41,8 @@ public class QueryFunctions {
   private final DatasourceConfig.DBType dbType;
   private final Set<TableAlias> tableAliasesFromArguments = new HashSet<>();
   private final Set<TableAlias> tableAliasesFromQuery = new HashSet<>();
+  private final boolean batchReferenced;
+  private final boolean streamingEnabled;
 
   public QueryFunctions(
       GraphQLDatabaseSchema graphQLDatabaseSchema,
@@ -36,7 +50,8 @@ public class QueryFunctions {
       Map<String, Object> jwtParams,
       Function<Set<TableAlias>, String> tableListLockQueryFunction,
       String unlockQuery,
-      DatasourceConfig.DBType dbType) {
+      DatasourceConfig.DBType dbType,
+      ExecutionConfig executionConfig) {
 
     this.graphQLDatabaseSchema = graphQLDatabaseSchema;
     this.roleSpec = roleSpec;
@@ -45,23 +60,29 @@ public class QueryFunctions {
     this.unlockQuery = unlockQuery;
     this.queriesToExecute = new ArrayList<>();
     this.dbType = dbType;
+    this.batchReferenced = executionConfig.isBatchReferenced();
+    this.streamingEnabled = executionConfig.getStreamFetchSize() > 0;
   }
 
-  private RowExecutor createExecutorForColumn(Table table, GraphQLField graphQLField, Query query) {
+  private RowListExecutor createExecutorForColumn(
+      Table table, GraphQLField graphQLField, Query query) {
     String columnName = graphQLField.getQualifiedName().getKeyName();
     if (!table.isColumnAllowed(columnName)) {
       throw new RuntimeException(
           String.format(
               "No permission to access column %s of table %s", columnName, table.getTableName()));
     }
-    SelectColumn selectColumn = query.addSelectColumn(table, columnName);
-    return (queryExecutor, row) -> {
-      Object value = row == null ? null : row.getValue(selectColumn.getResultAlias());
-      return value == null ? Maybe.empty() : Maybe.just(Map.entry(columnName, value));
-    };
+    int index = query.addSelectColumn(table, columnName).getIndex();
+    return RowListExecutor.of(
+        (row, response) -> {
+          Object value = row.getValue(index);
+          if (value != null) {
+            response.put(columnName, value);
+          }
+        });
   }
 
-  private RowExecutor createExecutorForReferencing(
+  private RowListExecutor createExecutorForReferencing(
       Table table,
       Field field,
       GraphQLField graphQLField,
@@ -82,21 +103,43 @@ public class QueryFunctions {
             new Arguments(),
             null,
             jwtParams,
-            newPathInQuery);
+            newPathInQuery,
+            dbType);
     SelectColumn selectColumnReferencing =
         query.addLeftJoin(table, columnName, foreignTable, foreignColumnName);
-    List<RowExecutor> executors =
+    List<RowListExecutor> executors =
         createExecutors(foreignTable, field, query, pathInQueryToAlias, newPathInQuery);
-    return (queryExecutor, row) -> {
-      Object value = row.getValue(selectColumnReferencing.getResultAlias());
-      return value == null
-          ? Maybe.empty()
-          : createResponseForRow(queryExecutor, executors, row)
-              .map(result -> Map.entry(field.getName(), result));
-    };
+    int index = selectColumnReferencing.getIndex();
+    List<RowMapper> rowMappers = getRowMappers(executors);
+    if (rowMappers != null) {
+      return RowListExecutor.of(
+          (row, response) -> {
+            if (row.getValue(index) != null) {
+              Map<String, Object> result = mapRow(rowMappers, row);
+              if (!result.isEmpty()) {
+                response.put(field.getName(), result);
+              }
+            }
+          });
+    }
+    return (queryExecutor, jwtParams, rows) ->
+        bindExecutors(
+                queryExecutor,
+                jwtParams,
+                executors,
+                rows.stream()
+                    .filter(row -> row.getValue(index) != null)
+                    .collect(Collectors.toList()))
+            .map(
+                rowExecutors ->
+                    (rowQueryExecutor, row) ->
+                        row.getValue(index) == null
+                            ? Maybe.empty()
+                            : createResponseForRow(rowQueryExecutor, rowExecutors, row)
+                                .map(result -> Map.entry(field.getName(), result)));
   }
 
-  private RowExecutor createExecutorForReferenced(
+  private RowListExecutor createExecutorForReferenced(
       Table table,
       Field field,
       GraphQLField graphQLField,
@@ -108,27 +151,131 @@ public class QueryFunctions {
     String foreignTableName = graphQLField.getForeignName().getTableName();
     String foreignColumnName = graphQLField.getForeignName().getKeyName();
     SelectColumn selectColumn = query.addSelectColumn(table, columnName);
+    int index = selectColumn.getIndex();
 
     String newPathInQuery = String.format("%s/%s", pathInQuery, field.getName());
 
+    if (batchReferenced && !hasLimitOrOffset(field)) {
+      return createBatchExecutorForReferenced(
+          field,
+          selectColumn,
+          foreignTableName,
+          foreignColumnName,
+          pathInQueryToAlias,
+          newPathInQuery);
+    }
+
     Condition placeholderExtraCondition =
         new Condition(foreignColumnName, RelationalOperator._eq, jwtParams -> new Object());
 
-    BiFunction<QueryExecutor, Condition, Maybe<List<Map<String, Object>>>> conditionSingleFunction =
+    QueryExecutorConditionFunction<Maybe<List<Map<String, Object>>>> conditionSingleFunction =
         queryExecutorConditionResponseFunction(
             foreignTableName, field, placeholderExtraCondition, pathInQueryToAlias, newPathInQuery);
 
-    return (queryExecutor, row) -> {
-      Object value = row.getValue(selectColumn.getResultAlias());
-      return value == null
-          ? Maybe.empty()
-          : conditionSingleFunction
-              .apply(queryExecutor, ConditionUtils.checkColumnIsEqValue(foreignColumnName, value))
-              .map(result -> Map.entry(field.getName(), result));
+    return (queryExecutor, jwtParams, rows) ->
+        Single.just(
+            (rowQueryExecutor, row) -> {
+              Object value = row.getValue(index);
+              return value == null
+                  ? Maybe.empty()
+                  : conditionSingleFunction
+                      .apply(
+                          rowQueryExecutor,
+                          jwtParams,
+                          ConditionUtils.checkColumnIsEqValue(foreignColumnName, value))
+                      .map(result -> Map.entry(field.getName(), result));
+            });
+  }
+
+  /**
+   * Creates executor which fetches referenced rows for all parent rows with single query ({@code =
+   * ANY($1)} on Postgres, {@code IN (...)} on MySQL) and then groups them by foreign key. Queries
+   * with limit or offset on referenced field are not batched, since those apply per parent row.
+   */
+  private RowListExecutor createBatchExecutorForReferenced(
+      Field field,
+      SelectColumn selectColumn,
+      String foreignTableName,
+      String foreignColumnName,
+      Map<String, String> pathInQueryToAlias,
+      String pathInQuery) {
+
+    Condition placeholderExtraCondition =
+        ConditionUtils.checkColumnIsInValues(foreignColumnName, List.of(new Object()), dbType);
+
+    QueryExecutorConditionFunction<Single<Map<Object, List<Map<String, Object>>>>>
+        conditionGroupedSingleFunction =
+            queryExecutorConditionGroupedResponseFunction(
+                foreignTableName,
+                field,
+                placeholderExtraCondition,
+                foreignColumnName,
+                pathInQueryToAlias,
+                pathInQuery);
+
+    int index = selectColumn.getIndex();
+    return (queryExecutor, jwtParams, rows) -> {
+      List<Object> values =
+          rows.stream()
+              .map(row -> row.getValue(index))
+              .filter(Objects::nonNull)
+              .distinct()
+              .collect(Collectors.toList());
+      if (values.isEmpty()) {
+        return Single.just((rowQueryExecutor, row) -> Maybe.empty());
+      }
+      return conditionGroupedSingleFunction
+          .apply(
+              queryExecutor,
+              jwtParams,
+              ConditionUtils.checkColumnIsInValues(foreignColumnName, values, dbType))
+          .map(
+              grouped ->
+                  (rowQueryExecutor, row) -> {
+                    Object value = row.getValue(index);
+                    List<Map<String, Object>> result =
+                        value == null ? null : grouped.get(groupKey(value));
+                    return result == null
+                        ? Maybe.empty()
+                        : Maybe.just(Map.entry(field.getName(), result));
+                  });
     };
   }
 
-  private List<RowExecutor> createExecutors(
+  /**
+   * Normalizes value of key column used to group referenced rows and to look them up, since foreign
+   * key and the key it references can have different types, like {@code int} and {@code bigint},
+   * which are read as different classes. Integral numbers are converted to {@link Long}, other
+   * numbers to {@link BigDecimal} without trailing zeros.
+   */
+  private static Object groupKey(Object value) {
+    if (value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Number) {
+      BigDecimal decimal;
+      try {
+        decimal = new BigDecimal(value.toString()).stripTrailingZeros();
+      } catch (NumberFormatException e) {
+        return value;
+      }
+      return decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19
+          ? (Object) decimal.longValue()
+          : decimal;
+    }
+    return value;
+  }
+
+  private static boolean hasLimitOrOffset(Field field) {
+    return field.getArguments().stream()
+        .anyMatch(
+            argument -> argument.getName().equals("limit") || argument.getName().equals("offset"));
+  }
+
+  private List<RowListExecutor> createExecutors(
       Table table,
       Field field,
       Query query,
@@ -208,13 +355,91 @@ public class QueryFunctions {
         .filter(map -> !map.isEmpty());
   }
 
-  private BiFunction<QueryExecutor, Condition, Maybe<List<Map<String, Object>>>>
+  /**
+   * Gets mappers of all given executors, or null if any of them needs to execute queries, in which
+   * case rows have to be mapped with {@link #createResponseForRow(QueryExecutor, List, Row)}.
+   */
+  private static List<RowMapper> getRowMappers(List<RowListExecutor> executorList) {
+    List<RowMapper> rowMappers = new ArrayList<>(executorList.size());
+    for (RowListExecutor rowListExecutor : executorList) {
+      RowMapper rowMapper = rowListExecutor.getRowMapper();
+      if (rowMapper == null) {
+        return null;
+      }
+      rowMappers.add(rowMapper);
+    }
+    return rowMappers;
+  }
+
+  private static Map<String, Object> mapRow(List<RowMapper> rowMappers, Row row) {
+    Map<String, Object> response = new HashMap<>(rowMappers.size() * 4 / 3 + 1);
+    for (RowMapper rowMapper : rowMappers) {
+      rowMapper.map(row, response);
+    }
+    return response;
+  }
+
+  /**
+   * Maps rows synchronously and groups non-empty responses like {@link
+   * #queryExecutorConditionGroupedResponseFunction}.
+   */
+  private static Map<Object, List<Map<String, Object>>> mapRows(
+      Iterable<Row> rows, List<RowMapper> rowMappers, int groupByIndex) {
+    Map<Object, List<Map<String, Object>>> grouped = new LinkedHashMap<>();
+    for (Row row : rows) {
+      Map<String, Object> response = mapRow(rowMappers, row);
+      if (!response.isEmpty()) {
+        grouped
+            .computeIfAbsent(
+                groupByIndex < 0 ? UNGROUPED : groupKey(row.getValue(groupByIndex)),
+                key -> new ArrayList<>())
+            .add(response);
+      }
+    }
+    return grouped;
+  }
+
+  private static Single<List<RowExecutor>> bindExecutors(
+      QueryExecutor queryExecutor,
+      Map<String, Object> jwtParams,
+      List<RowListExecutor> executorList,
+      List<Row> rows) {
+    return Observable.fromIterable(executorList)
+        .concatMapSingle(rowListExecutor -> rowListExecutor.apply(queryExecutor, jwtParams, rows))
+        .toList();
+  }
+
+  private QueryExecutorConditionFunction<Maybe<List<Map<String, Object>>>>
       queryExecutorConditionResponseFunction(
           String tableName,
           Field field,
           Condition extraConditionPlaceholder,
           Map<String, String> pathInQueryToAlias,
           String pathInQuery) {
+    QueryExecutorConditionFunction<Single<Map<Object, List<Map<String, Object>>>>>
+        groupedResponseFunction =
+            queryExecutorConditionGroupedResponseFunction(
+                tableName, field, extraConditionPlaceholder, null, pathInQueryToAlias, pathInQuery);
+    return (queryExecutor, jwtParams, extraCondition) ->
+        groupedResponseFunction
+            .apply(queryExecutor, jwtParams, extraCondition)
+            .map(grouped -> grouped.getOrDefault(UNGROUPED, List.of()))
+            .filter(list -> !list.isEmpty());
+  }
+
+  /**
+   * Creates function executing query for given table and mapping its rows to responses. If {@code
+   * groupByColumnName} is not null, responses are grouped by value of this column, otherwise all
+   * responses are put under {@link #UNGROUPED} key.
+   */
+  private QueryExecutorConditionFunction<Single<Map<Object, List<Map<String, Object>>>>>
+      queryExecutorConditionGroupedResponseFunction(
+          String tableName,
+          Field field,
+          Condition extraConditionPlaceholder,
+          String groupByColumnName,
+          Map<String, String> pathInQueryToAlias,
+          String pathInQuery) {
 
     String tableAlias = pathInQueryToAlias.get(pathInQuery);
 
@@ -240,27 +465,132 @@ public class QueryFunctions {
             arguments,
             extraConditionPlaceholder,
             jwtParams,
-            pathInQuery);
+            pathInQuery,
+            dbType);
 
     Query query = new Query(table);
-    List<RowExecutor> executorList =
+    List<RowListExecutor> executorList =
         createExecutors(query.getTable(), field, query, pathInQueryToAlias, pathInQuery);
+    // levels without referenced fields are mapped synchronously, without creating Rx graph per row
+    List<RowMapper> rowMappers = getRowMappers(executorList);
+    int groupByIndex =
+        groupByColumnName == null ? -1 : query.addSelectColumn(table, groupByColumnName).getIndex();
 
     String queryString = query.buildQuery(dbType);
     queriesToExecute.add(queryString);
 
-    return (queryExecutor, extraCondition) -> {
-      table.setExtraCondition(extraCondition);
-      List<Object> params = query.buildParams();
+    // on MySQL number of placeholders in IN (...) depends on number of values, so query has to be
+    // rebuilt for every batch, same as for permissions with lists from JWT params
+    boolean rebuildQuery =
+        (groupByColumnName != null && dbType != DatasourceConfig.DBType.postgresql)
+            || !query.isWhereFixed();
+
+    return (queryExecutor, jwtParams, extraCondition) -> {
+      String currentQueryString =
+          rebuildQuery ? query.buildQuery(dbType, jwtParams, extraCondition) : queryString;
+      List<Object> params = query.buildParams(jwtParams, extraCondition);
       return queryExecutor
-          .apply(queryString, params)
-          .flatMapObservable(Observable::fromIterable)
-          .flatMapMaybe(row -> createResponseForRow(queryExecutor, executorList, row))
-          .toList()
-          .filter(list -> !list.isEmpty());
+          .apply(currentQueryString, params)
+          .flatMap(
+              rowSet -> {
+                if (rowMappers != null) {
+                  return Single.just(mapRows(rowSet, rowMappers, groupByIndex));
+                }
+                List<Row> rows = new ArrayList<>(rowSet.size());
+                rowSet.forEach(rows::add);
+                return bindExecutors(queryExecutor, jwtParams, executorList, rows)
+                    .flatMap(
+                        rowExecutors ->
+                            Observable.fromIterable(rows)
+                                .concatMapEager(
+                                    row ->
+                                        createResponseForRow(queryExecutor, rowExecutors, row)
+                                            .map(
+                                                response ->
+                                                    Map.entry(
+                                                        groupByIndex < 0
+                                                            ? UNGROUPED
+                                                            : groupKey(row.getValue(groupByIndex)),
+                                                        response))
+                                            .toObservable())
+                                .collect(
+                                    () ->
+                                        (Map<Object, List<Map<String, Object>>>)
+                                            new LinkedHashMap<Object, List<Map<String, Object>>>(),
+                                    (grouped, entry) ->
+                                        grouped
+                                            .computeIfAbsent(
+                                                entry.getKey(), key -> new ArrayList<>())
+                                            .add(entry.getValue())));
+              });
     };
   }
 
+  /**
+   * Checks whether rows of given field can be mapped to responses one by one: all nested fields, at
+   * any depth, are columns or many-to-one relationships joined into the same SQL query, and none of
+   * them is a fragment, has directives or is an introspection field.
+   */
+  private boolean isStreamable(String tableName, Field field) {
+    return field.getSelectionSet().getSelections().stream()
+        .allMatch(
+            selection -> {
+              if (!(selection instanceof Field) || !((Field) selection).getDirectives().isEmpty()) {
+                return false;
+              }
+              Field subField = (Field) selection;
+              GraphQLField graphQLField =
+                  graphQLDatabaseSchema.fieldAt(tableName, subField.getName());
+              if (graphQLField == null) {
+                return false;
+              }
+              switch (graphQLField.getReferenceType()) {
+                case NONE:
+                  return true;
+                case REFERENCING:
+                  return isStreamable(graphQLField.getForeignName().getTableName(), subField);
+                default:
+                  return false;
+              }
+            });
+  }
+
+  /**
+   * Creates plan reading rows of given root field with single SQL query and mapping each of them to
+   * response as soon as it is read.
+   */
+  private StreamPlan createStreamPlan(
+      Field field, Map<String, String> pathInQueryToAlias, String lockQuery, String unlockQuery) {
+    String tableName = field.getName();
+    String tableAlias = pathInQueryToAlias.get(tableName);
+    Table table =
+        new Table(
+            tableName,
+            tableAlias,
+            roleSpec,
+            new Arguments(field.getArguments(), tableName, tableAlias, graphQLDatabaseSchema),
+            null,
+            jwtParams,
+            tableName,
+            dbType);
+    Query query = new Query(table);
+    List<RowListExecutor> executorList =
+        createExecutors(table, field, query, pathInQueryToAlias, tableName);
+    // executors of columns and joined tables do not execute queries, so rows can be mapped as they
+    // are read
+    List<RowMapper> rowMappers = getRowMappers(executorList);
+    String queryString = query.buildQuery(dbType);
+    return new StreamPlan(
+        query.isWhereFixed()
+            ? requestJwtParams -> queryString
+            : requestJwtParams -> query.buildQuery(dbType, requestJwtParams, null),
+        requestJwtParams -> query.buildParams(requestJwtParams, null),
+        lockQuery,
+        unlockQuery,
+        (rows, requestJwtParams) ->
+            rows.map(row -> mapRow(rowMappers, row)).filter(response -> !response.isEmpty()));
+  }
+
   public List<String> createQueriesToExecute(Field field) {
     Map<String, TableAlias> pathInQueryToTableAlias = createPathInQueryToTableAlias(field);
     Map<String, String> pathInQueryToAlias = createPathInQueryToAlias(pathInQueryToTableAlias);
@@ -277,7 +607,7 @@ public class QueryFunctions {
         Stream.of(
                 List.of(unlockQuery == null ? "" : unlockQuery),
                 queriesToExecute,
-                List.of(tableLockQueryString))
+                List.of(tableLockQueryString == null ? "" : tableLockQueryString))
             .flatMap(List::stream)
             .filter(query -> !query.isEmpty())
             .collect(Collectors.toList());
@@ -303,6 +633,19 @@ public class QueryFunctions {
 
   public ExecutionDefinition<List<Map<String, Object>>> createExecutionDefinition(
       Field field, boolean lockTables) {
+    return createQueryPlan(field, lockTables).bind(jwtParams);
+  }
+
+  /**
+   * Compiles query for given field. SQL queries are built once here, and only their params are
+   * created for each execution of returned plan, so the plan can be reused for all requests with
+   * the same field and role.
+   *
+   * @param field root field of the query
+   * @param lockTables whether queried tables should be locked before executing the query
+   * @return compiled query plan
+   */
+  public QueryPlan createQueryPlan(Field field, boolean lockTables) {
 
     Map<String, TableAlias> pathInQueryToTableAlias = createPathInQueryToTableAlias(field);
     Map<String, String> pathInQueryToAlias = createPathInQueryToAlias(pathInQueryToTableAlias);
@@ -311,40 +654,82 @@ public class QueryFunctions {
     queriesToExecute.clear();
     tableAliasesFromArguments.clear();
 
-    BiFunction<QueryExecutor, Condition, Maybe<List<Map<String, Object>>>>
-        queryResultSingleFunction =
-            queryExecutorConditionResponseFunction(
-                field.getName(), field, null, pathInQueryToAlias, field.getName());
+    QueryExecutorConditionFunction<Maybe<List<Map<String, Object>>>> queryResultSingleFunction =
+        queryExecutorConditionResponseFunction(
+            field.getName(), field, null, pathInQueryToAlias, field.getName());
 
     tableAliases.addAll(tableAliasesFromArguments);
 
     String tableLockQueryString = tableListLockQueryFunction.apply(tableAliases);
     String tableUnlockQueryString = unlockQuery;
 
-    Function<QueryExecutor, Maybe<List<Map<String, Object>>>> queryExecutorResponseFunction =
-        queryExecutor -> {
-          Completable tableLockCompletable =
-              queryExecutor.apply(tableLockQueryString).ignoreElement();
-          Completable tableUnlockCompletable =
-              tableUnlockQueryString == null
-                  ? Completable.complete()
-                  : queryExecutor.apply(tableUnlockQueryString).ignoreElement();
-
-          Maybe<List<Map<String, Object>>> queryResultSingle =
-              queryResultSingleFunction.apply(queryExecutor, null);
-
-          return tableLockQueryString == null || !lockTables
-              ? queryResultSingle
-              : tableLockCompletable
-                  .andThen(queryResultSingle)
-                  .flatMap(result -> tableUnlockCompletable.andThen(Maybe.just(result)));
-        };
+    BiFunction<QueryExecutor, Map<String, Object>, Maybe<List<Map<String, Object>>>>
+        queryExecutorResponseFunction =
+            (queryExecutor, requestJwtParams) -> {
+              Completable tableLockCompletable =
+                  queryExecutor.apply(tableLockQueryString).ignoreElement();
+              Completable tableUnlockCompletable =
+                  tableUnlockQueryString == null
+                      ? Completable.complete()
+                      : queryExecutor.apply(tableUnlockQueryString).ignoreElement();
+
+              Maybe<List<Map<String, Object>>> queryResultSingle =
+                  queryResultSingleFunction.apply(queryExecutor, requestJwtParams, null);
+
+              return tableLockQueryString == null || !lockTables
+                  ? queryResultSingle
+                  : tableLockCompletable
+                      .andThen(queryResultSingle)
+                      .flatMap(result -> tableUnlockCompletable.andThen(Maybe.just(result)));
+            };
 
     Set<String> queriedTables =
         pathInQueryToTableAlias.values().stream()
             .map(TableAlias::getTableName)
             .collect(Collectors.toSet());
 
-    return new ExecutionDefinition<>(queryExecutorResponseFunction, queriedTables);
+    String rootAlias = pathInQueryToAlias.get(field.getName());
+    List<Condition> rootConditions =
+        Stream.of(
+                roleSpec.getTable(field.getName()).getOp(OpType.select).getCondition(),
+                new Arguments(
+                        field.getArguments(), field.getName(), rootAlias, graphQLDatabaseSchema)
+                    .getCondition())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    boolean rootTableQueriedOnce =
+        Stream.concat(
+                    tableAliases.stream(),
+                    queriedTables.stream()
+                        .map(
+                            tableName ->
+                                roleSpec.getTable(tableName).getOp(OpType.select).getCondition())
+                        .filter(Objects::nonNull)
+                        .flatMap(
+                            condition ->
+                                ConditionUtils.conditionToTableAliasSet(condition, "").stream()))
+                .filter(tableAlias -> tableAlias.getTableName().equals(field.getName()))
+                .count()
+            == 1;
+
+    StreamPlan streamPlan =
+        streamingEnabled && isStreamable(field.getName(), field)
+            ? createStreamPlan(
+                field,
+                pathInQueryToAlias,
+                lockTables ? tableLockQueryString : null,
+                lockTables && tableLockQueryString != null ? tableUnlockQueryString : null)
+            : null;
+
+    return new QueryPlan(
+        queryExecutorResponseFunction,
+        queriedTables,
+        queriesToExecute.size() == 1,
+        rootTableQueriedOnce ? field.getName() : null,
+        rootConditions,
+        dbType == DatasourceConfig.DBType.postgresql
+            ? graphQLDatabaseSchema.getColumnsOfType(field.getName(), KeyType.STRING)
+            : Set.of(),
+        streamPlan);
   }
 }
@@ -0,0 +1,95 @@
+package dev.fastgql.sql;
+
+import io.reactivex.Maybe;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Compiled query for single root field. It does not depend on JWT params of the request it was
+ * compiled for, those are bound for every execution with {@link #bind(Map)}.
+ */
+public class QueryPlan {
+  private final BiFunction<QueryExecutor, Map<String, Object>, Maybe<List<Map<String, Object>>>>
+      queryExecutorResponseFunction;
+  private final Set<String> queriedTables;
+  private final boolean singleQuery;
+  private final String rootTable;
+  private final List<Condition> rootConditions;
+  private final Set<String> stringColumns;
+  private final StreamPlan streamPlan;
+
+  QueryPlan(
+      BiFunction<QueryExecutor, Map<String, Object>, Maybe<List<Map<String, Object>>>>
+          queryExecutorResponseFunction,
+      Set<String> queriedTables,
+      boolean singleQuery) {
+    this(
+        queryExecutorResponseFunction, queriedTables, singleQuery, null, List.of(), Set.of(), null);
+  }
+
+  QueryPlan(
+      BiFunction<QueryExecutor, Map<String, Object>, Maybe<List<Map<String, Object>>>>
+          queryExecutorResponseFunction,
+      Set<String> queriedTables,
+      boolean singleQuery,
+      String rootTable,
+      List<Condition> rootConditions,
+      Set<String> stringColumns,
+      StreamPlan streamPlan) {
+    this.queryExecutorResponseFunction = queryExecutorResponseFunction;
+    this.queriedTables = queriedTables;
+    this.singleQuery = singleQuery;
+    this.rootTable = rootTable;
+    this.rootConditions = rootConditions;
+    this.stringColumns = stringColumns;
+    this.streamPlan = streamPlan;
+  }
+
+  public ExecutionDefinition<List<Map<String, Object>>> bind(Map<String, Object> jwtParams) {
+    return new ExecutionDefinition<>(
+        queryExecutor -> queryExecutorResponseFunction.apply(queryExecutor, jwtParams),
+        queriedTables,
+        singleQuery);
+  }
+
+  public Set<String> getQueriedTables() {
+    return queriedTables;
+  }
+
+  /**
+   * Returns table of root field, if it is not queried anywhere else in the plan, so that its rows
+   * only affect result through conditions checked by {@link #mayMatchRootRow(Map, Map)}.
+   *
+   * @return name of root table, or null if it is queried more than once
+   */
+  public String getRootTable() {
+    return rootTable;
+  }
+
+  /**
+   * Checks whether given row of root table may match conditions of root field, from permissions and
+   * arguments. Conditions which cannot be evaluated in memory, like ones referencing other tables
+   * or columns missing in given row, are assumed to match.
+   *
+   * @param row values of columns of the row, by column name
+   * @param jwtParams JWT params of the request
+   * @return false if the row certainly does not match conditions of root field
+   */
+  public boolean mayMatchRootRow(Map<String, Object> row, Map<String, Object> jwtParams) {
+    return rootConditions.stream()
+        .map(condition -> ConditionEvaluator.evaluate(condition, row, jwtParams, stringColumns))
+        .noneMatch(Boolean.FALSE::equals);
+  }
+
+  /**
+   * Returns plan streaming rows of root field, compiled only if streaming is enabled in {@link
+   * ExecutionConfig} and the field can be streamed.
+   *
+   * @return stream plan, or null if the field cannot be streamed
+   */
+  public StreamPlan getStreamPlan() {
+    return streamPlan;
+  }
+}
@@ -0,0 +1,148 @@
+package dev.fastgql.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.RoleSpec;
+import dev.fastgql.graphql.GraphQLDatabaseSchema;
+import graphql.language.AstPrinter;
+import graphql.language.Field;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Bounded cache of compiled {@link QueryPlan}, keyed by printed root field, role, version of
+ * permissions and database type. Schema and role are compared by identity, so plans compiled before
+ * update of schema or permissions are never reused, and {@link #invalidateAll()} drops them right
+ * away. Plans of older permissions are also dropped once plan of newer version is requested.
+ */
+@Singleton
+public class QueryPlanCache {
+  private final Cache<Key, QueryPlan> cache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong permissionsVersion = new AtomicLong();
+
+  @Inject
+  public QueryPlanCache(ExecutionConfig executionConfig) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(executionConfig.getPlanCacheSize()).build();
+  }
+
+  /**
+   * Gets plan from cache or compiles it with given supplier if it is not there.
+   *
+   * @param graphQLDatabaseSchema schema the plan is compiled against
+   * @param permissionsVersion version of permissions containing the role
+   * @param roleSpec permissions of the role of current user
+   * @param dbType database type
+   * @param field root field of the query
+   * @param lockTables whether queried tables are locked by the plan
+   * @param queryPlanSupplier compiles the plan on cache miss
+   * @return query plan
+   */
+  public QueryPlan get(
+      GraphQLDatabaseSchema graphQLDatabaseSchema,
+      long permissionsVersion,
+      RoleSpec roleSpec,
+      DatasourceConfig.DBType dbType,
+      Field field,
+      boolean lockTables,
+      Supplier<QueryPlan> queryPlanSupplier) {
+    long latestPermissionsVersion =
+        this.permissionsVersion.getAndAccumulate(permissionsVersion, Math::max);
+    if (permissionsVersion > latestPermissionsVersion) {
+      cache.invalidateAll();
+    }
+    Key key =
+        new Key(
+            graphQLDatabaseSchema,
+            permissionsVersion,
+            roleSpec,
+            dbType,
+            AstPrinter.printAst(field),
+            lockTables);
+    QueryPlan queryPlan = cache.getIfPresent(key);
+    if (queryPlan != null) {
+      hitCount.incrementAndGet();
+      return queryPlan;
+    }
+    missCount.incrementAndGet();
+    queryPlan = queryPlanSupplier.get();
+    // request which read permissions before update would otherwise keep outdated plan in cache
+    if (permissionsVersion >= this.permissionsVersion.get()) {
+      cache.put(key, queryPlan);
+    }
+    return queryPlan;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static class Key {
+    private final GraphQLDatabaseSchema graphQLDatabaseSchema;
+    private final long permissionsVersion;
+    private final RoleSpec roleSpec;
+    private final DatasourceConfig.DBType dbType;
+    private final String field;
+    private final boolean lockTables;
+
+    private Key(
+        GraphQLDatabaseSchema graphQLDatabaseSchema,
+        long permissionsVersion,
+        RoleSpec roleSpec,
+        DatasourceConfig.DBType dbType,
+        String field,
+        boolean lockTables) {
+      this.graphQLDatabaseSchema = graphQLDatabaseSchema;
+      this.permissionsVersion = permissionsVersion;
+      this.roleSpec = roleSpec;
+      this.dbType = dbType;
+      this.field = field;
+      this.lockTables = lockTables;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return graphQLDatabaseSchema == key.graphQLDatabaseSchema
+          && permissionsVersion == key.permissionsVersion
+          && roleSpec == key.roleSpec
+          && dbType == key.dbType
+          && lockTables == key.lockTables
+          && field.equals(key.field);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          System.identityHashCode(graphQLDatabaseSchema),
+          permissionsVersion,
+          System.identityHashCode(roleSpec),
+          dbType,
+          field,
+          lockTables);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package dev.fastgql.sql;
+
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.reactivex.sqlclient.Row;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares {@link RowExecutor} for all rows returned on one level of the query, which allows
+ * executing queries for nested fields once per level instead of once per row.
+ */
+@FunctionalInterface
+public interface RowListExecutor {
+  Single<RowExecutor> apply(
+      QueryExecutor queryExecutor, Map<String, Object> jwtParams, List<Row> rows);
+
+  /**
+   * Gets mapper of rows if this executor does not need to execute any queries, in which case rows
+   * can be mapped synchronously.
+   *
+   * @return row mapper or null
+   */
+  default RowMapper getRowMapper() {
+    return null;
+  }
+
+  static RowListExecutor of(RowExecutor rowExecutor) {
+    Single<RowExecutor> rowExecutorSingle = Single.just(rowExecutor);
+    return (queryExecutor, jwtParams, rows) -> rowExecutorSingle;
+  }
+
+  static RowListExecutor of(RowMapper rowMapper) {
+    Single<RowExecutor> rowExecutorSingle =
+        Single.just(
+            (queryExecutor, row) -> {
+              Map<String, Object> response = new HashMap<>(2);
+              rowMapper.map(row, response);
+              return response.isEmpty()
+                  ? Maybe.empty()
+                  : Maybe.just(response.entrySet().iterator().next());
+            });
+    return new RowListExecutor() {
+      @Override
+      public Single<RowExecutor> apply(
+          QueryExecutor queryExecutor, Map<String, Object> jwtParams, List<Row> rows) {
+        return rowExecutorSingle;
+      }
+
+      @Override
+      public RowMapper getRowMapper() {
+        return rowMapper;
+      }
+    };
+  }
+}
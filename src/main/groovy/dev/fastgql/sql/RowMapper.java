@@ -0,0 +1,13 @@
+package dev.fastgql.sql;
+
+import io.vertx.reactivex.sqlclient.Row;
+import java.util.Map;
+
+/**
+ * Synchronous counterpart of {@link RowExecutor} for fields which are read from the row itself
+ * (columns and joined referencing tables), putting their value directly into response of the row.
+ */
+@FunctionalInterface
+public interface RowMapper {
+  void map(Row row, Map<String, Object> response);
+}
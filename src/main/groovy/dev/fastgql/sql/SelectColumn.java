@@ -4,17 +4,20 @@ public class SelectColumn {
   private final String tableAlias;
   private final String columnName;
   private final String resultAlias;
+  private final int index;
 
-  SelectColumn(Table table, String columnName, String resultAlias) {
+  SelectColumn(Table table, String columnName, String resultAlias, int index) {
     this.tableAlias = table.getTableAlias();
     this.columnName = columnName;
     this.resultAlias = resultAlias;
+    this.index = index;
   }
 
   SelectColumn(String tableAlias, String columnName) {
     this.tableAlias = tableAlias;
     this.columnName = columnName;
     this.resultAlias = null;
+    this.index = -1;
   }
 
   String sqlString() {
@@ -29,6 +32,16 @@ public class SelectColumn {
     return resultAlias;
   }
 
+  /**
+   * Gets position of this column in rows of the query, which is faster to look up than result
+   * alias.
+   *
+   * @return index of the column
+   */
+  public int getIndex() {
+    return index;
+  }
+
   @Override
   public String toString() {
     return "SelectColumn<"
@@ -0,0 +1,83 @@
+package dev.fastgql.sql;
+
+import io.reactivex.Flowable;
+import io.vertx.reactivex.sqlclient.Row;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiled query for root field whose rows can be mapped to responses one by one, as they arrive
+ * from database cursor: all its nested fields are columns or many-to-one relationships joined into
+ * the same SQL query, so no row waits for other rows or for other queries.
+ */
+public class StreamPlan {
+  private final Function<Map<String, Object>, String> queryFunction;
+  private final Function<Map<String, Object>, List<Object>> paramsFunction;
+  private final String lockQuery;
+  private final String unlockQuery;
+  private final BiFunction<Flowable<Row>, Map<String, Object>, Flowable<Map<String, Object>>>
+      responseFunction;
+
+  StreamPlan(
+      Function<Map<String, Object>, String> queryFunction,
+      Function<Map<String, Object>, List<Object>> paramsFunction,
+      String lockQuery,
+      String unlockQuery,
+      BiFunction<Flowable<Row>, Map<String, Object>, Flowable<Map<String, Object>>>
+          responseFunction) {
+    this.queryFunction = queryFunction;
+    this.paramsFunction = paramsFunction;
+    this.lockQuery = lockQuery;
+    this.unlockQuery = unlockQuery;
+    this.responseFunction = responseFunction;
+  }
+
+  /**
+   * Builds query for given request. Query is the same for all requests, unless its permissions
+   * contain lists from JWT params.
+   *
+   * @param jwtParams JWT params of the request
+   * @return SQL query
+   */
+  public String getQuery(Map<String, Object> jwtParams) {
+    return queryFunction.apply(jwtParams);
+  }
+
+  public List<Object> buildParams(Map<String, Object> jwtParams) {
+    return paramsFunction.apply(jwtParams);
+  }
+
+  /**
+   * Query locking queried tables, which has to be executed in the same transaction before {@link
+   * #getQuery(Map)}.
+   *
+   * @return lock query, or null if tables are not locked
+   */
+  public String getLockQuery() {
+    return lockQuery;
+  }
+
+  /**
+   * Query unlocking tables locked by {@link #getLockQuery()}, executed after all rows are read.
+   *
+   * @return unlock query, or null if tables are not locked or are unlocked by commit
+   */
+  public String getUnlockQuery() {
+    return unlockQuery;
+  }
+
+  /**
+   * Maps rows of {@link #getQuery(Map)} to responses in the same order. Rows in which all selected
+   * values are null are skipped, like in responses of {@link QueryPlan}.
+   *
+   * @param rows rows of the query
+   * @param jwtParams JWT params of the request
+   * @return responses of rows
+   */
+  public Flowable<Map<String, Object>> createResponses(
+      Flowable<Row> rows, Map<String, Object> jwtParams) {
+    return responseFunction.apply(rows, jwtParams);
+  }
+}
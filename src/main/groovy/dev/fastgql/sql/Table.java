@@ -1,11 +1,12 @@
 package dev.fastgql.sql;
 
-import dev.fastgql.dsl.OpType;
+import dev.fastgql.db.DatasourceConfig;
 import dev.fastgql.dsl.RoleSpec;
 import dev.fastgql.dsl.TableSpec;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class Table {
@@ -14,13 +15,14 @@ public class Table {
   private final String orderBy;
   private final String limit;
   private final String offset;
-  private final List<String> allowedColumns;
-  private final PreparedQuery conditionFromPermissions;
-  private final PreparedQuery conditionFromArguments;
-  private final List<Object> params;
+  private final TablePermissions tablePermissions;
+  private final DatasourceConfig.DBType dbType;
+  private final Function<Map<String, Object>, PreparedQuery> permissionsWhereFunction;
+  private final PreparedQuery argumentsWhere;
+  private final PreparedQuery keysetWhere;
   private final Map<String, Object> jwtParams;
   private final String pathInQuery;
-  private Condition extraCondition;
+  private final Condition extraCondition;
 
   Table(
       String tableName,
@@ -29,7 +31,8 @@ public class Table {
       Arguments arguments,
       Condition extraCondition,
       Map<String, Object> jwtParams,
-      String pathInQuery) {
+      String pathInQuery,
+      DatasourceConfig.DBType dbType) {
     this.tableName = tableName;
     this.tableAlias = tableAlias;
     if (roleSpec == null) {
@@ -41,25 +44,26 @@ public class Table {
       throw new RuntimeException(
           String.format("User does not have permissions defined for table '%s'", tableName));
     }
-    this.allowedColumns = roleSpec.getTable(tableName).getOp(OpType.select).getAllowed();
+    this.tablePermissions = roleSpec.getTablePermissions(tableName);
+    if (tablePermissions == null) {
+      throw new RuntimeException(
+          String.format("User does not have select permissions on table '%s'", tableName));
+    }
+    this.dbType = dbType;
     this.jwtParams = jwtParams;
-    this.conditionFromPermissions =
-        ConditionUtils.conditionToSQL(
-            roleSpec.getTable(tableName).getOp(OpType.select).getCondition(),
-            tableAlias,
-            jwtParams);
-    this.conditionFromArguments =
+    this.permissionsWhereFunction = tablePermissions.createWhereFunction(tableAlias, dbType);
+    // conditions from arguments do not depend on JWT params, since they are literals of the query
+    this.argumentsWhere =
         arguments.getCondition() == null
             ? PreparedQuery.create()
             : ConditionUtils.conditionToSQL(arguments.getCondition(), tableAlias, jwtParams);
-    this.params =
-        Stream.of(conditionFromPermissions, conditionFromArguments)
-            .flatMap(preparedQuery -> preparedQuery.getParams().stream())
-            .collect(Collectors.toUnmodifiableList());
+    Keyset keyset = arguments.getKeyset();
+    this.keysetWhere = keyset == null ? PreparedQuery.create() : keyset.toPreparedQuery();
     this.orderBy =
         arguments.getOrderByList() == null
             ? ""
-            : OrderByUtils.orderByToSQL(arguments.getOrderByList());
+            : OrderByUtils.orderByToSQL(
+                keyset == null ? arguments.getOrderByList() : keyset.getOrderByList());
     this.limit = arguments.getLimit() == null ? "" : arguments.getLimit().toString();
     this.offset = arguments.getOffset() == null ? "" : arguments.getOffset().toString();
     // this.mockExtraCondition = PreparedQuery.create(mockExtraCondition);
@@ -71,10 +75,6 @@ public class Table {
     return pathInQuery;
   }
 
-  public void setExtraCondition(Condition extraCondition) {
-    this.extraCondition = extraCondition;
-  }
-
   public String getTableName() {
     return tableName;
   }
@@ -83,24 +83,51 @@ public class Table {
     return tableAlias;
   }
 
-  public List<Object> createParams() {
-    return Stream.concat(
-            params.stream(),
-            extraCondition == null
-                ? Stream.of()
-                : ConditionUtils.conditionToSQL(extraCondition, tableAlias, jwtParams)
-                    .getParams()
-                    .stream())
-        .collect(Collectors.toUnmodifiableList());
+  /**
+   * Whether structure of WHERE clause of this table does not depend on JWT params. Value of extra
+   * condition does not change the structure either, unless number of its values does (like for
+   * {@code _in} outside of PostgreSQL).
+   *
+   * @return false if SQL query has to be built with {@link #getWhere(Map, Condition)} for each
+   *     request
+   */
+  public boolean isWhereFixed() {
+    return tablePermissions.isWhereFixed(dbType);
+  }
+
+  /**
+   * Creates params of WHERE clause of this table for given request. If {@link #isWhereFixed()},
+   * params created here match placeholders in SQL query built once with {@link #getWhere()},
+   * otherwise they only match query built for the same request with {@link #getWhere(Map,
+   * Condition)}. Params are created in the same order as in {@link #getWhere(Map, Condition)}.
+   *
+   * @param jwtParams JWT params of current request
+   * @param extraCondition extra condition replacing the one this table was created with
+   * @return list of params
+   */
+  public List<Object> createParams(Map<String, Object> jwtParams, Condition extraCondition) {
+    List<Object> params = new ArrayList<>(permissionsWhereFunction.apply(jwtParams).getParams());
+    params.addAll(argumentsWhere.getParams());
+    if (extraCondition != null) {
+      params.addAll(
+          ConditionUtils.conditionToSQL(extraCondition, tableAlias, jwtParams).getParams());
+    }
+    params.addAll(keysetWhere.getParams());
+    return params;
   }
 
   public PreparedQuery getWhere() {
+    return getWhere(jwtParams, extraCondition);
+  }
+
+  public PreparedQuery getWhere(Map<String, Object> jwtParams, Condition extraCondition) {
     return Stream.of(
-            conditionFromPermissions,
-            conditionFromArguments,
+            permissionsWhereFunction.apply(jwtParams),
+            argumentsWhere,
             extraCondition == null
                 ? PreparedQuery.create()
-                : ConditionUtils.conditionToSQL(extraCondition, tableAlias, jwtParams))
+                : ConditionUtils.conditionToSQL(extraCondition, tableAlias, jwtParams),
+            keysetWhere)
         .collect(PreparedQuery.collectorWithAnd());
   }
 
@@ -117,7 +144,7 @@ public class Table {
   }
 
   public boolean isColumnAllowed(String column) {
-    return allowedColumns.contains(column);
+    return tablePermissions.isColumnAllowed(column);
   }
 
   String sqlString() {
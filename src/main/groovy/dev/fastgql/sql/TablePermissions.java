@@ -0,0 +1,110 @@
+package dev.fastgql.sql;
+
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.TableSpec;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Select permissions of one role on one table, compiled once when permissions are loaded: allowed
+ * columns as a set and condition as SQL with placeholder for table alias, in which params are
+ * functions of JWT params, so that queries only have to apply these functions.
+ */
+public class TablePermissions {
+
+  private static final String TABLE_ALIAS_PLACEHOLDER = "\u0000";
+
+  private final Set<String> allowedColumns;
+  private final Condition condition;
+  private final PreparedQuery conditionTemplate;
+  private final PreparedQuery postgresqlConditionTemplate;
+
+  private TablePermissions(
+      Set<String> allowedColumns,
+      Condition condition,
+      PreparedQuery conditionTemplate,
+      PreparedQuery postgresqlConditionTemplate) {
+    this.allowedColumns = allowedColumns;
+    this.condition = condition;
+    this.conditionTemplate = conditionTemplate;
+    this.postgresqlConditionTemplate = postgresqlConditionTemplate;
+  }
+
+  /**
+   * Compiles select permissions of given table.
+   *
+   * @param tableSpec permissions of the table
+   * @return compiled permissions, or null if the table cannot be selected
+   */
+  public static TablePermissions compile(TableSpec tableSpec) {
+    OpSpec opSpec = tableSpec.getOp(OpType.select);
+    if (opSpec == null) {
+      return null;
+    }
+    Condition condition = opSpec.getCondition();
+    return new TablePermissions(
+        new HashSet<>(opSpec.getAllowed()),
+        condition,
+        condition == null
+            ? null
+            : ConditionUtils.conditionToSQLTemplate(
+                condition, TABLE_ALIAS_PLACEHOLDER, DatasourceConfig.DBType.other),
+        condition == null
+            ? null
+            : ConditionUtils.conditionToSQLTemplate(
+                condition, TABLE_ALIAS_PLACEHOLDER, DatasourceConfig.DBType.postgresql));
+  }
+
+  private PreparedQuery getConditionTemplate(DatasourceConfig.DBType dbType) {
+    return dbType == DatasourceConfig.DBType.postgresql
+        ? postgresqlConditionTemplate
+        : conditionTemplate;
+  }
+
+  public boolean isColumnAllowed(String column) {
+    return allowedColumns.contains(column);
+  }
+
+  /**
+   * Whether SQL of WHERE clause created by {@link #createWhereFunction(String,
+   * DatasourceConfig.DBType)} is the same for all JWT params, which is not the case for conditions
+   * which could not be compiled: outside of PostgreSQL number of placeholders of {@code _in} and
+   * {@code _nin} depends on number of values.
+   *
+   * @param dbType database type
+   * @return true if only params of the clause depend on JWT params
+   */
+  boolean isWhereFixed(DatasourceConfig.DBType dbType) {
+    return condition == null || getConditionTemplate(dbType) != null;
+  }
+
+  /**
+   * Creates function building WHERE clause of permissions for given JWT params, for table with
+   * given alias. Conditions which could not be compiled are converted to SQL on each call, see
+   * {@link #isWhereFixed(DatasourceConfig.DBType)}.
+   *
+   * @param tableAlias alias of the table in query
+   * @param dbType database type
+   * @return function of JWT params
+   */
+  @SuppressWarnings("unchecked")
+  Function<Map<String, Object>, PreparedQuery> createWhereFunction(
+      String tableAlias, DatasourceConfig.DBType dbType) {
+    if (condition == null) {
+      return jwtParams -> PreparedQuery.create();
+    }
+    PreparedQuery conditionTemplate = getConditionTemplate(dbType);
+    if (conditionTemplate == null) {
+      return jwtParams -> ConditionUtils.conditionToSQL(condition, tableAlias, jwtParams);
+    }
+    PreparedQuery aliasTemplate =
+        conditionTemplate.replaceInQuery(TABLE_ALIAS_PLACEHOLDER, tableAlias);
+    return jwtParams ->
+        aliasTemplate.mapParams(
+            param -> ((Function<Map<String, Object>, Object>) param).apply(jwtParams));
+  }
+}
@@ -0,0 +1,19 @@
+permissions {
+    role ('default') {
+        table ('phones') {
+            ops([select, insert]) {
+                allow 'id', 'phone'
+            }
+        }
+        table ('addresses') {
+            ops([select]) {
+                allow 'id', 'street', 'phone'
+            }
+        }
+        table ('customers') {
+            ops([select]) {
+                allow 'id', 'name', 'address'
+            }
+        }
+    }
+}
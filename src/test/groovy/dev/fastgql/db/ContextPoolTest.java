@@ -0,0 +1,107 @@
+package dev.fastgql.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.sqlclient.Pool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+public class ContextPoolTest {
+
+  private final Map<Pool, Context> createdOn = new ConcurrentHashMap<>();
+
+  private ContextPool createContextPool() {
+    return new ContextPool(
+        () -> {
+          Pool pool = mock(Pool.class);
+          Context context = Vertx.currentContext();
+          if (context != null) {
+            createdOn.put(pool, context);
+          }
+          return pool;
+        });
+  }
+
+  private static Future<Void> useOnContext(Context context, ContextPool contextPool, int times) {
+    Promise<Void> promise = Promise.promise();
+    context.runOnContext(
+        event -> {
+          for (int i = 0; i < times; i++) {
+            contextPool.query("SELECT 1");
+          }
+          promise.complete();
+        });
+    return promise.future();
+  }
+
+  @Test
+  void createsPoolForEveryContext(Vertx vertx, VertxTestContext testContext) {
+    ContextPool contextPool = createContextPool();
+    // outside of context every call creates new one
+    Context first = vertx.getOrCreateContext();
+    Context second = vertx.getOrCreateContext();
+    assertNotSame(first, second);
+    CompositeFuture.all(useOnContext(first, contextPool, 2), useOnContext(second, contextPool, 3))
+        .onComplete(
+            testContext.succeeding(
+                result ->
+                    testContext.verify(
+                        () -> {
+                          List<Pool> pools = new ArrayList<>(contextPool.getPools());
+                          assertEquals(2, pools.size());
+                          for (Pool pool : pools) {
+                            int queries = createdOn.get(pool) == first ? 2 : 3;
+                            verify(pool, times(queries)).query("SELECT 1");
+                          }
+                          testContext.completeNow();
+                        })));
+  }
+
+  @Test
+  void sharesPoolOutsideOfContext() {
+    ContextPool contextPool = createContextPool();
+    contextPool.query("SELECT 1");
+    contextPool.preparedQuery("SELECT 2");
+    List<Pool> pools = new ArrayList<>(contextPool.getPools());
+    assertEquals(1, pools.size());
+    verify(pools.get(0)).query("SELECT 1");
+    verify(pools.get(0)).preparedQuery("SELECT 2");
+    assertSame(pools.get(0), contextPool.getPools().iterator().next());
+  }
+
+  @Test
+  void closesAllPools(Vertx vertx, VertxTestContext testContext) {
+    ContextPool contextPool = createContextPool();
+    contextPool.query("SELECT 1");
+    vertx.runOnContext(
+        event -> {
+          contextPool.query("SELECT 1");
+          List<Pool> pools = new ArrayList<>(contextPool.getPools());
+          contextPool.close();
+          testContext.verify(
+              () -> {
+                assertEquals(2, pools.size());
+                pools.forEach(pool -> verify(pool).close());
+                assertEquals(0, contextPool.getPools().size());
+                testContext.completeNow();
+              });
+        });
+  }
+}
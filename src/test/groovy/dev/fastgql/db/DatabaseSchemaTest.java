@@ -12,6 +12,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import dev.fastgql.common.KeyType;
 import dev.fastgql.common.QualifiedName;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -56,4 +57,30 @@ public class DatabaseSchemaTest {
     assertEquals(1, databaseSchema.getTableNames().size());
     assertEquals(expectedKeyDefinition, databaseSchema.getGraph().get("tableName").get("keyName"));
   }
+
+  @Test
+  public void build_withPrimaryKey() {
+    DatabaseSchema databaseSchema =
+        DatabaseSchema.newSchema()
+            .addKey("tableName/firstKey", KeyType.INT)
+            .addKey("tableName/secondKey", KeyType.STRING)
+            .addKey("otherTableName/keyName", KeyType.INT)
+            .addPrimaryKey("tableName/secondKey")
+            .addPrimaryKey("tableName/firstKey")
+            .build();
+    assertEquals(List.of("secondKey", "firstKey"), databaseSchema.getPrimaryKey("tableName"));
+    assertEquals(List.of(), databaseSchema.getPrimaryKey("otherTableName"));
+  }
+
+  @Test
+  public void build_withNullableKey() {
+    DatabaseSchema databaseSchema =
+        DatabaseSchema.newSchema()
+            .addKey("tableName/firstKey", KeyType.INT)
+            .addKey("tableName/secondKey", KeyType.STRING)
+            .addNullableKey("tableName/secondKey")
+            .build();
+    assertEquals(Set.of("secondKey"), databaseSchema.getNullableKeys("tableName"));
+    assertEquals(Set.of(), databaseSchema.getNullableKeys("otherTableName"));
+  }
 }
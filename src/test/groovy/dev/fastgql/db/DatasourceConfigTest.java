@@ -2,7 +2,9 @@ package dev.fastgql.db;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
 public class DatasourceConfigTest {
@@ -76,4 +78,44 @@ public class DatasourceConfigTest {
                 "jdbc:anothersql://localhost:5432/db", "user", "pswd"),
         "Unsupported DB type");
   }
+
+  @Test
+  void createWithJsonConfig_poolDefaults() {
+    DatasourceConfig datasourceConfig =
+        DatasourceConfig.createWithJsonConfig(
+            new JsonObject()
+                .put("jdbcUrl", "jdbc:postgresql://localhost:5432/db")
+                .put("username", "user")
+                .put("password", "pswd"));
+    PoolConfig poolConfig = datasourceConfig.getPoolConfig();
+    assertEquals(5, poolConfig.getMaxSize());
+    assertEquals(-1, poolConfig.getMaxWaitQueueSize());
+    assertEquals(0, poolConfig.getIdleTimeout());
+  }
+
+  @Test
+  void createWithJsonConfig_pool() {
+    DatasourceConfig datasourceConfig =
+        DatasourceConfig.createWithJsonConfig(
+            new JsonObject()
+                .put("jdbcUrl", "jdbc:postgresql://localhost:5432/db")
+                .put("username", "user")
+                .put("password", "pswd")
+                .put(
+                    "pool",
+                    new JsonObject()
+                        .put("maxSize", 32)
+                        .put("maxWaitQueueSize", 1000)
+                        .put("idleTimeout", 60)
+                        .put("pipeliningLimit", 16)
+                        .put("cachePreparedStatements", true)
+                        .put("preparedStatementCacheMaxSize", 512)));
+    PoolConfig poolConfig = datasourceConfig.getPoolConfig();
+    assertEquals(32, poolConfig.getMaxSize());
+    assertEquals(1000, poolConfig.getMaxWaitQueueSize());
+    assertEquals(60, poolConfig.getIdleTimeout());
+    assertEquals(16, poolConfig.getPipeliningLimit());
+    assertTrue(poolConfig.isCachePreparedStatements());
+    assertEquals(512, poolConfig.getPreparedStatementCacheMaxSize());
+  }
 }
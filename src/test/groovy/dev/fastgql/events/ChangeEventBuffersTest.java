@@ -0,0 +1,94 @@
+package dev.fastgql.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.fastgql.db.DebeziumConfig;
+import io.debezium.engine.ChangeEvent;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+public class ChangeEventBuffersTest {
+
+  private static ChangeEvent<String, String> changeEvent(String value) {
+    return new ChangeEvent<>() {
+      @Override
+      public String key() {
+        return null;
+      }
+
+      @Override
+      public String value() {
+        return value;
+      }
+
+      @Override
+      public String destination() {
+        return "topic";
+      }
+    };
+  }
+
+  private static ChangeEventBuffers createBuffers(String overflowPolicy) {
+    return new ChangeEventBuffers(
+        DebeziumConfig.createWithJsonConfig(
+            new JsonObject()
+                .put("embedded", true)
+                .put("subscriber.buffer.size", 2)
+                .put("subscriber.overflow", overflowPolicy)));
+  }
+
+  private static TestSubscriber<String> subscribeWithoutRequest(
+      ChangeEventBuffers changeEventBuffers,
+      PublishProcessor<ChangeEvent<String, String>> processor) {
+    TestSubscriber<String> testSubscriber = new TestSubscriber<>(0);
+    changeEventBuffers.buffer(processor).map(ChangeEvent::value).subscribe(testSubscriber);
+    return testSubscriber;
+  }
+
+  private static void publish(PublishProcessor<ChangeEvent<String, String>> processor, int count) {
+    for (int i = 1; i <= count; i++) {
+      processor.onNext(changeEvent(Integer.toString(i)));
+    }
+  }
+
+  @Test
+  public void buffer_dropOldest() {
+    ChangeEventBuffers changeEventBuffers = createBuffers("dropOldest");
+    PublishProcessor<ChangeEvent<String, String>> processor = PublishProcessor.create();
+    TestSubscriber<String> testSubscriber = subscribeWithoutRequest(changeEventBuffers, processor);
+    publish(processor, 5);
+    assertEquals(2, changeEventBuffers.getDepth());
+    testSubscriber.request(10);
+    testSubscriber.assertValues("4", "5");
+    assertEquals(5, changeEventBuffers.getReceivedCount());
+    assertEquals(2, changeEventBuffers.getDeliveredCount());
+    assertEquals(3, changeEventBuffers.getDroppedCount());
+    assertEquals(0, changeEventBuffers.getDepth());
+  }
+
+  @Test
+  public void buffer_latest() {
+    ChangeEventBuffers changeEventBuffers = createBuffers("latest");
+    PublishProcessor<ChangeEvent<String, String>> processor = PublishProcessor.create();
+    TestSubscriber<String> testSubscriber = subscribeWithoutRequest(changeEventBuffers, processor);
+    publish(processor, 3);
+    testSubscriber.request(10);
+    testSubscriber.assertValues("3");
+    assertEquals(2, changeEventBuffers.getDroppedCount());
+  }
+
+  @Test
+  public void buffer_disconnect() {
+    ChangeEventBuffers changeEventBuffers = createBuffers("disconnect");
+    PublishProcessor<ChangeEvent<String, String>> processor = PublishProcessor.create();
+    TestSubscriber<String> testSubscriber = subscribeWithoutRequest(changeEventBuffers, processor);
+    publish(processor, 3);
+    testSubscriber.assertError(RuntimeException.class);
+    testSubscriber.assertNoValues();
+    assertEquals(1, changeEventBuffers.getDisconnectedCount());
+    assertEquals(0, changeEventBuffers.getDepth());
+    assertEquals(0, changeEventBuffers.getSubscriberCount());
+  }
+}
@@ -0,0 +1,87 @@
+package dev.fastgql.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+public class ChangeRecordTest {
+
+  private static final String TOPIC = "server.public.customers";
+
+  private static final Predicate<Map<String, Object>> ID_IS_ONE =
+      row -> !row.containsKey("id") || Objects.equals(row.get("id"), 1);
+
+  private static ChangeRecord decode(String table, String op, String before, String after) {
+    return ChangeRecord.decode(
+        TOPIC,
+        "{\"id\":1}",
+        String.format(
+            "{\"before\":%s,\"after\":%s,\"source\":{\"table\":\"%s\",\"lsn\":42},\"op\":\"%s\"}",
+            before, after, table, op));
+  }
+
+  @Test
+  public void decode_withSchema() {
+    ChangeRecord changeRecord =
+        ChangeRecord.decode(
+            TOPIC,
+            "{\"schema\":{},\"payload\":{\"id\":1}}",
+            "{\"schema\":{},\"payload\":{\"before\":null,\"after\":{\"id\":1,\"name\":\"john\"},"
+                + "\"source\":{\"table\":\"customers\",\"file\":\"binlog.000001\",\"pos\":154},"
+                + "\"op\":\"c\"}}");
+    assertEquals(TOPIC, changeRecord.getDestination());
+    assertEquals("customers", changeRecord.getTable());
+    assertEquals(ChangeRecord.Operation.create, changeRecord.getOperation());
+    assertEquals(Map.of("id", 1), changeRecord.getKey());
+    assertNull(changeRecord.getBefore());
+    assertEquals(Map.of("id", 1, "name", "john"), changeRecord.getAfter());
+    assertEquals("binlog.000001:154", changeRecord.getPosition());
+  }
+
+  @Test
+  public void decode_withoutRow() {
+    ChangeRecord tombstone = ChangeRecord.decode(TOPIC, "{\"id\":1}", null);
+    assertEquals(ChangeRecord.Operation.none, tombstone.getOperation());
+    assertEquals(Map.of("id", 1), tombstone.getKey());
+    ChangeRecord invalid = ChangeRecord.decode(TOPIC, null, "not json");
+    assertEquals(ChangeRecord.Operation.none, invalid.getOperation());
+    assertEquals(TOPIC, invalid.getDestination());
+  }
+
+  @Test
+  public void mayAffectRows_insert() {
+    ChangeRecord changeRecord = decode("customers", "c", "null", "{\"id\":1}");
+    assertEquals("42", changeRecord.getPosition());
+    assertTrue(changeRecord.mayAffectRows("customers", ID_IS_ONE));
+    assertFalse(
+        decode("customers", "c", "null", "{\"id\":2}").mayAffectRows("customers", ID_IS_ONE));
+  }
+
+  @Test
+  public void mayAffectRows_update() {
+    assertTrue(
+        decode("customers", "u", "{\"id\":1}", "{\"id\":2}").mayAffectRows("customers", ID_IS_ONE));
+    assertFalse(
+        decode("customers", "u", "{\"id\":3}", "{\"id\":2}").mayAffectRows("customers", ID_IS_ONE));
+    assertTrue(
+        decode("customers", "u", "null", "{\"id\":2}").mayAffectRows("customers", ID_IS_ONE));
+    assertTrue(
+        decode("customers", "u", "{\"id\":null}", "{\"id\":2}")
+            .mayAffectRows("customers", ID_IS_ONE));
+  }
+
+  @Test
+  public void mayAffectRows_otherRecords() {
+    assertTrue(ChangeRecord.SUBSCRIPTION_STARTED.mayAffectRows("customers", row -> false));
+    assertTrue(
+        decode("addresses", "c", "null", "{\"id\":2}").mayAffectRows("customers", row -> false));
+    assertTrue(
+        ChangeRecord.decode(TOPIC, null, "not json").mayAffectRows("customers", row -> false));
+  }
+}
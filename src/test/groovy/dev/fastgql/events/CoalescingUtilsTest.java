@@ -0,0 +1,65 @@
+package dev.fastgql.events;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingUtilsTest {
+
+  @Test
+  public void coalesce_windowDisabled() {
+    Flowable<Integer> flowable = Flowable.just(1, 2, 3);
+    assertSame(flowable, CoalescingUtils.coalesce(flowable, 0, 10));
+  }
+
+  @Test
+  public void coalesce_burstInWindow() {
+    TestScheduler scheduler = new TestScheduler();
+    PublishProcessor<Integer> processor = PublishProcessor.create();
+    TestSubscriber<Integer> testSubscriber =
+        CoalescingUtils.coalesce(processor, 100, 0, scheduler).test();
+    processor.onNext(1);
+    testSubscriber.assertValues(1);
+    processor.onNext(2);
+    processor.onNext(3);
+    processor.onNext(4);
+    testSubscriber.assertValues(1);
+    scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+    testSubscriber.assertValues(1, 4);
+    scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+    testSubscriber.assertValues(1, 4);
+  }
+
+  @Test
+  public void coalesce_windowClosedByEvents() {
+    TestScheduler scheduler = new TestScheduler();
+    PublishProcessor<Integer> processor = PublishProcessor.create();
+    TestSubscriber<Integer> testSubscriber =
+        CoalescingUtils.coalesce(processor, 100, 2, scheduler).test();
+    processor.onNext(1);
+    processor.onNext(2);
+    processor.onNext(3);
+    testSubscriber.assertValues(1, 3);
+  }
+
+  @Test
+  public void coalesce_keepsLatestWhileBusy() {
+    TestScheduler scheduler = new TestScheduler();
+    PublishProcessor<Integer> processor = PublishProcessor.create();
+    TestSubscriber<Integer> testSubscriber = new TestSubscriber<>(1);
+    CoalescingUtils.coalesce(processor, 100, 0, scheduler).subscribe(testSubscriber);
+    processor.onNext(1);
+    for (int i = 2; i <= 4; i++) {
+      processor.onNext(i);
+      scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+    }
+    testSubscriber.assertValues(1);
+    testSubscriber.request(10);
+    testSubscriber.assertValues(1, 4);
+  }
+}
@@ -0,0 +1,82 @@
+package dev.fastgql.events;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class KafkaEventHubTest {
+
+  @SuppressWarnings("unchecked")
+  private final KafkaConsumer<String, String> consumer = mock(KafkaConsumer.class);
+
+  private final KafkaEventHub kafkaEventHub = new KafkaEventHub(() -> consumer);
+
+  @SuppressWarnings("unchecked")
+  private static KafkaConsumerRecord<String, String> createRecord(String topic) {
+    KafkaConsumerRecord<String, String> record = mock(KafkaConsumerRecord.class);
+    when(record.topic()).thenReturn(topic);
+    return record;
+  }
+
+  @Test
+  public void subscribe_isLazy() {
+    kafkaEventHub.subscribe(Set.of("a"));
+    verifyNoInteractions(consumer);
+  }
+
+  @Test
+  public void subscribe_resubscribesWhenTopicsChange() {
+    TestSubscriber<ChangeRecord> subscriberA = kafkaEventHub.subscribe(Set.of("a")).test();
+    TestSubscriber<ChangeRecord> subscriberAB = kafkaEventHub.subscribe(Set.of("a", "b")).test();
+    TestSubscriber<ChangeRecord> subscriberB = kafkaEventHub.subscribe(Set.of("b")).test();
+    subscriberA.cancel();
+    subscriberAB.cancel();
+    InOrder inOrder = Mockito.inOrder(consumer);
+    inOrder.verify(consumer).subscribe(Set.of("a"));
+    inOrder.verify(consumer).subscribe(Set.of("a", "b"));
+    inOrder.verify(consumer).subscribe(Set.of("b"));
+    verify(consumer, times(3)).subscribe(Mockito.<Set<String>>any());
+    verify(consumer, never()).unsubscribe();
+    subscriberB.assertNotTerminated();
+  }
+
+  @Test
+  public void subscribe_unsubscribesWhenLastSubscriberLeaves() {
+    TestSubscriber<ChangeRecord> subscriber1 = kafkaEventHub.subscribe(Set.of("a")).test();
+    TestSubscriber<ChangeRecord> subscriber2 = kafkaEventHub.subscribe(Set.of("a")).test();
+    subscriber1.cancel();
+    verify(consumer, never()).unsubscribe();
+    subscriber2.cancel();
+    verify(consumer).unsubscribe();
+    verify(consumer, times(1)).subscribe(Set.of("a"));
+    kafkaEventHub.subscribe(Set.of("a")).test();
+    verify(consumer, times(2)).subscribe(Set.of("a"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void subscribe_dispatchesRecordsByTopic() {
+    TestSubscriber<ChangeRecord> subscriberA = kafkaEventHub.subscribe(Set.of("a")).test();
+    TestSubscriber<ChangeRecord> subscriberB = kafkaEventHub.subscribe(Set.of("b")).test();
+    ArgumentCaptor<Handler<KafkaConsumerRecord<String, String>>> handlerCaptor =
+        ArgumentCaptor.forClass(Handler.class);
+    verify(consumer).handler(handlerCaptor.capture());
+    handlerCaptor.getValue().handle(createRecord("a"));
+    handlerCaptor.getValue().handle(createRecord("c"));
+    subscriberA.assertValueCount(1);
+    subscriberB.assertNoValues();
+  }
+}
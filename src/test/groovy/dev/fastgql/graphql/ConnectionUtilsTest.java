@@ -0,0 +1,93 @@
+package dev.fastgql.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.fastgql.sql.Keyset;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class ConnectionUtilsTest {
+
+  private static Field parseField(String query) {
+    Document document = new Parser().parseDocument(query);
+    return (Field)
+        document
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  @Test
+  public void getKeyColumns() {
+    Field field =
+        parseField("{ customers_connection(order_by: {name: desc}) { edges { cursor } } }");
+    assertEquals(
+        List.of("name", "id"),
+        ConnectionUtils.getKeyColumns(field, "customers", List.of("id"), Set.of()));
+  }
+
+  @Test
+  public void getKeyColumns_withoutPrimaryKeyAndOrder() {
+    Field field = parseField("{ customers_connection { edges { cursor } } }");
+    assertThrows(
+        RuntimeException.class,
+        () -> ConnectionUtils.getKeyColumns(field, "customers", List.of(), Set.of()));
+  }
+
+  @Test
+  public void getKeyColumns_withNullableOrder() {
+    Field field =
+        parseField("{ customers_connection(order_by: {name: desc}) { edges { cursor } } }");
+    assertThrows(
+        RuntimeException.class,
+        () -> ConnectionUtils.getKeyColumns(field, "customers", List.of("id"), Set.of("name")));
+  }
+
+  @Test
+  public void createTableField() {
+    Field field =
+        ConnectionUtils.createTableField(
+            parseField(
+                "{ customers_connection(limit: 2, order_by: {name: desc}, after: \"c\") { "
+                    + "edges { cursor node { name } } pageInfo { hasNextPage } } }"),
+            "customers",
+            List.of("name", "id"));
+    assertEquals(
+        AstPrinter.printAst(
+            parseField(
+                "{ customers(limit: 3, after: \"c\", order_by: [{name: desc}, {id: asc}]) { "
+                    + "name id } }")),
+        AstPrinter.printAst(field));
+  }
+
+  @Test
+  public void toConnection_before() {
+    Field field =
+        parseField(
+            "{ customers_connection(limit: 2, before: \"c\") { "
+                + "edges { cursor node { id } } pageInfo { hasNextPage } } }");
+    Map<String, Object> connection =
+        ConnectionUtils.toConnection(
+            field, List.of("id"), List.of(Map.of("id", 5), Map.of("id", 4), Map.of("id", 3)));
+    assertEquals(
+        List.of(
+            Map.of("cursor", Keyset.encodeCursor(List.of(4)), "node", Map.of("id", 4)),
+            Map.of("cursor", Keyset.encodeCursor(List.of(5)), "node", Map.of("id", 5))),
+        connection.get("edges"));
+    Map<?, ?> pageInfo = (Map<?, ?>) connection.get("pageInfo");
+    assertEquals(true, pageInfo.get("hasNextPage"));
+    assertEquals(true, pageInfo.get("hasPreviousPage"));
+    assertEquals(Keyset.encodeCursor(List.of(4)), pageInfo.get("startCursor"));
+    assertEquals(Keyset.encodeCursor(List.of(5)), pageInfo.get("endCursor"));
+  }
+}
@@ -0,0 +1,140 @@
+package dev.fastgql.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.TableSpec;
+import dev.fastgql.sql.TablePermissions;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class DeltaUtilsTest {
+
+  private static Field parseField(String query) {
+    Document document = new Parser().parseDocument(query);
+    return (Field)
+        document
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  @Test
+  public void createTableField() {
+    Field field =
+        DeltaUtils.createTableField(
+            parseField(
+                "subscription { customers_delta(limit: 5) { inserted { name } "
+                    + "updated { name address } deleted { name } } }"),
+            "customers",
+            List.of("id"));
+    assertEquals(
+        AstPrinter.printAst(parseField("{ customers(limit: 5) { name address id } }")),
+        AstPrinter.printAst(field));
+  }
+
+  @Test
+  public void createTableField_mergesSelectionsWithSameResponseKey() {
+    Field field =
+        DeltaUtils.createTableField(
+            parseField(
+                "subscription { customers_delta { inserted { orders { id } } "
+                    + "updated { orders { total } } deleted { id } } }"),
+            "customers",
+            List.of("id"));
+    assertEquals(
+        AstPrinter.printAst(parseField("{ customers { orders { id total } id } }")),
+        AstPrinter.printAst(field));
+  }
+
+  @Test
+  public void createTableField_conflictingSelections() {
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            DeltaUtils.createTableField(
+                parseField(
+                    "subscription { customers_delta { inserted { orders(limit: 1) { id } } "
+                        + "updated { orders(limit: 2) { id } } } }"),
+                "customers",
+                List.of("id")));
+  }
+
+  private static TablePermissions createTablePermissions(String... allowedColumns) {
+    OpSpec opSpec = new OpSpec("customers");
+    opSpec.getAllowed().addAll(List.of(allowedColumns));
+    TableSpec tableSpec = new TableSpec("customers");
+    tableSpec.getOpSpecs().put(OpType.select, opSpec);
+    return TablePermissions.compile(tableSpec);
+  }
+
+  @Test
+  public void getKeyColumns_primaryKeyAllowed() {
+    assertEquals(
+        List.of("id"),
+        DeltaUtils.getKeyColumns(List.of("id"), createTablePermissions("id", "name")));
+  }
+
+  @Test
+  public void getKeyColumns_primaryKeyNotAllowed() {
+    List<String> keyColumns =
+        DeltaUtils.getKeyColumns(List.of("id"), createTablePermissions("name"));
+    assertEquals(List.of(), keyColumns);
+    Field field =
+        DeltaUtils.createTableField(
+            parseField("subscription { customers_delta { inserted { name } } }"),
+            "customers",
+            keyColumns);
+    assertEquals(
+        AstPrinter.printAst(parseField("{ customers { name } }")), AstPrinter.printAst(field));
+  }
+
+  @Test
+  public void diff_withPrimaryKey() {
+    List<Map<String, Object>> previous =
+        List.of(Map.of("id", 1, "name", "a"), Map.of("id", 2, "name", "b"));
+    List<Map<String, Object>> current =
+        List.of(Map.of("id", 2, "name", "c"), Map.of("id", 3, "name", "d"));
+    Map<String, List<Map<String, Object>>> delta =
+        DeltaUtils.diff(previous, current, List.of("id"));
+    assertEquals(List.of(Map.of("id", 3, "name", "d")), delta.get("inserted"));
+    assertEquals(List.of(Map.of("id", 2, "name", "c")), delta.get("updated"));
+    assertEquals(List.of(Map.of("id", 1, "name", "a")), delta.get("deleted"));
+  }
+
+  @Test
+  public void diff_withoutPrimaryKey() {
+    List<Map<String, Object>> previous = List.of(Map.of("name", "a"), Map.of("name", "a"));
+    List<Map<String, Object>> current = List.of(Map.of("name", "a"), Map.of("name", "b"));
+    Map<String, List<Map<String, Object>>> delta = DeltaUtils.diff(previous, current, List.of());
+    assertEquals(List.of(Map.of("name", "b")), delta.get("inserted"));
+    assertEquals(List.of(), delta.get("updated"));
+    assertEquals(List.of(Map.of("name", "a")), delta.get("deleted"));
+  }
+
+  @Test
+  public void toDeltas_suppressesUnchanged() {
+    PublishProcessor<List<Map<String, Object>>> processor = PublishProcessor.create();
+    TestSubscriber<Map<String, Object>> testSubscriber =
+        DeltaUtils.toDeltas(processor, List.of("id")).test();
+    processor.onNext(List.of());
+    processor.onNext(List.of());
+    processor.onNext(List.of(Map.of("id", 1)));
+    processor.onNext(List.of(Map.of("id", 1)));
+    testSubscriber.assertValueCount(2);
+    assertEquals(List.of(), testSubscriber.values().get(0).get("inserted"));
+    assertEquals(List.of(Map.of("id", 1)), testSubscriber.values().get(1).get("inserted"));
+  }
+}
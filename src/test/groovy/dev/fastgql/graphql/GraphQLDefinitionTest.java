@@ -0,0 +1,55 @@
+package dev.fastgql.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.fastgql.common.KeyType;
+import dev.fastgql.common.QualifiedName;
+import dev.fastgql.db.KeyDefinition;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class GraphQLDefinitionTest {
+
+  private static final Map<String, KeyDefinition> COLUMN_TO_KEY_DEFINITION =
+      Map.of(
+          "id", createKeyDefinition("id", KeyType.INT),
+          "price", createKeyDefinition("price", KeyType.FLOAT),
+          "active", createKeyDefinition("active", KeyType.BOOL),
+          "name", createKeyDefinition("name", KeyType.STRING));
+
+  private static KeyDefinition createKeyDefinition(String column, KeyType keyType) {
+    return new KeyDefinition(new QualifiedName("products", column), keyType, null, null);
+  }
+
+  private static Map<String, Object> convert(Map<String, Object> row) {
+    return GraphQLDefinition.DefaultBuilder.convertIngestedRow(COLUMN_TO_KEY_DEFINITION, row);
+  }
+
+  @Test
+  public void convertIngestedRow() {
+    assertEquals(
+        Map.of("id", 1L, "price", 2.5, "active", true, "name", "desk"),
+        convert(Map.of("id", "1", "price", "2.5", "active", "t", "name", "desk")));
+    assertEquals(Map.of("active", false), convert(Map.of("active", "0")));
+  }
+
+  @Test
+  public void convertIngestedRow_emptyValues() {
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", null);
+    expected.put("price", null);
+    expected.put("active", null);
+    expected.put("name", "");
+    assertEquals(expected, convert(Map.of("id", "", "price", "", "active", "", "name", "")));
+  }
+
+  @Test
+  public void convertIngestedRow_invalidValues() {
+    RuntimeException exception =
+        assertThrows(RuntimeException.class, () -> convert(Map.of("active", "maybe")));
+    assertEquals("Invalid BOOL value 'maybe' in column active", exception.getMessage());
+    assertThrows(RuntimeException.class, () -> convert(Map.of("id", "one")));
+  }
+}
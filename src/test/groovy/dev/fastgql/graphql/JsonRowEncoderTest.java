@@ -0,0 +1,49 @@
+package dev.fastgql.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.fastgql.common.KeyType;
+import dev.fastgql.db.DatabaseSchema;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class JsonRowEncoderTest {
+
+  private final GraphQLDatabaseSchema graphQLDatabaseSchema =
+      new GraphQLDatabaseSchema(
+          DatabaseSchema.newSchema()
+              .addKey("customers/id", KeyType.INT)
+              .addKey("customers/address", KeyType.INT, "addresses/id")
+              .addKey("addresses/id", KeyType.INT)
+              .build());
+
+  private static Field parseRootField(String query) {
+    OperationDefinition operationDefinition =
+        (OperationDefinition) new Parser().parseDocument(query).getDefinitions().get(0);
+    return (Field) operationDefinition.getSelectionSet().getSelections().get(0);
+  }
+
+  @Test
+  public void encode() {
+    JsonRowEncoder jsonRowEncoder =
+        new JsonRowEncoder(
+            graphQLDatabaseSchema,
+            parseRootField("{ customers { address_ref { id } id second: id } }"));
+    assertEquals(
+        "{\"address_ref\":{\"id\":2},\"id\":1,\"second\":1}",
+        jsonRowEncoder.encode(Map.of("id", 1L, "address_ref", Map.of("id", 2))));
+  }
+
+  @Test
+  public void encodeMissingValuesAsNull() {
+    JsonRowEncoder jsonRowEncoder =
+        new JsonRowEncoder(
+            graphQLDatabaseSchema,
+            parseRootField("{ customers { id address address_ref { id } } }"));
+    assertEquals(
+        "{\"id\":1,\"address\":null,\"address_ref\":null}", jsonRowEncoder.encode(Map.of("id", 1)));
+  }
+}
@@ -0,0 +1,74 @@
+package dev.fastgql.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class SubscriptionMultiplexerTest {
+
+  @Test
+  public void join_sameKey() {
+    SubscriptionMultiplexer subscriptionMultiplexer = new SubscriptionMultiplexer();
+    PublishProcessor<Integer> processor = PublishProcessor.create();
+    AtomicInteger createdCount = new AtomicInteger();
+    TestSubscriber<Integer> first =
+        subscriptionMultiplexer
+            .join(
+                "key",
+                () -> {
+                  createdCount.incrementAndGet();
+                  return processor;
+                })
+            .test();
+    processor.onNext(1);
+    TestSubscriber<Integer> second =
+        subscriptionMultiplexer
+            .join(
+                "key",
+                () -> {
+                  createdCount.incrementAndGet();
+                  return processor;
+                })
+            .test();
+    processor.onNext(2);
+    first.assertValues(1, 2);
+    second.assertValues(1, 2);
+    assertEquals(1, createdCount.get());
+    assertEquals(1, subscriptionMultiplexer.getGroupCount());
+    assertEquals(2, subscriptionMultiplexer.getMemberCount());
+  }
+
+  @Test
+  public void join_differentKeys() {
+    SubscriptionMultiplexer subscriptionMultiplexer = new SubscriptionMultiplexer();
+    PublishProcessor<Integer> first = PublishProcessor.create();
+    PublishProcessor<Integer> second = PublishProcessor.create();
+    TestSubscriber<Integer> firstSubscriber =
+        subscriptionMultiplexer.join("first", () -> first).test();
+    TestSubscriber<Integer> secondSubscriber =
+        subscriptionMultiplexer.join("second", () -> second).test();
+    first.onNext(1);
+    second.onNext(2);
+    firstSubscriber.assertValues(1);
+    secondSubscriber.assertValues(2);
+    assertEquals(2, subscriptionMultiplexer.getGroupCount());
+  }
+
+  @Test
+  public void join_lastMemberLeaves() {
+    SubscriptionMultiplexer subscriptionMultiplexer = new SubscriptionMultiplexer();
+    PublishProcessor<Integer> processor = PublishProcessor.create();
+    TestSubscriber<Integer> first = subscriptionMultiplexer.join("key", () -> processor).test();
+    TestSubscriber<Integer> second = subscriptionMultiplexer.join("key", () -> processor).test();
+    first.cancel();
+    assertEquals(1, subscriptionMultiplexer.getGroupCount());
+    second.cancel();
+    assertEquals(0, subscriptionMultiplexer.getGroupCount());
+    assertEquals(0, subscriptionMultiplexer.getMemberCount());
+    assertFalse(processor.hasSubscribers());
+  }
+}
@@ -0,0 +1,69 @@
+package dev.fastgql.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.reactivex.Flowable;
+import io.vertx.core.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class IngestHandlerTest {
+
+  @Test
+  public void parseCsvLine() {
+    assertEquals(
+        Arrays.asList("1", null, "", "a, \"b\"", "c"),
+        IngestHandler.parseCsvLine("1,,\"\",\"a, \"\"b\"\"\",c"));
+  }
+
+  @Test
+  public void splitLines() {
+    byte[] bytes = "ab\nc\u0105\n\nd".getBytes(StandardCharsets.UTF_8);
+    List<String> lines =
+        IngestHandler.splitLines(
+                Flowable.just(
+                    Buffer.buffer().appendBytes(bytes, 0, 5),
+                    Buffer.buffer().appendBytes(bytes, 5, bytes.length - 5)),
+                4)
+            .toList()
+            .blockingGet();
+    assertEquals(List.of("ab", "c\u0105", "", "d"), lines);
+  }
+
+  @Test
+  public void splitLines_tooLongLine() {
+    IngestHandler.splitLines(Flowable.just(Buffer.buffer("abc\nab"), Buffer.buffer("cd\n")), 3)
+        .test()
+        .assertValues("abc")
+        .assertErrorMessage("Line is longer than 3 bytes");
+  }
+
+  @Test
+  public void splitLines_tooLongLineWithinChunk() {
+    IngestHandler.splitLines(Flowable.just(Buffer.buffer("abcd\nab")), 3)
+        .test()
+        .assertNoValues()
+        .assertErrorMessage("Line is longer than 3 bytes");
+  }
+
+  @Test
+  public void parseRows_csv() {
+    List<Map<String, Object>> rows =
+        IngestHandler.parseRows(Flowable.just("id,name\r", "1,a\r", "", "2,b"), true)
+            .toList()
+            .blockingGet();
+    assertEquals(List.of(Map.of("id", "1", "name", "a"), Map.of("id", "2", "name", "b")), rows);
+  }
+
+  @Test
+  public void parseRows_json() {
+    List<Map<String, Object>> rows =
+        IngestHandler.parseRows(Flowable.just("{\"id\": 1}", " ", "{\"id\": 2}"), false)
+            .toList()
+            .blockingGet();
+    assertEquals(List.of(Map.of("id", 1), Map.of("id", 2)), rows);
+  }
+}
@@ -0,0 +1,63 @@
+package dev.fastgql.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.fastgql.dsl.DslFunctions;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.PermissionsSpec;
+import dev.fastgql.sql.Condition;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class PermissionsScriptCacheTest {
+
+  private static final String SCRIPT =
+      "permissions {\n"
+          + "  role('default') {\n"
+          + "    table('customers') {\n"
+          + "      ops([select]) {\n"
+          + "        allow 'id', 'name'\n"
+          + "        check 'id' eq { -> 5 } and 'name' eq { it.name }\n"
+          + "      }\n"
+          + "    }\n"
+          + "  }\n"
+          + "}\n";
+
+  private static Condition getCondition(PermissionsSpec permissionsSpec, int index) {
+    return permissionsSpec
+        .getRole("default")
+        .getTable("customers")
+        .getOp(OpType.select)
+        .getCondition()
+        .getNext()
+        .get(index);
+  }
+
+  @Test
+  public void evaluate_sameScript() {
+    PermissionsScriptCache permissionsScriptCache = new PermissionsScriptCache();
+    PermissionsSpec first = permissionsScriptCache.evaluate(SCRIPT);
+    PermissionsSpec second = permissionsScriptCache.evaluate(SCRIPT);
+    assertNotSame(first, second);
+    assertSame(
+        getCondition(first, 1).getFunction().getClass(),
+        getCondition(second, 1).getFunction().getClass());
+    assertEquals(1, permissionsScriptCache.size());
+    permissionsScriptCache.evaluate(SCRIPT + "\n");
+    assertEquals(2, permissionsScriptCache.size());
+  }
+
+  @Test
+  public void evaluate_functions() {
+    PermissionsSpec permissionsSpec = new PermissionsScriptCache().evaluate(SCRIPT);
+    Condition constant = getCondition(permissionsSpec, 0);
+    assertTrue(constant.getFunction() instanceof DslFunctions.ConstantFunction);
+    assertEquals(5, constant.getFunction().apply(Map.of()));
+    Condition jwtDependent = getCondition(permissionsSpec, 1);
+    assertTrue(jwtDependent.getFunction() instanceof DslFunctions.ClosureFunction);
+    assertEquals("a", jwtDependent.getFunction().apply(Map.of("name", "a")));
+  }
+}
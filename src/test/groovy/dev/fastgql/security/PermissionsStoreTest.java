@@ -0,0 +1,24 @@
+package dev.fastgql.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.fastgql.dsl.PermissionsSpec;
+import org.junit.jupiter.api.Test;
+
+public class PermissionsStoreTest {
+
+  @Test
+  public void setPermissionsSpec_publishesNewVersion() {
+    PermissionsSnapshot previous = PermissionsStore.getSnapshot();
+    PermissionsSpec permissionsSpec = new PermissionsSpec();
+    PermissionsSnapshot first = PermissionsStore.setPermissionsSpec(permissionsSpec);
+    PermissionsSnapshot second = PermissionsStore.setPermissionsSpec(null);
+    assertEquals(previous.getVersion() + 1, first.getVersion());
+    assertEquals(first.getVersion() + 1, second.getVersion());
+    assertSame(permissionsSpec, first.getPermissionsSpec());
+    assertNull(second.getPermissionsSpec());
+    assertSame(second, PermissionsStore.getSnapshot());
+  }
+}
@@ -0,0 +1,116 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.dsl.LogicalConnective;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class ConditionEvaluatorTest {
+
+  private static Condition createCondition(
+      String column, RelationalOperator operator, Object value, LogicalConnective connective) {
+    Condition condition = new Condition(column, operator, params -> value);
+    condition.setConnective(connective);
+    return condition;
+  }
+
+  private static Boolean evaluate(Condition condition, Map<String, Object> row) {
+    return ConditionEvaluator.evaluate(condition, row, Map.of(), Set.of("name"));
+  }
+
+  @Test
+  public void evaluate_singleCondition() {
+    Condition condition =
+        createCondition("id", RelationalOperator._gt, BigInteger.valueOf(10), null);
+    assertEquals(true, evaluate(condition, Map.of("id", 11)));
+    assertEquals(false, evaluate(condition, Map.of("id", 10L)));
+  }
+
+  @Test
+  public void evaluate_andTakesPrecedenceOverOr() {
+    Condition condition = createCondition("a", RelationalOperator._eq, BigInteger.ONE, null);
+    condition
+        .getNext()
+        .add(createCondition("b", RelationalOperator._eq, BigInteger.ONE, LogicalConnective.and));
+    condition
+        .getNext()
+        .add(createCondition("c", RelationalOperator._eq, BigInteger.ONE, LogicalConnective.or));
+    assertEquals(true, evaluate(condition, Map.of("a", 0, "b", 0, "c", 1)));
+    assertEquals(false, evaluate(condition, Map.of("a", 1, "b", 0, "c", 0)));
+    assertEquals(true, evaluate(condition, Map.of("a", 1, "b", 1, "c", 0)));
+  }
+
+  @Test
+  public void evaluate_negated() {
+    Condition inner = createCondition("id", RelationalOperator._eq, BigInteger.ONE, null);
+    inner.setNegated(true);
+    Condition condition = new Condition();
+    condition.getNext().add(inner);
+    assertEquals(false, evaluate(condition, Map.of("id", 1)));
+    assertEquals(true, evaluate(condition, Map.of("id", 2)));
+  }
+
+  @Test
+  public void evaluate_inList() {
+    Condition condition =
+        createCondition(
+            "id", RelationalOperator._in, List.of(BigInteger.ONE, BigInteger.TWO), null);
+    assertEquals(true, evaluate(condition, Map.of("id", 2)));
+    assertEquals(false, evaluate(condition, Map.of("id", 3)));
+    Condition any =
+        createCondition(
+            "id", RelationalOperator._any, new Object[] {BigInteger.ONE, BigInteger.TWO}, null);
+    assertEquals(true, evaluate(any, Map.of("id", 2)));
+    assertEquals(false, evaluate(any, Map.of("id", 3)));
+  }
+
+  @Test
+  public void evaluate_unknown() {
+    Condition condition = createCondition("id", RelationalOperator._eq, BigInteger.ONE, null);
+    assertNull(evaluate(condition, Map.of("other", 1)));
+    Map<String, Object> rowWithNull = new HashMap<>();
+    rowWithNull.put("id", null);
+    assertNull(evaluate(condition, rowWithNull));
+
+    Condition referencing =
+        Condition.createReferencing("customers", "id", "customer_id", new Condition());
+    assertNull(evaluate(referencing, Map.of("customer_id", 1)));
+  }
+
+  @Test
+  public void evaluate_unknownOrFalse() {
+    Condition condition = createCondition("a", RelationalOperator._eq, BigInteger.ONE, null);
+    condition
+        .getNext()
+        .add(createCondition("b", RelationalOperator._eq, BigInteger.ONE, LogicalConnective.or));
+    assertNull(evaluate(condition, Map.of("a", 0)));
+    assertEquals(true, evaluate(condition, Map.of("a", 1)));
+  }
+
+  @Test
+  public void evaluate_strings() {
+    Condition condition = createCondition("name", RelationalOperator._eq, "john", null);
+    assertEquals(false, evaluate(condition, Map.of("name", "jim")));
+    assertNull(ConditionEvaluator.evaluate(condition, Map.of("name", "jim"), Map.of(), Set.of()));
+    Condition ordering = createCondition("name", RelationalOperator._gt, "john", null);
+    assertNull(evaluate(ordering, Map.of("name", "jim")));
+  }
+
+  @Test
+  public void evaluate_stringsInNonTextColumn() {
+    Condition condition =
+        createCondition("created_at", RelationalOperator._eq, "2020-01-01 10:00:00+00", null);
+    assertNull(evaluate(condition, Map.of("created_at", "2020-01-01T10:00:00Z")));
+    Condition inList =
+        createCondition(
+            "created_at", RelationalOperator._in, List.of("2020-01-01T10:00:00Z"), null);
+    assertNull(evaluate(inList, Map.of("created_at", "2020-01-01T10:00:00.000000Z")));
+  }
+}
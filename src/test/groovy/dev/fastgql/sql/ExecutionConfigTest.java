@@ -0,0 +1,30 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+public class ExecutionConfigTest {
+
+  @Test
+  void create_subscriptionWindow() {
+    ExecutionConfig executionConfig =
+        ExecutionConfig.createWithJsonConfig(
+            new JsonObject()
+                .put("subscriptionWindowMillis", 100)
+                .put("subscriptionWindowEvents", 10));
+    assertEquals(100, executionConfig.getSubscriptionWindowMillis());
+    assertEquals(10, executionConfig.getSubscriptionWindowEvents());
+  }
+
+  @Test
+  void create_subscriptionWindowEventsWithoutMillis() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            ExecutionConfig.createWithJsonConfig(
+                new JsonObject().put("subscriptionWindowEvents", 10)));
+  }
+}
@@ -0,0 +1,67 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.reactivex.Single;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.RowSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class ExecutionTraceTest {
+
+  @SuppressWarnings("unchecked")
+  private static RowSet<Row> rowSet(int rowCount) {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.rowCount()).thenReturn(rowCount);
+    return rowSet;
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void recordsStatements() {
+    ExecutionTrace executionTrace = new ExecutionTrace();
+    QueryExecutor queryExecutor =
+        executionTrace.wrap(
+            (query, params) ->
+                query.startsWith("SELECT")
+                    ? Single.just(rowSet(params.size()))
+                    : query.equals("COMMIT")
+                        ? Single.error(new RuntimeException("connection closed"))
+                        : Single.just(rowSet(0)));
+    executionTrace.onConnectionAcquired();
+    queryExecutor.apply("BEGIN").test().assertComplete();
+    queryExecutor
+        .apply(
+            "SELECT id FROM customers WHERE id = ANY($1) AND name = $2",
+            List.of(new Integer[] {1, 2}, "a"))
+        .test()
+        .assertComplete();
+    queryExecutor.apply("COMMIT").test().assertError(RuntimeException.class);
+    executionTrace.onFinished();
+
+    Map<String, Object> trace = executionTrace.toMap();
+    assertEquals(3, trace.get("roundTrips"));
+    List<Map<String, Object>> statements = (List<Map<String, Object>>) trace.get("statements");
+    assertEquals("BEGIN", statements.get(0).get("query"));
+    assertEquals(true, statements.get(0).get("overhead"));
+    assertEquals("[[1, 2], a]", statements.get(1).get("params"));
+    assertEquals(2, statements.get(1).get("rows"));
+    assertEquals(false, statements.get(1).get("overhead"));
+    assertEquals("connection closed", statements.get(2).get("error"));
+    assertEquals(-1, statements.get(2).get("rows"));
+    double totalMs = (Double) trace.get("totalMs");
+    assertTrue((Double) trace.get("databaseMs") <= totalMs);
+    assertTrue((Double) trace.get("overheadMs") <= (Double) trace.get("databaseMs"));
+    assertEquals(
+        totalMs,
+        (Double) trace.get("poolMs")
+            + (Double) trace.get("databaseMs")
+            + (Double) trace.get("mappingMs"),
+        1e-6);
+  }
+}
@@ -0,0 +1,111 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.RoleSpec;
+import dev.fastgql.dsl.TableSpec;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.reactivex.Single;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.RowSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class MutationFunctionsTest {
+
+  private static Field parseField(String query) {
+    Document document = new Parser().parseDocument(query);
+    return (Field)
+        document
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  private static RoleSpec createRoleSpec() {
+    OpSpec opSpec = new OpSpec("customers");
+    opSpec.allow("id", "name");
+    ((OpSpec.PresetSpec) opSpec.preset("owner")).to(7);
+    TableSpec tableSpec = new TableSpec("customers");
+    tableSpec.getOpSpecs().put(OpType.insert, opSpec);
+    RoleSpec roleSpec = new RoleSpec();
+    roleSpec.getTables().put("customers", tableSpec);
+    return roleSpec;
+  }
+
+  private static Map<String, Object> execute(
+      List<Map<String, Object>> rows, List<String> queries, List<List<Object>> params) {
+    ExecutionDefinition<Map<String, Object>> executionDefinition =
+        new MutationFunctions(createRoleSpec(), Map.of())
+            .createExecutionDefinition(
+                parseField("mutation { insert_customers(objects: []) { affected_rows } }"),
+                rows,
+                DatasourceConfig.DBType.postgresql);
+    return executionDefinition
+        .getQueryExecutorResponseFunction()
+        .apply(
+            (query, queryParams) -> {
+              queries.add(query);
+              params.add(queryParams);
+              @SuppressWarnings("unchecked")
+              RowSet<Row> rowSet = mock(RowSet.class);
+              when(rowSet.rowCount()).thenReturn(queryParams.size() / 3);
+              return Single.just(rowSet);
+            })
+        .blockingGet();
+  }
+
+  @Test
+  public void createExecutionDefinition_groupsRowsByColumns() {
+    List<String> queries = new ArrayList<>();
+    List<List<Object>> params = new ArrayList<>();
+    Map<String, Object> response =
+        execute(
+            List.of(Map.of("id", 1, "name", "a"), Map.of("name", "b", "id", 2), Map.of("id", 3)),
+            queries,
+            params);
+    assertEquals(
+        List.of(
+            "INSERT INTO customers (id, name, owner) VALUES ($1, $2, $3), ($4, $5, $6)",
+            "INSERT INTO customers (id, owner) VALUES ($1, $2)"),
+        queries);
+    assertEquals(List.of(List.of(1, "a", 7, 2, "b", 7), List.of(3, 7)), params);
+    assertEquals(2, response.get("affected_rows"));
+  }
+
+  @Test
+  public void createExecutionDefinition_splitsLargeBatches() {
+    List<String> queries = new ArrayList<>();
+    List<List<Object>> params = new ArrayList<>();
+    List<Map<String, Object>> rows =
+        IntStream.range(0, 20000)
+            .mapToObj(i -> Map.<String, Object>of("id", i, "name", "n"))
+            .collect(Collectors.toList());
+    Map<String, Object> response = execute(rows, queries, params);
+    assertEquals(2, queries.size());
+    assertEquals(32766, params.get(0).size());
+    assertEquals(20000, response.get("affected_rows"));
+  }
+
+  @Test
+  public void createExecutionDefinition_notAllowedColumn() {
+    assertThrows(
+        RuntimeException.class,
+        () -> execute(List.of(Map.of("id", 1, "secret", 2)), new ArrayList<>(), new ArrayList<>()));
+  }
+}
@@ -0,0 +1,156 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.fastgql.db.DatasourceConfig;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.sqlclient.PreparedQuery;
+import io.vertx.reactivex.sqlclient.PreparedStatement;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.RowSet;
+import io.vertx.reactivex.sqlclient.SqlConnection;
+import io.vertx.reactivex.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+
+public class PreparedStatementCacheTest {
+
+  private static final long CONNECTION_KEY = 1L;
+
+  private final SqlConnection connection = mock(SqlConnection.class);
+
+  private static PreparedStatementCache createCache(int maxSizePerConnection) {
+    return new PreparedStatementCache(
+        ExecutionConfig.createWithJsonConfig(
+            new JsonObject().put("preparedStatementCacheSize", maxSizePerConnection)),
+        DatasourceConfig.createDatasourceConfig(
+            "jdbc:postgresql://localhost:5432/db", "user", "pswd", "public"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static PreparedStatement createStatement(Single<RowSet<Row>> result) {
+    PreparedStatement preparedStatement = mock(PreparedStatement.class);
+    PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+    when(preparedStatement.query()).thenReturn(preparedQuery);
+    when(preparedQuery.rxExecute(any())).thenReturn(result);
+    return preparedStatement;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RowSet<Row> createRowSet() {
+    return mock(RowSet.class);
+  }
+
+  private static PreparedStatement createStatement() {
+    return createStatement(Single.just(createRowSet()));
+  }
+
+  private TestObserver<RowSet<Row>> execute(PreparedStatementCache cache, String query) {
+    return cache.execute(CONNECTION_KEY, connection, query, Tuple.of(1)).test();
+  }
+
+  @Test
+  public void execute_isLazy() {
+    PreparedStatementCache cache = createCache(2);
+    Single<RowSet<Row>> result = cache.execute(CONNECTION_KEY, connection, "q1", Tuple.of(1));
+    assertEquals(0, cache.getMissCount());
+    verify(connection, never()).rxPrepare(any());
+    PreparedStatement statement = createStatement();
+    when(connection.rxPrepare("q1")).thenReturn(Single.just(statement));
+    result.test().assertComplete();
+    result.test().assertComplete();
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void execute_evictsLeastRecentlyUsed() {
+    PreparedStatementCache cache = createCache(2);
+    PreparedStatement statement1 = createStatement();
+    PreparedStatement statement2 = createStatement();
+    PreparedStatement statement3 = createStatement();
+    when(connection.rxPrepare("q1")).thenReturn(Single.just(statement1));
+    when(connection.rxPrepare("q2")).thenReturn(Single.just(statement2));
+    when(connection.rxPrepare("q3")).thenReturn(Single.just(statement3));
+    execute(cache, "q1").assertComplete();
+    execute(cache, "q2").assertComplete();
+    execute(cache, "q1").assertComplete();
+    execute(cache, "q3").assertComplete();
+    verify(statement2).close();
+    verify(statement1, never()).close();
+    verify(connection, times(1)).rxPrepare("q1");
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void execute_closesEvictedStatementAfterUse() {
+    PreparedStatementCache cache = createCache(1);
+    SingleSubject<RowSet<Row>> result1 = SingleSubject.create();
+    PreparedStatement statement1 = createStatement(result1);
+    PreparedStatement statement2 = createStatement();
+    when(connection.rxPrepare("q1")).thenReturn(Single.just(statement1));
+    when(connection.rxPrepare("q2")).thenReturn(Single.just(statement2));
+    TestObserver<RowSet<Row>> testObserver1 = execute(cache, "q1");
+    execute(cache, "q2").assertComplete();
+    assertEquals(1, cache.getEvictionCount());
+    verify(statement1, never()).close();
+    result1.onSuccess(createRowSet());
+    testObserver1.assertComplete();
+    verify(statement1).close();
+  }
+
+  @Test
+  public void execute_preparesOnceForConcurrentMisses() {
+    PreparedStatementCache cache = createCache(2);
+    SingleSubject<PreparedStatement> prepared = SingleSubject.create();
+    PreparedStatement statement = createStatement();
+    when(connection.rxPrepare("q1")).thenReturn(prepared);
+    TestObserver<RowSet<Row>> testObserver1 = execute(cache, "q1");
+    TestObserver<RowSet<Row>> testObserver2 = execute(cache, "q1");
+    prepared.onSuccess(statement);
+    testObserver1.assertComplete();
+    testObserver2.assertComplete();
+    verify(connection, times(1)).rxPrepare("q1");
+    verify(statement, never()).close();
+  }
+
+  @Test
+  public void execute_removesStatementWhichFailed() {
+    PreparedStatementCache cache = createCache(2);
+    PreparedStatement failingStatement = createStatement(Single.error(new RuntimeException()));
+    PreparedStatement statement = createStatement();
+    when(connection.rxPrepare("q1"))
+        .thenReturn(Single.just(failingStatement))
+        .thenReturn(Single.just(statement));
+    execute(cache, "q1").assertError(RuntimeException.class);
+    verify(failingStatement).close();
+    execute(cache, "q1").assertComplete();
+    verify(connection, times(2)).rxPrepare("q1");
+  }
+
+  @Test
+  public void invalidateAll_closesStatementsOnNextExecution() {
+    PreparedStatementCache cache = createCache(2);
+    PreparedStatement statement = createStatement();
+    PreparedStatement newStatement = createStatement();
+    when(connection.rxPrepare("q1"))
+        .thenReturn(Single.just(statement))
+        .thenReturn(Single.just(newStatement));
+    execute(cache, "q1").assertComplete();
+    cache.invalidateAll();
+    verify(statement, never()).close();
+    execute(cache, "q1").assertComplete();
+    verify(statement).close();
+    verify(connection, times(2)).rxPrepare("q1");
+  }
+}
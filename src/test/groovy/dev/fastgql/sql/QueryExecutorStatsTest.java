@@ -0,0 +1,66 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class QueryExecutorStatsTest {
+
+  @Test
+  public void getTableName() {
+    assertEquals(
+        "customers",
+        QueryExecutorStats.getTableName(
+            "SELECT t.id AS v1 FROM customers t LEFT JOIN addresses t_0 ON t.address = t_0.id"));
+    assertEquals(
+        "addresses",
+        QueryExecutorStats.getTableName(
+            "SELECT t.id AS v1 FROM (SELECT id FROM addresses) t WHERE t.id > 1"));
+    assertEquals(
+        "phones",
+        QueryExecutorStats.getTableName("INSERT INTO phones (phone, id) VALUES ($1, $2)"));
+    assertEquals(
+        "public.phones", QueryExecutorStats.getTableName("update public.phones set phone = 1"));
+    assertEquals("none", QueryExecutorStats.getTableName("BEGIN ISOLATION LEVEL REPEATABLE READ"));
+  }
+
+  @Test
+  public void recordsStatementsByTable() {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    QueryExecutorStats queryExecutorStats = new QueryExecutorStats(meterRegistry);
+    queryExecutorStats.onExecuted("SELECT id FROM customers", 2_000_000, 3);
+    queryExecutorStats.onExecuted("SELECT id FROM customers", 4_000_000, 5);
+    queryExecutorStats.onExecuted("COMMIT", 1_000_000, 0);
+    queryExecutorStats.onFailed("SELECT id FROM addresses", 1_000_000);
+
+    assertEquals(3, queryExecutorStats.getExecutedCount());
+    assertEquals(1, queryExecutorStats.getFailedCount());
+    assertEquals(
+        2,
+        meterRegistry
+            .get("fastgql.sql.statements")
+            .tags("table", "customers", "outcome", "success")
+            .timer()
+            .count());
+    assertEquals(
+        6.0,
+        meterRegistry
+            .get("fastgql.sql.statements")
+            .tags("table", "customers", "outcome", "success")
+            .timer()
+            .totalTime(TimeUnit.MILLISECONDS));
+    assertEquals(
+        8.0,
+        meterRegistry.get("fastgql.sql.rows").tag("table", "customers").summary().totalAmount());
+    assertEquals(
+        1,
+        meterRegistry
+            .get("fastgql.sql.statements")
+            .tags("table", "addresses", "outcome", "error")
+            .timer()
+            .count());
+  }
+}
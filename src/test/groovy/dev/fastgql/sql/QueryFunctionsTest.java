@@ -0,0 +1,210 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.fastgql.common.KeyType;
+import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.db.DatabaseSchema;
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.RoleSpec;
+import dev.fastgql.dsl.TableSpec;
+import dev.fastgql.graphql.GraphQLDatabaseSchema;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.reactivex.Single;
+import io.vertx.reactivex.sqlclient.Row;
+import io.vertx.reactivex.sqlclient.RowIterator;
+import io.vertx.reactivex.sqlclient.RowSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+public class QueryFunctionsTest {
+
+  private static final GraphQLDatabaseSchema GRAPHQL_DATABASE_SCHEMA =
+      new GraphQLDatabaseSchema(
+          DatabaseSchema.newSchema()
+              .addKey("customers/id", KeyType.INT)
+              .addKey("customers/name", KeyType.STRING)
+              .build());
+
+  private static Row createRow(Object... values) {
+    Row row = mock(Row.class);
+    when(row.getValue(anyInt()))
+        .thenAnswer(invocation -> values[invocation.getArgument(0, Integer.class)]);
+    return row;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RowSet<Row> createRowSet(List<Row> rows) {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.size()).thenReturn(rows.size());
+    when(rowSet.iterator())
+        .thenAnswer(
+            invocation -> {
+              Iterator<Row> iterator = rows.iterator();
+              RowIterator<Row> rowIterator = mock(RowIterator.class);
+              when(rowIterator.hasNext()).thenAnswer(hasNext -> iterator.hasNext());
+              when(rowIterator.next()).thenAnswer(next -> iterator.next());
+              return rowIterator;
+            });
+    doAnswer(
+            invocation -> {
+              rows.forEach(invocation.<Consumer<Row>>getArgument(0));
+              return null;
+            })
+        .when(rowSet)
+        .forEach(any());
+    return rowSet;
+  }
+
+  private static Field parseField(String query) {
+    Document document = new Parser().parseDocument(query);
+    return (Field)
+        document
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  private static RoleSpec createRoleSpec() {
+    OpSpec opSpec = new OpSpec("customers");
+    opSpec.allow("id", "name");
+    opSpec
+        .getCondition()
+        .getNext()
+        .add(new Condition("id", RelationalOperator._in, params -> params.get("ids")));
+    TableSpec tableSpec = new TableSpec("customers");
+    tableSpec.getOpSpecs().put(OpType.select, opSpec);
+    RoleSpec roleSpec = new RoleSpec();
+    roleSpec.getTables().put("customers", tableSpec);
+    return roleSpec;
+  }
+
+  private static int countPlaceholders(String query, DatasourceConfig.DBType dbType) {
+    return (int)
+        Pattern.compile(dbType == DatasourceConfig.DBType.postgresql ? "\\$\\d+" : "\\?")
+            .matcher(query)
+            .results()
+            .count();
+  }
+
+  private static List<String> assertPlaceholdersMatchParams(DatasourceConfig.DBType dbType) {
+    List<String> executedQueries = new ArrayList<>();
+    QueryPlan queryPlan =
+        new QueryFunctions(
+                GRAPHQL_DATABASE_SCHEMA,
+                createRoleSpec(),
+                Map.of("ids", List.of(1, 2)),
+                tables -> null,
+                null,
+                dbType,
+                ExecutionConfig.createWithJsonConfig(null))
+            .createQueryPlan(parseField("{ customers { id name } }"), false);
+    for (List<Integer> ids : List.of(List.of(1, 2), List.of(1, 2, 3), List.of(4))) {
+      List<String> queries = new ArrayList<>();
+      List<List<Object>> params = new ArrayList<>();
+      queryPlan
+          .bind(Map.of("ids", ids))
+          .getQueryExecutorResponseFunction()
+          .apply(
+              (query, queryParams) ->
+                  Single.fromCallable(
+                      () -> {
+                        queries.add(query);
+                        params.add(queryParams);
+                        @SuppressWarnings("unchecked")
+                        RowSet<Row> rowSet = mock(RowSet.class);
+                        @SuppressWarnings("unchecked")
+                        RowIterator<Row> rowIterator = mock(RowIterator.class);
+                        when(rowSet.iterator()).thenReturn(rowIterator);
+                        return rowSet;
+                      }))
+          .blockingGet();
+      assertEquals(1, queries.size());
+      assertEquals(countPlaceholders(queries.get(0), dbType), params.get(0).size());
+      executedQueries.add(queries.get(0));
+    }
+    return executedQueries;
+  }
+
+  @Test
+  public void createQueryPlan_jwtListsOfDifferentLengths_postgresql() {
+    List<String> queries = assertPlaceholdersMatchParams(DatasourceConfig.DBType.postgresql);
+    // lists are bound as single array, so the same query is used for all of them
+    assertEquals(1, queries.stream().distinct().count());
+  }
+
+  @Test
+  public void createQueryPlan_jwtListsOfDifferentLengths_mysql() {
+    assertPlaceholdersMatchParams(DatasourceConfig.DBType.mysql);
+  }
+
+  @Test
+  public void createQueryPlan_referencedKeysOfDifferentTypes() {
+    GraphQLDatabaseSchema graphQLDatabaseSchema =
+        new GraphQLDatabaseSchema(
+            DatabaseSchema.newSchema()
+                .addKey("streets/id", KeyType.INT)
+                .addKey("addresses/id", KeyType.INT)
+                .addKey("addresses/street", KeyType.INT, "streets/id")
+                .build());
+    RoleSpec roleSpec = new RoleSpec();
+    for (String tableName : List.of("streets", "addresses")) {
+      OpSpec opSpec = new OpSpec(tableName);
+      opSpec.allow("id", "street");
+      TableSpec tableSpec = new TableSpec(tableName);
+      tableSpec.getOpSpecs().put(OpType.select, opSpec);
+      roleSpec.getTables().put(tableName, tableSpec);
+    }
+    QueryPlan queryPlan =
+        new QueryFunctions(
+                graphQLDatabaseSchema,
+                roleSpec,
+                Map.of(),
+                tables -> null,
+                null,
+                DatasourceConfig.DBType.postgresql,
+                ExecutionConfig.createWithJsonConfig(null))
+            .createQueryPlan(parseField("{ streets { id addresses_on_street { id } } }"), false);
+    // streets.id is read as Long (bigint), addresses.street as Integer (int)
+    List<RowSet<Row>> rowSets =
+        List.of(
+            createRowSet(List.of(createRow(1L, 1L), createRow(2L, 2L))),
+            createRowSet(List.of(createRow(10, 1), createRow(11, 1))));
+    List<Map<String, Object>> response =
+        queryPlan
+            .bind(Map.of())
+            .getQueryExecutorResponseFunction()
+            .apply(
+                new QueryExecutor() {
+                  private int count;
+
+                  @Override
+                  public Single<RowSet<Row>> apply(String query, List<Object> params) {
+                    return Single.fromCallable(() -> rowSets.get(count++));
+                  }
+                })
+            .blockingGet();
+    assertEquals(
+        List.of(
+            Map.of("id", 1L, "addresses_on_street", List.of(Map.of("id", 10), Map.of("id", 11))),
+            Map.of("id", 2L)),
+        response);
+  }
+}
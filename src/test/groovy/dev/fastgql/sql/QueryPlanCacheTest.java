@@ -0,0 +1,136 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.RoleSpec;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.reactivex.Maybe;
+import io.vertx.core.json.JsonObject;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class QueryPlanCacheTest {
+
+  private static final DatasourceConfig.DBType DB_TYPE = DatasourceConfig.DBType.postgresql;
+
+  private static Field parseField(String query) {
+    Document document = new Parser().parseDocument(query);
+    return (Field)
+        document
+            .getDefinitionsOfType(OperationDefinition.class)
+            .get(0)
+            .getSelectionSet()
+            .getSelections()
+            .get(0);
+  }
+
+  private static Supplier<QueryPlan> countingSupplier(AtomicInteger count) {
+    return () -> {
+      count.incrementAndGet();
+      return new QueryPlan((queryExecutor, jwtParams) -> Maybe.empty(), Set.of(), true);
+    };
+  }
+
+  @Test
+  public void get_sameFieldAndRole() {
+    QueryPlanCache queryPlanCache = new QueryPlanCache(ExecutionConfig.createWithJsonConfig(null));
+    RoleSpec roleSpec = new RoleSpec();
+    AtomicInteger count = new AtomicInteger();
+    QueryPlan first =
+        queryPlanCache.get(
+            null,
+            1,
+            roleSpec,
+            DB_TYPE,
+            parseField("{ customers { id } }"),
+            true,
+            countingSupplier(count));
+    QueryPlan second =
+        queryPlanCache.get(
+            null,
+            1,
+            roleSpec,
+            DB_TYPE,
+            parseField("query {\n  customers {\n    id\n  }\n}"),
+            true,
+            countingSupplier(count));
+    assertSame(first, second);
+    assertEquals(1, count.get());
+    assertEquals(1, queryPlanCache.getHitCount());
+    assertEquals(1, queryPlanCache.getMissCount());
+  }
+
+  @Test
+  public void get_differentFieldOrRole() {
+    QueryPlanCache queryPlanCache = new QueryPlanCache(ExecutionConfig.createWithJsonConfig(null));
+    RoleSpec roleSpec = new RoleSpec();
+    AtomicInteger count = new AtomicInteger();
+    Field field = parseField("{ customers(where: {id: {_eq: 101}}) { id } }");
+    QueryPlan first =
+        queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    QueryPlan otherArgument =
+        queryPlanCache.get(
+            null,
+            1,
+            roleSpec,
+            DB_TYPE,
+            parseField("{ customers(where: {id: {_eq: 102}}) { id } }"),
+            true,
+            countingSupplier(count));
+    QueryPlan otherRole =
+        queryPlanCache.get(null, 1, new RoleSpec(), DB_TYPE, field, true, countingSupplier(count));
+    assertNotSame(first, otherArgument);
+    assertNotSame(first, otherRole);
+    assertEquals(3, count.get());
+    assertEquals(0, queryPlanCache.getHitCount());
+  }
+
+  @Test
+  public void invalidateAll() {
+    QueryPlanCache queryPlanCache = new QueryPlanCache(ExecutionConfig.createWithJsonConfig(null));
+    RoleSpec roleSpec = new RoleSpec();
+    AtomicInteger count = new AtomicInteger();
+    Field field = parseField("{ customers { id } }");
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    queryPlanCache.invalidateAll();
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    assertEquals(2, count.get());
+    assertEquals(2, queryPlanCache.getMissCount());
+  }
+
+  @Test
+  public void get_newerPermissionsVersion() {
+    QueryPlanCache queryPlanCache = new QueryPlanCache(ExecutionConfig.createWithJsonConfig(null));
+    RoleSpec roleSpec = new RoleSpec();
+    AtomicInteger count = new AtomicInteger();
+    Field field = parseField("{ customers { id } }");
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    queryPlanCache.get(null, 2, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    assertEquals(1, queryPlanCache.size());
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    assertEquals(3, count.get());
+    assertEquals(1, queryPlanCache.size());
+  }
+
+  @Test
+  public void get_cacheDisabled() {
+    QueryPlanCache queryPlanCache =
+        new QueryPlanCache(
+            ExecutionConfig.createWithJsonConfig(new JsonObject().put("planCacheSize", 0)));
+    RoleSpec roleSpec = new RoleSpec();
+    AtomicInteger count = new AtomicInteger();
+    Field field = parseField("{ customers { id } }");
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    queryPlanCache.get(null, 1, roleSpec, DB_TYPE, field, true, countingSupplier(count));
+    assertEquals(2, count.get());
+    assertEquals(0, queryPlanCache.size());
+  }
+}
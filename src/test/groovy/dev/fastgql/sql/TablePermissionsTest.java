@@ -0,0 +1,116 @@
+package dev.fastgql.sql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.fastgql.common.RelationalOperator;
+import dev.fastgql.db.DatasourceConfig;
+import dev.fastgql.dsl.LogicalConnective;
+import dev.fastgql.dsl.OpSpec;
+import dev.fastgql.dsl.OpType;
+import dev.fastgql.dsl.TableSpec;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+public class TablePermissionsTest {
+
+  private static TableSpec createTableSpec(Condition... conditions) {
+    OpSpec opSpec = new OpSpec("customers");
+    opSpec.allow("id", "name");
+    opSpec.getCondition().getNext().addAll(List.of(conditions));
+    TableSpec tableSpec = new TableSpec("customers");
+    tableSpec.getOpSpecs().put(OpType.select, opSpec);
+    return tableSpec;
+  }
+
+  private static void assertSameAsConditionToSQL(
+      TableSpec tableSpec, Map<String, Object> jwtParams, DatasourceConfig.DBType dbType) {
+    PreparedQuery expected =
+        ConditionUtils.conditionToSQL(
+            tableSpec.getOp(OpType.select).getCondition(), "c0", jwtParams);
+    PreparedQuery actual =
+        TablePermissions.compile(tableSpec).createWhereFunction("c0", dbType).apply(jwtParams);
+    assertEquals(expected.buildQuery(dbType), actual.buildQuery(dbType));
+    assertEquals(expected.getParams(), actual.getParams());
+  }
+
+  private static TableSpec createListTableSpec() {
+    return createTableSpec(
+        new Condition("id", RelationalOperator._in, params -> params.get("ids")));
+  }
+
+  @Test
+  public void compile_withoutSelect() {
+    assertNull(TablePermissions.compile(new TableSpec("customers")));
+  }
+
+  @Test
+  public void isColumnAllowed() {
+    TablePermissions tablePermissions = TablePermissions.compile(createTableSpec());
+    assertTrue(tablePermissions.isColumnAllowed("name"));
+    assertFalse(tablePermissions.isColumnAllowed("address"));
+  }
+
+  @Test
+  public void createWhereFunction_bindsJwtParams() {
+    Condition or = new Condition("id", RelationalOperator._lt, params -> 10);
+    or.setConnective(LogicalConnective.or);
+    TableSpec tableSpec =
+        createTableSpec(
+            new Condition("id", RelationalOperator._eq, params -> params.get("id")), or);
+    assertSameAsConditionToSQL(tableSpec, Map.of("id", 1), DatasourceConfig.DBType.postgresql);
+    assertSameAsConditionToSQL(tableSpec, Map.of("id", 2), DatasourceConfig.DBType.mysql);
+  }
+
+  @Test
+  public void createWhereFunction_withListOperator() {
+    TablePermissions tablePermissions = TablePermissions.compile(createListTableSpec());
+    assertFalse(tablePermissions.isWhereFixed(DatasourceConfig.DBType.mysql));
+    assertSameAsConditionToSQL(
+        createListTableSpec(), Map.of("ids", List.of(3, 4)), DatasourceConfig.DBType.mysql);
+  }
+
+  @Test
+  public void createWhereFunction_withListOperator_postgresql() {
+    TablePermissions tablePermissions = TablePermissions.compile(createListTableSpec());
+    assertTrue(tablePermissions.isWhereFixed(DatasourceConfig.DBType.postgresql));
+    Function<Map<String, Object>, PreparedQuery> whereFunction =
+        tablePermissions.createWhereFunction("c0", DatasourceConfig.DBType.postgresql);
+    PreparedQuery first = whereFunction.apply(Map.of("ids", List.of(3, 4L)));
+    PreparedQuery second = whereFunction.apply(Map.of("ids", List.of(5, 6, 7)));
+    assertEquals("c0.id = ANY($1)", first.buildQuery(DatasourceConfig.DBType.postgresql).trim());
+    assertEquals(
+        first.buildQuery(DatasourceConfig.DBType.postgresql),
+        second.buildQuery(DatasourceConfig.DBType.postgresql));
+    assertArrayEquals(new Number[] {3, 4L}, (Number[]) first.getParams().get(0));
+    assertArrayEquals(new Number[] {5, 6, 7}, (Number[]) second.getParams().get(0));
+    assertNull(whereFunction.apply(Map.of("ids", List.of())).getParams().get(0));
+  }
+
+  @Test
+  public void createWhereFunction_withNinOperator_postgresql() {
+    Function<Map<String, Object>, PreparedQuery> whereFunction =
+        TablePermissions.compile(
+                createTableSpec(
+                    new Condition("id", RelationalOperator._nin, params -> params.get("ids"))))
+            .createWhereFunction("c0", DatasourceConfig.DBType.postgresql);
+    PreparedQuery preparedQuery = whereFunction.apply(Map.of("ids", List.of(3, 4)));
+    assertEquals(
+        "(c0.id IS NOT NULL AND (c0.id = ANY($1)) IS NOT TRUE)",
+        preparedQuery.buildQuery(DatasourceConfig.DBType.postgresql).trim());
+    assertArrayEquals(new Number[] {3, 4}, (Number[]) preparedQuery.getParams().get(0));
+  }
+
+  @Test
+  public void createWhereFunction_withoutCondition() {
+    Function<Map<String, Object>, PreparedQuery> whereFunction =
+        TablePermissions.compile(createTableSpec())
+            .createWhereFunction("c0", DatasourceConfig.DBType.postgresql);
+    assertTrue(whereFunction.apply(Map.of()).getParams().isEmpty());
+  }
+}
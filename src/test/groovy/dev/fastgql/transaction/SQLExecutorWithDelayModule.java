@@ -23,13 +23,13 @@ public class SQLExecutorWithDelayModule extends AbstractModule {
   }
 
   @Provides
-  Function<Transaction, QueryExecutor> provideTransactionQueryExecutorFunction() {
-    return transaction ->
+  Function<SqlClient, QueryExecutor> provideSqlClientQueryExecutorFunction() {
+    return sqlClient ->
         (query, params) -> {
           Single<RowSet<Row>> resultSingle =
               params != null && params.size() > 0
-                  ? transaction.preparedQuery(query).rxExecute(Tuple.wrap(params))
-                  : transaction.query(query).rxExecute();
+                  ? sqlClient.preparedQuery(query).rxExecute(Tuple.wrap(params))
+                  : sqlClient.query(query).rxExecute();
 
           return resultSingle
               .doOnSuccess(rows -> log.info("[executing] {}", query))
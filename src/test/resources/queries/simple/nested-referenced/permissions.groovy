@@ -0,0 +1,20 @@
+
+permissions {
+    role ('default') {
+        table ('customers') {
+            ops([select]) {
+                allow 'id'
+            }
+        }
+        table ('addresses') {
+            ops([select]) {
+                allow 'id'
+            }
+        }
+        table ('streets') {
+            ops([select]) {
+                allow 'id'
+            }
+        }
+    }
+}
\ No newline at end of file